@@ -0,0 +1,187 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.binary;
+
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.RequiredHeaderMissingFaultMessage;
+import com.example.tutotial.SystemUnavailableFaultMessage;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+
+/**
+ * One message of the binary binding of TutorialWebService: a request, its response, or one of the two faults the
+ * operation declares.  Only the fields of the frame's {@link Type} are set.  A response or fault carries the signature
+ * of the request it answers, so that the caller can tell it is the answer to that request and not to another.
+ */
+public final class BinaryFrame
+{
+
+    /**
+     * What a frame carries.
+     */
+    public enum Type
+    {
+        /** The request body and message-source header. */
+        REQUEST,
+        /** The response body and acknowledgment header. */
+        RESPONSE,
+        /** A RequiredHeaderMissingFault. */
+        REQUIRED_HEADER_MISSING,
+        /** A SystemUnavailableFault. */
+        SYSTEM_UNAVAILABLE
+    }
+
+    private final Type type;
+
+    private final long created;
+
+    private final byte[] inReplyTo;
+
+    private final TutorialRequest request;
+
+    private final MessageSource source;
+
+    private final TutorialResponse response;
+
+    private final MessageAcknowledgment acknowledgment;
+
+    private final RequiredHeaderMissingFaultMessage requiredHeaderMissing;
+
+    private final SystemUnavailableFaultMessage systemUnavailable;
+
+    BinaryFrame(Type type, long created, byte[] inReplyTo, TutorialRequest request, MessageSource source,
+            TutorialResponse response, MessageAcknowledgment acknowledgment,
+            RequiredHeaderMissingFaultMessage requiredHeaderMissing, SystemUnavailableFaultMessage systemUnavailable)
+    {
+        this.type = type;
+        this.created = created;
+        this.inReplyTo = inReplyTo;
+        this.request = request;
+        this.source = source;
+        this.response = response;
+        this.acknowledgment = acknowledgment;
+        this.requiredHeaderMissing = requiredHeaderMissing;
+        this.systemUnavailable = systemUnavailable;
+    }
+
+    /**
+     * @param request
+     * @param source
+     * @return a request frame created now
+     */
+    public static BinaryFrame request(TutorialRequest request, MessageSource source)
+    {
+        return new BinaryFrame(Type.REQUEST, System.currentTimeMillis(), null, request, source, null, null, null,
+                null);
+    }
+
+    /**
+     * @param inReplyTo the signature of the request answered
+     * @param response
+     * @param acknowledgment
+     * @return a response frame created now
+     */
+    public static BinaryFrame response(byte[] inReplyTo, TutorialResponse response,
+            MessageAcknowledgment acknowledgment)
+    {
+        return new BinaryFrame(Type.RESPONSE, System.currentTimeMillis(), inReplyTo, null, null, response,
+                acknowledgment, null, null);
+    }
+
+    /**
+     * @param inReplyTo the signature of the request answered
+     * @param faultInfo
+     * @return a fault frame created now
+     */
+    public static BinaryFrame fault(byte[] inReplyTo, RequiredHeaderMissingFaultMessage faultInfo)
+    {
+        return new BinaryFrame(Type.REQUIRED_HEADER_MISSING, System.currentTimeMillis(), inReplyTo, null, null, null,
+                null, faultInfo, null);
+    }
+
+    /**
+     * @param inReplyTo the signature of the request answered
+     * @param faultInfo
+     * @return a fault frame created now
+     */
+    public static BinaryFrame fault(byte[] inReplyTo, SystemUnavailableFaultMessage faultInfo)
+    {
+        return new BinaryFrame(Type.SYSTEM_UNAVAILABLE, System.currentTimeMillis(), inReplyTo, null, null, null, null,
+                null, faultInfo);
+    }
+
+    /**
+     * @return the type
+     */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return when the sender created the frame, in milliseconds since the epoch
+     */
+    public long getCreated()
+    {
+        return created;
+    }
+
+    /**
+     * @return the signature of the request this frame answers, for every type but {@link Type#REQUEST}
+     */
+    public byte[] getInReplyTo()
+    {
+        return inReplyTo;
+    }
+
+    /**
+     * @return the request body, for {@link Type#REQUEST}
+     */
+    public TutorialRequest getRequest()
+    {
+        return request;
+    }
+
+    /**
+     * @return the message-source header, for {@link Type#REQUEST}; may be null
+     */
+    public MessageSource getSource()
+    {
+        return source;
+    }
+
+    /**
+     * @return the response body, for {@link Type#RESPONSE}
+     */
+    public TutorialResponse getResponse()
+    {
+        return response;
+    }
+
+    /**
+     * @return the acknowledgment header, for {@link Type#RESPONSE}
+     */
+    public MessageAcknowledgment getAcknowledgment()
+    {
+        return acknowledgment;
+    }
+
+    /**
+     * @return the fault details, for {@link Type#REQUIRED_HEADER_MISSING}
+     */
+    public RequiredHeaderMissingFaultMessage getRequiredHeaderMissing()
+    {
+        return requiredHeaderMissing;
+    }
+
+    /**
+     * @return the fault details, for {@link Type#SYSTEM_UNAVAILABLE}
+     */
+    public SystemUnavailableFaultMessage getSystemUnavailable()
+    {
+        return systemUnavailable;
+    }
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import javax.xml.namespace.QName;
+
+import com.example.tutorial.jaxb.UriConverter;
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.RequiredHeaderMissingFaultMessage;
+import com.example.tutotial.SystemUnavailableFaultMessage;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.types.RequestStructure;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * <p>
+ * The wire format of the binary binding: each element of the schema's request, response and fault messages, in
+ * schema order, written with {@link DataOutputStream}.  Strings are a presence flag and modified UTF-8, dates are
+ * milliseconds plus a time zone id, and repeated elements and xs:anyAttribute maps are counted.  There are no names
+ * or namespaces on the wire; the layout is fixed by {@link #FORMAT_VERSION}, which leads every frame along with the
+ * {@link BinaryFrame.Type} and the creation time, followed in all but a request by the signature it answers.
+ * </p>
+ * <p>
+ * Adding an element to the schema means a new format version here, and for a while a server that reads both.
+ * </p>
+ */
+public final class BinaryFrameCodec
+{
+
+    /**
+     * The current frame format version.
+     */
+    public static final byte FORMAT_VERSION = 1;
+
+    /**
+     * The HTTP content type of a (signed) frame.
+     */
+    public static final String CONTENT_TYPE = "application/x-tutorial-frame";
+
+    private static final BinaryFrame.Type[] TYPES = BinaryFrame.Type.values();
+
+    private BinaryFrameCodec()
+    {
+    }
+
+    /**
+     * @param frame
+     * @return the encoded frame
+     * @throws IOException
+     */
+    public static byte[] encode(BinaryFrame frame) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(frame.getType().ordinal());
+        out.writeLong(frame.getCreated());
+        if (frame.getType() != BinaryFrame.Type.REQUEST)
+        {
+            byte[] inReplyTo = frame.getInReplyTo() == null ? new byte[0] : frame.getInReplyTo();
+            out.writeByte(inReplyTo.length);
+            out.write(inReplyTo);
+        }
+        switch (frame.getType())
+        {
+            case REQUEST:
+                writeRequest(out, frame.getRequest());
+                writeSource(out, frame.getSource());
+                break;
+            case RESPONSE:
+                writeResponse(out, frame.getResponse());
+                writeAcknowledgment(out, frame.getAcknowledgment());
+                break;
+            case REQUIRED_HEADER_MISSING:
+                out.writeBoolean(frame.getRequiredHeaderMissing() != null);
+                if (frame.getRequiredHeaderMissing() != null)
+                {
+                    writeString(out, frame.getRequiredHeaderMissing().getMissingHeaderName());
+                    writeString(out, frame.getRequiredHeaderMissing().getMessage());
+                }
+                break;
+            case SYSTEM_UNAVAILABLE:
+                out.writeBoolean(frame.getSystemUnavailable() != null);
+                if (frame.getSystemUnavailable() != null)
+                {
+                    writeString(out, frame.getSystemUnavailable().getMessage());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown frame type " + frame.getType());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a frame produced by {@link #encode(BinaryFrame)}.
+     *
+     * @param bytes
+     * @param length the length of the frame at the start of bytes
+     * @return
+     * @throws IOException if the frame is malformed or of another format version
+     */
+    public static BinaryFrame decode(byte[] bytes, int length) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported frame format version " + version);
+        }
+        int type = in.readUnsignedByte();
+        if (type >= TYPES.length)
+        {
+            throw new IOException("Unknown frame type " + type);
+        }
+        long created = in.readLong();
+        byte[] inReplyTo = null;
+        if (TYPES[type] != BinaryFrame.Type.REQUEST)
+        {
+            inReplyTo = new byte[in.readUnsignedByte()];
+            in.readFully(inReplyTo);
+        }
+        BinaryFrame frame;
+        switch (TYPES[type])
+        {
+            case REQUEST:
+                TutorialRequest request = readRequest(in);
+                frame = new BinaryFrame(BinaryFrame.Type.REQUEST, created, null, request, readSource(in), null, null,
+                        null, null);
+                break;
+            case RESPONSE:
+                TutorialResponse response = readResponse(in);
+                frame = new BinaryFrame(BinaryFrame.Type.RESPONSE, created, inReplyTo, null, null, response,
+                        readAcknowledgment(in), null, null);
+                break;
+            case REQUIRED_HEADER_MISSING:
+                RequiredHeaderMissingFaultMessage requiredHeaderMissing = null;
+                if (in.readBoolean())
+                {
+                    requiredHeaderMissing = new RequiredHeaderMissingFaultMessage();
+                    requiredHeaderMissing.setMissingHeaderName(readString(in));
+                    requiredHeaderMissing.setMessage(readString(in));
+                }
+                frame = new BinaryFrame(BinaryFrame.Type.REQUIRED_HEADER_MISSING, created, inReplyTo, null, null,
+                        null, null, requiredHeaderMissing, null);
+                break;
+            default:
+                SystemUnavailableFaultMessage systemUnavailable = null;
+                if (in.readBoolean())
+                {
+                    systemUnavailable = new SystemUnavailableFaultMessage();
+                    systemUnavailable.setMessage(readString(in));
+                }
+                frame = new BinaryFrame(BinaryFrame.Type.SYSTEM_UNAVAILABLE, created, inReplyTo, null, null, null,
+                        null, null, systemUnavailable);
+                break;
+        }
+        if (in.available() > 0)
+        {
+            throw new IOException(in.available() + " unexpected bytes after a " + frame.getType() + " frame");
+        }
+        return frame;
+    }
+
+    private static void writeRequest(DataOutputStream out, TutorialRequest request) throws IOException
+    {
+        RequestStructure structure = request == null ? null : request.getRequestStructure();
+        out.writeBoolean(request != null);
+        if (request == null)
+        {
+            return;
+        }
+        out.writeBoolean(structure != null);
+        if (structure != null)
+        {
+            out.writeInt(structure.getTags().size());
+            for (RequestStructure.Tag tag : structure.getTags())
+            {
+                writeString(out, UriConverter.printUri(tag.getUri()));
+                writeString(out, tag.getValue());
+            }
+            writeString(out, structure.getGuid());
+        }
+    }
+
+    private static TutorialRequest readRequest(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        TutorialRequest request = new TutorialRequest();
+        if (in.readBoolean())
+        {
+            RequestStructure structure = new RequestStructure();
+            int tagCount = in.readInt();
+            for (int i = 0; i < tagCount; i++)
+            {
+                RequestStructure.Tag tag = new RequestStructure.Tag();
+                tag.setUri(UriConverter.parseUri(readString(in)));
+                tag.setValue(readString(in));
+                structure.getTags().add(tag);
+            }
+            structure.setGuid(readString(in));
+            request.setRequestStructure(structure);
+        }
+        return request;
+    }
+
+    private static void writeSource(DataOutputStream out, MessageSource source) throws IOException
+    {
+        out.writeBoolean(source != null);
+        if (source != null)
+        {
+            writeString(out, source.getSystemIdentifier());
+            writeString(out, source.getMessageIdentifier());
+            writeAttributes(out, source.getOtherAttributes());
+        }
+    }
+
+    private static MessageSource readSource(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        MessageSource source = new MessageSource();
+        source.setSystemIdentifier(readString(in));
+        source.setMessageIdentifier(readString(in));
+        readAttributes(in, source.getOtherAttributes());
+        return source;
+    }
+
+    private static void writeResponse(DataOutputStream out, TutorialResponse response) throws IOException
+    {
+        ResponseStructure structure = response == null ? null : response.getResponseStructure();
+        out.writeBoolean(response != null);
+        if (response == null)
+        {
+            return;
+        }
+        out.writeBoolean(structure != null);
+        if (structure != null)
+        {
+            writeCalendar(out, structure.getServerDate());
+            writeString(out, structure.getResponseCode());
+            writeString(out, structure.getResponseMessage());
+        }
+    }
+
+    private static TutorialResponse readResponse(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        TutorialResponse response = new TutorialResponse();
+        if (in.readBoolean())
+        {
+            ResponseStructure structure = new ResponseStructure();
+            structure.setServerDate(readCalendar(in));
+            structure.setResponseCode(readString(in));
+            structure.setResponseMessage(readString(in));
+            response.setResponseStructure(structure);
+        }
+        return response;
+    }
+
+    private static void writeAcknowledgment(DataOutputStream out, MessageAcknowledgment acknowledgment)
+        throws IOException
+    {
+        out.writeBoolean(acknowledgment != null);
+        if (acknowledgment != null)
+        {
+            writeString(out, acknowledgment.getSomeMessage());
+            writeAttributes(out, acknowledgment.getOtherAttributes());
+        }
+    }
+
+    private static MessageAcknowledgment readAcknowledgment(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        MessageAcknowledgment acknowledgment = new MessageAcknowledgment();
+        acknowledgment.setSomeMessage(readString(in));
+        readAttributes(in, acknowledgment.getOtherAttributes());
+        return acknowledgment;
+    }
+
+    private static void writeAttributes(DataOutputStream out, Map<QName, String> attributes) throws IOException
+    {
+        out.writeInt(attributes.size());
+        for (Map.Entry<QName, String> attribute : attributes.entrySet())
+        {
+            writeString(out, attribute.getKey().getNamespaceURI());
+            writeString(out, attribute.getKey().getLocalPart());
+            writeString(out, attribute.getValue());
+        }
+    }
+
+    private static void readAttributes(DataInputStream in, Map<QName, String> attributes) throws IOException
+    {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            String namespace = readString(in);
+            String localPart = readString(in);
+            attributes.put(new QName(namespace, localPart), readString(in));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null)
+        {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeCalendar(DataOutputStream out, Calendar value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null)
+        {
+            out.writeLong(value.getTimeInMillis());
+            out.writeUTF(value.getTimeZone().getID());
+        }
+    }
+
+    private static Calendar readCalendar(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        long millis = in.readLong();
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone(in.readUTF()));
+        cal.setTimeInMillis(millis);
+        return cal;
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.SignatureException;
+import java.util.Arrays;
+
+import javax.xml.ws.Holder;
+import javax.xml.ws.WebServiceException;
+
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.RequiredHeaderMissingFault;
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * <p>
+ * A {@link TutorialWebService} that calls the binary binding of the service rather than its SOAP port: each call is one
+ * HTTP POST of a signed {@link BinaryFrame}, answered by a signed response or fault frame that names the request's
+ * signature.  It throws the same faults as the SOAP client, and a {@link WebServiceException} for anything else (an
+ * unreachable service, a rejected or bad signature, an answer to some other request), so callers can switch between
+ * the two.
+ * </p>
+ * <p>
+ * The client is thread safe and uses the JDK's keep-alive connection pool.  There is no WS-Security here: see
+ * {@link FrameSigner} for what the signature does and does not give you.
+ * </p>
+ */
+public class BinaryTutorialWebServiceClient implements TutorialWebService
+{
+
+    private final URL address;
+
+    private final FrameSigner signer;
+
+    private int connectTimeoutMillis = 10000;
+
+    private int readTimeoutMillis = 30000;
+
+    private int maxFrameBytes = 1024 * 1024;
+
+    /**
+     * @param address the URL of the binary endpoint
+     * @param signer signs requests and verifies responses with the key the service uses
+     */
+    public BinaryTutorialWebServiceClient(URL address, FrameSigner signer)
+    {
+        this.address = address;
+        this.signer = signer;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see com.example.tutotial.TutorialWebService#sendTutorialMessage(com.example.tutotial.TutorialRequest,
+     *      com.example.tutotial.MessageSource, javax.xml.ws.Holder, javax.xml.ws.Holder)
+     */
+    public void sendTutorialMessage(TutorialRequest parameters, MessageSource source,
+            Holder<TutorialResponse> response, Holder<MessageAcknowledgment> acknowledgment)
+        throws RequiredHeaderMissingFault, SystemUnavailableFault
+    {
+        BinaryFrame reply;
+        try
+        {
+            byte[] signed = signer.sign(BinaryFrameCodec.encode(BinaryFrame.request(parameters, source)));
+            HttpURLConnection connection = (HttpURLConnection)address.openConnection();
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", BinaryFrameCodec.CONTENT_TYPE);
+            connection.setFixedLengthStreamingMode(signed.length);
+            OutputStream out = connection.getOutputStream();
+            try
+            {
+                out.write(signed);
+            }
+            finally
+            {
+                out.close();
+            }
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            byte[] body = in == null ? new byte[0] : readFully(in);
+            if (!BinaryFrameCodec.CONTENT_TYPE.equals(connection.getContentType()))
+            {
+                throw new WebServiceException("HTTP " + status + " from " + address + " without a frame");
+            }
+            reply = BinaryFrameCodec.decode(body, signer.verify(body, body.length));
+            byte[] requestSignature = Arrays.copyOfRange(signed, signed.length - FrameSigner.SIGNATURE_LENGTH,
+                    signed.length);
+            if (!Arrays.equals(reply.getInReplyTo(), requestSignature))
+            {
+                throw new WebServiceException("The " + reply.getType() + " frame from " + address
+                        + " does not answer this request");
+            }
+        }
+        catch (IOException e)
+        {
+            throw new WebServiceException("Could not call " + address, e);
+        }
+        catch (SignatureException e)
+        {
+            throw new WebServiceException("Rejected the response from " + address, e);
+        }
+
+        switch (reply.getType())
+        {
+            case RESPONSE:
+                response.value = reply.getResponse();
+                acknowledgment.value = reply.getAcknowledgment();
+                break;
+            case REQUIRED_HEADER_MISSING:
+                throw new RequiredHeaderMissingFault(reply.getRequiredHeaderMissing() == null ? null : reply
+                        .getRequiredHeaderMissing().getMessage(), reply.getRequiredHeaderMissing());
+            case SYSTEM_UNAVAILABLE:
+                throw new SystemUnavailableFault(reply.getSystemUnavailable() == null ? null : reply
+                        .getSystemUnavailable().getMessage(), reply.getSystemUnavailable());
+            default:
+                throw new WebServiceException("Unexpected " + reply.getType() + " frame from " + address);
+        }
+    }
+
+    private byte[] readFully(InputStream in) throws IOException
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+            {
+                bytes.write(buffer, 0, read);
+                if (bytes.size() > maxFrameBytes)
+                {
+                    throw new IOException("Response from " + address + " is over " + maxFrameBytes + " bytes");
+                }
+            }
+            return bytes.toByteArray();
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * @param connectTimeoutMillis
+     */
+    public void setConnectTimeoutMillis(int connectTimeoutMillis)
+    {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * @param readTimeoutMillis
+     */
+    public void setReadTimeoutMillis(int readTimeoutMillis)
+    {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * @param maxFrameBytes the largest response accepted
+     */
+    public void setMaxFrameBytes(int maxFrameBytes)
+    {
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+}
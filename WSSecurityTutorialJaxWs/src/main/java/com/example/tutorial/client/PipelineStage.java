@@ -0,0 +1,287 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+
+/**
+ * <p>
+ * One stage of a {@link TutorialPipeline}: a bounded queue and a fixed number of worker threads taking messages off it.
+ * A full queue blocks whoever is handing it a message (the producer, for the first stage), so a slow stage holds back
+ * the ones before it rather than letting messages pile up in memory.
+ * </p>
+ * <p>
+ * Saturation is reported two ways.  {@link #getUtilization()} is the fraction of the workers' time spent on messages
+ * since the last reset; {@link #getBlockedMillis()} is how long the stage before this one spent waiting for room in
+ * this stage's queue.  A stage near 100% utilization that others are blocked on is the bottleneck and wants more
+ * threads; one that is mostly idle can give some up.
+ * </p>
+ */
+public class PipelineStage
+{
+
+    /**
+     * What a stage does with each message; throwing fails the message.
+     */
+    interface Handler
+    {
+
+        void handle(PipelinedMessage message) throws Exception;
+
+    }
+
+    private static final long POLL_MILLIS = 100;
+
+    private final String name;
+
+    private final int parallelism;
+
+    private final BlockingQueue<PipelinedMessage> queue;
+
+    private final Handler handler;
+
+    private final List<Thread> workers = new ArrayList<Thread>();
+
+    private volatile boolean running;
+
+    private final AtomicInteger busy = new AtomicInteger();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicLong busyNanos = new AtomicLong();
+
+    private final AtomicLong blockedNanos = new AtomicLong();
+
+    private final AtomicLong blockedPuts = new AtomicLong();
+
+    private volatile long sinceNanos = System.nanoTime();
+
+    PipelineStage(String name, int parallelism, int capacity, Handler handler)
+    {
+        if (parallelism < 1 || capacity < 1)
+        {
+            throw new IllegalArgumentException("A pipeline stage needs at least one thread and room for one message.");
+        }
+        this.name = name;
+        this.parallelism = parallelism;
+        this.queue = new ArrayBlockingQueue<PipelinedMessage>(capacity);
+        this.handler = handler;
+    }
+
+    /**
+     * Starts the workers, with the bus as their default so that CXF interceptors find it.
+     *
+     * @param bus
+     */
+    void start(final Bus bus)
+    {
+        running = true;
+        resetStatistics();
+        for (int i = 0; i < parallelism; i++)
+        {
+            Thread worker = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    BusFactory.setThreadDefaultBus(bus);
+                    work();
+                }
+            }, "TutorialPipeline-" + name + "-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the workers and fails whatever is still queued.
+     *
+     * @throws InterruptedException
+     */
+    void stop() throws InterruptedException
+    {
+        running = false;
+        for (Thread worker : workers)
+        {
+            worker.interrupt();
+        }
+        for (Thread worker : workers)
+        {
+            worker.join();
+        }
+        workers.clear();
+        for (PipelinedMessage message = queue.poll(); message != null; message = queue.poll())
+        {
+            message.finish(new IllegalStateException("The pipeline was stopped"));
+        }
+    }
+
+    /**
+     * Queues a message, waiting for room if the stage is full.
+     *
+     * @param message
+     * @throws InterruptedException
+     */
+    void put(PipelinedMessage message) throws InterruptedException
+    {
+        if (!running)
+        {
+            throw new IllegalStateException("The " + name + " stage is stopped");
+        }
+        if (queue.offer(message))
+        {
+            return;
+        }
+        long start = System.nanoTime();
+        queue.put(message);
+        blockedNanos.addAndGet(System.nanoTime() - start);
+        blockedPuts.incrementAndGet();
+    }
+
+    private void work()
+    {
+        while (running)
+        {
+            PipelinedMessage message;
+            try
+            {
+                message = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            if (message == null)
+            {
+                continue;
+            }
+            busy.incrementAndGet();
+            long start = System.nanoTime();
+            try
+            {
+                handler.handle(message);
+            }
+            catch (InterruptedException e)
+            {
+                message.finish(e);
+                return;
+            }
+            catch (Exception e)
+            {
+                message.finish(e);
+            }
+            finally
+            {
+                busyNanos.addAndGet(System.nanoTime() - start);
+                busy.decrementAndGet();
+                processed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Starts a new measurement window for {@link #getUtilization()} and {@link #getBlockedMillis()}.
+     */
+    void resetStatistics()
+    {
+        busyNanos.set(0);
+        blockedNanos.set(0);
+        blockedPuts.set(0);
+        sinceNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the stage's name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * @return the number of messages the queue holds
+     */
+    public int getCapacity()
+    {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    /**
+     * @return the number of messages waiting for a worker
+     */
+    public int getQueueDepth()
+    {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of workers handling a message right now
+     */
+    public int getBusyWorkers()
+    {
+        return busy.get();
+    }
+
+    /**
+     * @return the number of messages handled since startup
+     */
+    public long getProcessedCount()
+    {
+        return processed.get();
+    }
+
+    /**
+     * @return the fraction of the workers' time spent handling messages since the last reset, from 0 to 1
+     */
+    public double getUtilization()
+    {
+        long elapsed = System.nanoTime() - sinceNanos;
+        return elapsed <= 0 ? 0 : Math.min(1, busyNanos.get() / ((double)elapsed * parallelism));
+    }
+
+    /**
+     * @return the time spent waiting for room in this stage's queue since the last reset, in milliseconds
+     */
+    public long getBlockedMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(blockedNanos.get());
+    }
+
+    /**
+     * @return the number of times a message had to wait for room in this stage's queue since the last reset
+     */
+    public long getBlockedCount()
+    {
+        return blockedPuts.get();
+    }
+
+    /**
+     * @return a one-line summary of the stage's saturation
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d thread(s) %.0f%% busy, queue %d/%d, %d blocked put(s) totalling %d ms", name,
+                parallelism, getUtilization() * 100, getQueueDepth(), getCapacity(), getBlockedCount(),
+                getBlockedMillis());
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.client;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.xml.ws.Holder;
+
+import org.apache.cxf.endpoint.ClientCallback;
+import org.apache.cxf.message.Message;
+
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+
+/**
+ * One message on its way through a {@link TutorialPipeline}, and the {@link Future} of its response.  A declared fault
+ * (RequiredHeaderMissingFault, SystemUnavailableFault) or any other failure comes back as the cause of the
+ * {@link ExecutionException} thrown by {@link #get()}.  A message cannot be cancelled once submitted.
+ */
+public class PipelinedMessage implements Future<TutorialResponse>
+{
+
+    private final TutorialPipeline pipeline;
+
+    private final TutorialMessageBuilder builder;
+
+    private final long submittedNanos = System.nanoTime();
+
+    private final Holder<TutorialResponse> response = new Holder<TutorialResponse>();
+
+    private final Holder<MessageAcknowledgment> acknowledgment = new Holder<MessageAcknowledgment>();
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private volatile TutorialRequest request;
+
+    private volatile MessageSource source;
+
+    private volatile Throwable failure;
+
+    private volatile long completedNanos;
+
+    /** The outgoing CXF message, paused before WS-Security between the marshal and sign stages. */
+    volatile Message outMessage;
+
+    /** The signed and encrypted request, between the sign and send stages. */
+    volatile byte[] body;
+
+    /** The response as read off the wire, between the send and receive stages. */
+    volatile Message inMessage;
+
+    final ClientCallback callback = new ClientCallback()
+    {
+        @Override
+        public void handleResponse(Map<String, Object> ctx, Object[] res)
+        {
+            super.handleResponse(ctx, res);
+            finish(null);
+        }
+
+        @Override
+        public void handleException(Map<String, Object> ctx, Throwable ex)
+        {
+            super.handleException(ctx, ex);
+            finish(ex);
+        }
+    };
+
+    PipelinedMessage(TutorialPipeline pipeline, TutorialMessageBuilder builder)
+    {
+        this.pipeline = pipeline;
+        this.builder = builder;
+    }
+
+    void build() throws Exception
+    {
+        request = builder.buildRequest();
+        source = builder.buildSource();
+    }
+
+    /**
+     * @return the parameters of sendTutorialMessage, as the JAX-WS proxy passes them to CXF
+     */
+    Object[] parameters()
+    {
+        return new Object[] { request, source, response, acknowledgment };
+    }
+
+    /**
+     * Completes the message, once; later calls are ignored.
+     *
+     * @param cause the failure, or null if the response arrived
+     */
+    void finish(Throwable cause)
+    {
+        if (!finished.compareAndSet(false, true))
+        {
+            return;
+        }
+        failure = cause;
+        completedNanos = System.nanoTime();
+        outMessage = null;
+        body = null;
+        inMessage = null;
+        pipeline.finished(this);
+        done.countDown();
+    }
+
+    /**
+     * @return the request, once built
+     */
+    public TutorialRequest getRequest()
+    {
+        return request;
+    }
+
+    /**
+     * @return the source header, once built
+     */
+    public MessageSource getSource()
+    {
+        return source;
+    }
+
+    /**
+     * @return the acknowledgment header of the response, once it has arrived
+     */
+    public MessageAcknowledgment getAcknowledgment()
+    {
+        return acknowledgment.value;
+    }
+
+    /**
+     * @return the failure, or null if the message has not failed
+     */
+    public Throwable getFailure()
+    {
+        return failure;
+    }
+
+    /**
+     * @return the time from submission to completion in nanoseconds, or -1 if the message is still in the pipeline
+     */
+    public long getLatencyNanos()
+    {
+        return isDone() ? completedNanos - submittedNanos : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.Future#get()
+     */
+    public TutorialResponse get() throws InterruptedException, ExecutionException
+    {
+        done.await();
+        return result();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.Future#get(long, java.util.concurrent.TimeUnit)
+     */
+    public TutorialResponse get(long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException
+    {
+        if (!done.await(timeout, unit))
+        {
+            throw new TimeoutException();
+        }
+        return result();
+    }
+
+    private TutorialResponse result() throws ExecutionException
+    {
+        if (failure != null)
+        {
+            throw new ExecutionException(failure);
+        }
+        return response.value;
+    }
+
+    /**
+     * @return false; a message in the pipeline cannot be cancelled
+     * @see java.util.concurrent.Future#cancel(boolean)
+     */
+    public boolean cancel(boolean mayInterruptIfRunning)
+    {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.Future#isCancelled()
+     */
+    public boolean isCancelled()
+    {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.Future#isDone()
+     */
+    public boolean isDone()
+    {
+        return done.getCount() == 0;
+    }
+
+}
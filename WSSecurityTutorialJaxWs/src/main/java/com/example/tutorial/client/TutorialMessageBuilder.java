@@ -0,0 +1,28 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.client;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+
+/**
+ * Builds one message for a {@link TutorialPipeline}; called on a thread of its build stage, so a producer can hand over
+ * the work of assembling requests (from a database row, a file record) along with sending them.
+ */
+public interface TutorialMessageBuilder
+{
+
+    /**
+     * @return the request body
+     * @throws Exception to fail this message only
+     */
+    TutorialRequest buildRequest() throws Exception;
+
+    /**
+     * @return the source header
+     * @throws Exception to fail this message only
+     */
+    MessageSource buildSource() throws Exception;
+
+}
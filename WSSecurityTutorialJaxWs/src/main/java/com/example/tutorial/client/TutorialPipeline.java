@@ -0,0 +1,774 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.namespace.QName;
+import javax.xml.ws.WebServiceException;
+
+import org.apache.cxf.configuration.security.AuthorizationPolicy;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.endpoint.UpfrontConduitSelector;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.helpers.HttpHeaderHelper;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.transport.AbstractConduit;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.auth.DefaultBasicAuthSupplier;
+import org.apache.cxf.transport.https.HttpsURLConnectionFactory;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.apache.cxf.transports.http.configuration.ProxyServerType;
+import org.apache.cxf.wsdl.EndpointReferenceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * <p>
+ * Sends sendTutorialMessage calls for a high-volume producer through a pipeline of stages, so that building, marshalling
+ * and WS-Security work for some messages overlaps with others waiting on the network, instead of each call doing all
+ * of it in turn on the producer's thread:
+ * </p>
+ * <ol>
+ * <li><b>build</b> runs the producer's {@link TutorialMessageBuilder};</li>
+ * <li><b>marshal</b> runs the client's outgoing interceptor chain up to WS-Security, where the chain is paused;</li>
+ * <li><b>sign</b> resumes it: WSS4J signs and encrypts the message and it is serialized;</li>
+ * <li><b>send</b> POSTs the bytes and reads the response;</li>
+ * <li><b>receive</b> runs the incoming chain (decrypt, verify, unmarshal) and completes the {@link PipelinedMessage}.</li>
+ * </ol>
+ * <p>
+ * Each stage is a {@link PipelineStage} with its own threads and bounded queue; {@link #submit(TutorialMessageBuilder)}
+ * blocks while the build stage is full, so the pipeline's memory is bounded and a producer cannot outrun the service.
+ * Per-stage saturation is exported over JMX and logged when the pipeline stops.
+ * </p>
+ * <p>
+ * The pipeline takes over the transport of the {@link #client} it is given (a jaxws:client with the same WS-Security
+ * properties as any other), which should not be shared.  Requests are still sent with the settings of the client's
+ * http:conduit: its TLS client parameters, proxy, connection and receive timeouts, redirects, and Basic credentials
+ * for the server and the proxy.  Conduit settings the pipeline cannot apply (a trust decider, an authentication
+ * supplier other than Basic, non-proxy hosts) make {@link #afterPropertiesSet()} fail rather than being ignored.
+ * Calls made directly on that client still work, on the caller's thread, with the same settings.  There is no retry
+ * or answering of authentication challenges; a failed message is failed back to its future, and messages are not
+ * kept in order.
+ * </p>
+ */
+@ManagedResource(description = "Client-side send pipeline for TutorialWebService")
+public class TutorialPipeline implements InitializingBean, DisposableBean
+{
+
+    private static final QName OPERATION = new QName("http://example.com/tutotial/", "sendTutorialMessage");
+
+    private static final String WSS4J_OUT = "org.apache.cxf.ws.security.wss4j.PolicyBasedWSS4JOutInterceptor"
+            + "$PolicyBasedWSS4JOutInterceptorInternal";
+
+    private static final java.util.logging.Logger CONDUIT_LOG = java.util.logging.Logger
+            .getLogger(TutorialPipeline.class.getName());
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private TutorialWebService client;
+
+    private int buildThreads = 1;
+
+    private int marshalThreads = 1;
+
+    private int signThreads;
+
+    private int sendThreads = 4;
+
+    private int receiveThreads;
+
+    private int queueCapacity = 64;
+
+    private long shutdownTimeoutMillis = 30000;
+
+    private Client cxfClient;
+
+    private BindingOperationInfo operation;
+
+    private String address;
+
+    private HTTPConduit conduit;
+
+    private final HttpsURLConnectionFactory connectionFactory = new HttpsURLConnectionFactory();
+
+    private PipelineStage build;
+
+    private PipelineStage marshal;
+
+    private PipelineStage sign;
+
+    private PipelineStage send;
+
+    private PipelineStage receive;
+
+    private volatile boolean running;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Takes over the client's transport and starts the stages.
+     *
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        if (client == null)
+        {
+            throw new IllegalStateException("client must be set on TutorialPipeline.");
+        }
+        cxfClient = ClientProxy.getClient(client);
+        operation = cxfClient.getEndpoint().getEndpointInfo().getBinding().getOperation(OPERATION);
+        address = cxfClient.getEndpoint().getEndpointInfo().getAddress();
+        conduit = httpConduit(cxfClient);
+        UpfrontConduitSelector selector = new UpfrontConduitSelector(new PipelineConduit());
+        selector.setEndpoint(cxfClient.getEndpoint());
+        cxfClient.setConduitSelector(selector);
+        cxfClient.getOutInterceptors().add(new SignStageHandoff());
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        build = new PipelineStage("build", buildThreads, queueCapacity, new PipelineStage.Handler()
+        {
+            public void handle(PipelinedMessage message) throws Exception
+            {
+                message.build();
+                marshal.put(message);
+            }
+        });
+        marshal = new PipelineStage("marshal", marshalThreads, queueCapacity, new PipelineStage.Handler()
+        {
+            public void handle(PipelinedMessage message) throws Exception
+            {
+                Exchange exchange = new ExchangeImpl();
+                exchange.put(PipelinedMessage.class, message);
+                // returns once the chain is paused (or has failed the message through the callback)
+                cxfClient.invoke(message.callback, operation, message.parameters(), exchange);
+            }
+        });
+        sign = new PipelineStage("sign", signThreads > 0 ? signThreads : processors, queueCapacity,
+                new PipelineStage.Handler()
+                {
+                    public void handle(PipelinedMessage message) throws Exception
+                    {
+                        // the rest of the chain ends in RequestBody.close(), which queues the message to send
+                        message.outMessage.getInterceptorChain().resume();
+                    }
+                });
+        send = new PipelineStage("send", sendThreads, queueCapacity, new PipelineStage.Handler()
+        {
+            public void handle(PipelinedMessage message) throws Exception
+            {
+                message.inMessage = call(message.outMessage, message.body);
+                receive.put(message);
+            }
+        });
+        receive = new PipelineStage("receive", receiveThreads > 0 ? receiveThreads : processors, queueCapacity,
+                new PipelineStage.Handler()
+                {
+                    public void handle(PipelinedMessage message) throws Exception
+                    {
+                        deliver(message.inMessage);
+                        if (!message.isDone())
+                        {
+                            message.finish(new WebServiceException("No response from " + address));
+                        }
+                    }
+                });
+        running = true;
+        for (PipelineStage stage : getStages())
+        {
+            stage.start(cxfClient.getBus());
+        }
+        log.info("Tutorial pipeline to {} started with {} sign and {} send thread(s)", new Object[] { address,
+                sign.getParallelism(), send.getParallelism() });
+    }
+
+    /**
+     * Stops taking messages, waits up to {@link #shutdownTimeoutMillis} for those in flight, then stops the stages,
+     * failing anything left.
+     *
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws Exception
+    {
+        if (!running)
+        {
+            return;
+        }
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        synchronized (inFlight)
+        {
+            for (long left = deadline - System.nanoTime(); inFlight.get() > 0 && left > 0; left = deadline
+                    - System.nanoTime())
+            {
+                TimeUnit.NANOSECONDS.timedWait(inFlight, left);
+            }
+        }
+        log.info("Tutorial pipeline to {} stopping: {}", address, Arrays.toString(getStageSaturation()));
+        for (PipelineStage stage : getStages())
+        {
+            stage.stop();
+        }
+    }
+
+    /**
+     * Queues a message to be built and sent, waiting while the build stage is full.
+     *
+     * @param builder builds the message on a build stage thread
+     * @return the message, whose future completes with the response
+     * @throws InterruptedException if interrupted while waiting for room
+     * @throws IllegalStateException if the pipeline is not running
+     */
+    public PipelinedMessage submit(TutorialMessageBuilder builder) throws InterruptedException
+    {
+        if (!running)
+        {
+            throw new IllegalStateException("The pipeline is not running");
+        }
+        PipelinedMessage message = new PipelinedMessage(this, builder);
+        submitted.incrementAndGet();
+        inFlight.incrementAndGet();
+        try
+        {
+            build.put(message);
+        }
+        catch (InterruptedException e)
+        {
+            message.finish(e);
+            throw e;
+        }
+        catch (IllegalStateException e)
+        {
+            message.finish(e);
+            throw e;
+        }
+        return message;
+    }
+
+    /**
+     * Queues a message that is already built.
+     *
+     * @param request
+     * @param source
+     * @return the message, whose future completes with the response
+     * @throws InterruptedException if interrupted while waiting for room
+     * @see #submit(TutorialMessageBuilder)
+     */
+    public PipelinedMessage submit(final TutorialRequest request, final MessageSource source)
+        throws InterruptedException
+    {
+        return submit(new TutorialMessageBuilder()
+        {
+            public TutorialRequest buildRequest()
+            {
+                return request;
+            }
+
+            public MessageSource buildSource()
+            {
+                return source;
+            }
+        });
+    }
+
+    /**
+     * Called once for each message as it completes.
+     *
+     * @param message
+     */
+    void finished(PipelinedMessage message)
+    {
+        (message.getFailure() == null ? completed : failed).incrementAndGet();
+        if (inFlight.decrementAndGet() == 0 && !running)
+        {
+            synchronized (inFlight)
+            {
+                inFlight.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the client's HTTP conduit, whose configuration the pipeline sends with, after checking that it has no
+     * settings the pipeline would silently drop.
+     *
+     * @throws IllegalStateException if the conduit is not an HTTP conduit or has settings the pipeline cannot apply
+     */
+    private static HTTPConduit httpConduit(Client cxfClient)
+    {
+        if (!(cxfClient.getConduit() instanceof HTTPConduit))
+        {
+            throw new IllegalStateException("TutorialPipeline needs a client with an HTTP conduit, not "
+                    + cxfClient.getConduit());
+        }
+        HTTPConduit conduit = (HTTPConduit)cxfClient.getConduit();
+        String name = conduit.getConduitName();
+        if (conduit.getTrustDecider() != null)
+        {
+            throw new IllegalStateException("The http:conduit " + name
+                    + " has a trust decider, which TutorialPipeline does not apply.");
+        }
+        if (!isBasic(conduit.getAuthSupplier()) || !isBasic(conduit.getProxyAuthSupplier()))
+        {
+            throw new IllegalStateException("The http:conduit " + name
+                    + " has an authentication supplier; TutorialPipeline only sends Basic credentials.");
+        }
+        if (conduit.getClient().isSetNonProxyHosts())
+        {
+            throw new IllegalStateException("The http:conduit " + name
+                    + " sets NonProxyHosts, which TutorialPipeline does not apply.");
+        }
+        return conduit;
+    }
+
+    private static boolean isBasic(Object authSupplier)
+    {
+        return authSupplier == null || authSupplier instanceof DefaultBasicAuthSupplier;
+    }
+
+    /**
+     * POSTs a serialized request and reads the whole response, as the HTTP conduit would, with its TLS, proxy,
+     * timeout and credential settings.
+     *
+     * @return the incoming message, ready for the client's incoming chain
+     */
+    private Message call(Message out, byte[] body)
+    {
+        String target = (String)out.get(Message.ENDPOINT_ADDRESS);
+        if (target == null)
+        {
+            target = address;
+        }
+        try
+        {
+            HTTPClientPolicy policy = conduit.getClient(out);
+            URL url = new URL(target);
+            HttpURLConnection connection = connectionFactory.createConnection(conduit.getTlsClientParameters(),
+                    proxy(policy), url);
+            connection.setConnectTimeout((int)policy.getConnectionTimeout());
+            connection.setReadTimeout((int)policy.getReceiveTimeout());
+            connection.setInstanceFollowRedirects(policy.isAutoRedirect());
+            connection.setUseCaches(false);
+            setCredentials(connection, conduit.getEffectiveAuthPolicy(out), HttpHeaderHelper.AUTHORIZATION);
+            if (policy.isSetProxyServer())
+            {
+                setCredentials(connection, conduit.getProxyAuthorization(), "Proxy-Authorization");
+            }
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            String contentType = (String)out.get(Message.CONTENT_TYPE);
+            if (contentType == null)
+            {
+                contentType = "text/xml";
+            }
+            String encoding = (String)out.get(Message.ENCODING);
+            if (encoding != null && contentType.indexOf("charset=") < 0)
+            {
+                contentType += "; charset=" + encoding;
+            }
+            connection.setRequestProperty(HttpHeaderHelper.CONTENT_TYPE, contentType);
+            Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>)out.get(Message.PROTOCOL_HEADERS));
+            if (headers != null)
+            {
+                for (Map.Entry<String, List<String>> header : headers.entrySet())
+                {
+                    for (String value : header.getValue())
+                    {
+                        connection.addRequestProperty(header.getKey(), value);
+                    }
+                }
+            }
+            connection.setFixedLengthStreamingMode(body.length);
+            OutputStream stream = connection.getOutputStream();
+            try
+            {
+                stream.write(body);
+            }
+            finally
+            {
+                stream.close();
+            }
+
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            Message response = new MessageImpl();
+            response.setExchange(out.getExchange());
+            response.put(Message.RESPONSE_CODE, status);
+            String responseType = connection.getContentType();
+            response.put(Message.CONTENT_TYPE, responseType);
+            String charset = HttpHeaderHelper.mapCharset(HttpHeaderHelper.findCharset(responseType));
+            if (charset != null)
+            {
+                response.put(Message.ENCODING, charset);
+            }
+            Map<String, List<String>> responseHeaders = new TreeMap<String, List<String>>(
+                    String.CASE_INSENSITIVE_ORDER);
+            for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet())
+            {
+                if (header.getKey() != null)
+                {
+                    responseHeaders.put(header.getKey(), header.getValue());
+                }
+            }
+            response.put(Message.PROTOCOL_HEADERS, responseHeaders);
+            response.setContent(InputStream.class, new ByteArrayInputStream(in == null ? new byte[0]
+                    : readFully(in)));
+            return response;
+        }
+        catch (IOException e)
+        {
+            throw new WebServiceException("Could not call " + target, e);
+        }
+    }
+
+    /**
+     * @return the proxy the conduit's client policy names, or null to use the JVM's default proxy selection
+     */
+    private static Proxy proxy(HTTPClientPolicy policy)
+    {
+        if (!policy.isSetProxyServer())
+        {
+            return null;
+        }
+        Proxy.Type type = policy.getProxyServerType() == ProxyServerType.SOCKS ? Proxy.Type.SOCKS : Proxy.Type.HTTP;
+        return new Proxy(type, new InetSocketAddress(policy.getProxyServer(), policy.getProxyServerPort()));
+    }
+
+    /**
+     * Sets the header from a conduit authorization policy: its literal authorization if it has one, or Basic
+     * credentials from its user name and password.
+     */
+    private static void setCredentials(HttpURLConnection connection, AuthorizationPolicy authorization, String header)
+        throws IOException
+    {
+        if (authorization == null)
+        {
+            return;
+        }
+        String type = authorization.getAuthorizationType();
+        if (authorization.isSetAuthorization())
+        {
+            connection.setRequestProperty(header, (type != null ? type + " " : "") + authorization.getAuthorization());
+        }
+        else if (authorization.isSetUserName())
+        {
+            if (type != null && !"Basic".equalsIgnoreCase(type))
+            {
+                throw new IOException("TutorialPipeline only sends Basic credentials, not " + type);
+            }
+            connection.setRequestProperty(header, DefaultBasicAuthSupplier.getBasicAuthHeader(authorization
+                    .getUserName(), authorization.getPassword()));
+        }
+    }
+
+    /**
+     * Hands a response to the client, which runs its incoming chain and completes the call.
+     */
+    private static void deliver(Message in)
+    {
+        in.getExchange().get(MessageObserver.class).onMessage(in);
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+            {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * @return the stages, in order
+     */
+    public List<PipelineStage> getStages()
+    {
+        return Arrays.asList(build, marshal, sign, send, receive);
+    }
+
+    /**
+     * @return one line per stage: threads, utilization, queue depth and time the stage before it spent blocked on it
+     */
+    @ManagedAttribute(description = "Saturation of each stage since the last reset")
+    public String[] getStageSaturation()
+    {
+        List<PipelineStage> stages = getStages();
+        String[] lines = new String[stages.size()];
+        for (int i = 0; i < lines.length; i++)
+        {
+            lines[i] = String.valueOf(stages.get(i));
+        }
+        return lines;
+    }
+
+    /**
+     * Starts a new measurement window for stage utilization and blocking.
+     */
+    @ManagedOperation(description = "Start a new measurement window for stage saturation")
+    public void resetStatistics()
+    {
+        for (PipelineStage stage : getStages())
+        {
+            stage.resetStatistics();
+        }
+    }
+
+    /**
+     * @return the number of messages submitted and not yet completed
+     */
+    @ManagedAttribute(description = "Messages in the pipeline")
+    public int getInFlightCount()
+    {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of messages submitted
+     */
+    @ManagedAttribute(description = "Messages submitted since startup")
+    public long getSubmittedCount()
+    {
+        return submitted.get();
+    }
+
+    /**
+     * @return the number of messages that got a response
+     */
+    @ManagedAttribute(description = "Messages completed with a response since startup")
+    public long getCompletedCount()
+    {
+        return completed.get();
+    }
+
+    /**
+     * @return the number of messages that failed, including those answered with a fault
+     */
+    @ManagedAttribute(description = "Messages failed since startup")
+    public long getFailedCount()
+    {
+        return failed.get();
+    }
+
+    /**
+     * @param client the JAX-WS client whose configuration and transport the pipeline uses
+     */
+    public void setClient(TutorialWebService client)
+    {
+        this.client = client;
+    }
+
+    /**
+     * @param buildThreads threads running message builders
+     */
+    public void setBuildThreads(int buildThreads)
+    {
+        this.buildThreads = buildThreads;
+    }
+
+    /**
+     * @param marshalThreads threads marshalling messages up to WS-Security
+     */
+    public void setMarshalThreads(int marshalThreads)
+    {
+        this.marshalThreads = marshalThreads;
+    }
+
+    /**
+     * @param signThreads threads signing and encrypting; 0 means one per available processor
+     */
+    public void setSignThreads(int signThreads)
+    {
+        this.signThreads = signThreads;
+    }
+
+    /**
+     * @param sendThreads threads sending, which is also the most requests on the network at once
+     */
+    public void setSendThreads(int sendThreads)
+    {
+        this.sendThreads = sendThreads;
+    }
+
+    /**
+     * @param receiveThreads threads decrypting, verifying and unmarshalling responses; 0 means one per available
+     *            processor
+     */
+    public void setReceiveThreads(int receiveThreads)
+    {
+        this.receiveThreads = receiveThreads;
+    }
+
+    /**
+     * @param queueCapacity the number of messages each stage's queue holds
+     */
+    public void setQueueCapacity(int queueCapacity)
+    {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param shutdownTimeoutMillis how long {@link #destroy()} waits for messages in flight
+     */
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis)
+    {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * Pauses the outgoing chain of a pipelined message just before WSS4J, and queues it for the sign stage.
+     */
+    private class SignStageHandoff extends AbstractPhaseInterceptor<Message>
+    {
+
+        SignStageHandoff()
+        {
+            super(TutorialPipeline.class.getName() + ".SignStageHandoff", Phase.POST_PROTOCOL);
+            addBefore(WSS4J_OUT);
+        }
+
+        public void handleMessage(Message message) throws Fault
+        {
+            PipelinedMessage pipelined = message.getExchange().get(PipelinedMessage.class);
+            if (pipelined == null)
+            {
+                return;
+            }
+            pipelined.outMessage = message;
+            // the marshal thread leaves the chain after this interceptor; a sign thread resumes it after
+            message.getInterceptorChain().pause();
+            try
+            {
+                sign.put(pipelined);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new Fault(e);
+            }
+        }
+
+    }
+
+    /**
+     * Buffers each request; see {@link RequestBody}.
+     */
+    private class PipelineConduit extends AbstractConduit
+    {
+
+        PipelineConduit()
+        {
+            super(EndpointReferenceUtils.getEndpointReference(address));
+        }
+
+        public void prepare(Message message) throws IOException
+        {
+            message.setContent(OutputStream.class, new RequestBody(message));
+        }
+
+        @Override
+        protected java.util.logging.Logger getLogger()
+        {
+            return CONDUIT_LOG;
+        }
+
+    }
+
+    /**
+     * The serialized request.  When the chain closes it, a pipelined message goes to the send stage; any other call
+     * is sent and answered on the calling thread.
+     */
+    private class RequestBody extends ByteArrayOutputStream
+    {
+
+        private final Message message;
+
+        private boolean closed;
+
+        RequestBody(Message message)
+        {
+            super(4096);
+            this.message = message;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            PipelinedMessage pipelined = message.getExchange().get(PipelinedMessage.class);
+            if (pipelined == null)
+            {
+                deliver(call(message, toByteArray()));
+                return;
+            }
+            pipelined.body = toByteArray();
+            try
+            {
+                send.put(pipelined);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for the send stage");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.jaxb;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * A bounded, concurrent cache mapping lexical values to a single shared (canonical) instance of whatever they convert
+ * to.  It is used by the JAXB converters so that the few hundred tag URIs and labels our clients send over and over are
+ * parsed once and shared, rather than rebuilt on every request.
+ * </p>
+ * <p>
+ * The cache is generational: entries go into the current generation until it holds {@link #maxEntries}, at which
+ * point it becomes the previous generation and a fresh one is started.  A hit in the previous generation is promoted.
+ * Values in steady use therefore survive a rotation, while a flood of one-off values (say, from a client sending
+ * random URIs) can never hold more than twice {@link #maxEntries} in memory and merely causes churn.  Keys longer than
+ * {@link #maxKeyLength} are never cached.
+ * </p>
+ * <p>
+ * Cached values must be immutable, since they are shared across threads and requests.
+ * </p>
+ * 
+ * @param <V>
+ */
+public class CanonicalizationCache<V>
+{
+
+    private final int maxEntries;
+
+    private final int maxKeyLength;
+
+    private volatile ConcurrentHashMap<String, V> current;
+
+    private volatile ConcurrentHashMap<String, V> previous;
+
+    /**
+     * @param maxEntries the most entries held per generation; 0 disables caching
+     * @param maxKeyLength the longest key that will be cached
+     */
+    public CanonicalizationCache(int maxEntries, int maxKeyLength)
+    {
+        this.maxEntries = maxEntries;
+        this.maxKeyLength = maxKeyLength;
+        this.current = newGeneration();
+        this.previous = newGeneration();
+    }
+
+    /**
+     * @param key
+     * @return the cached value, or null on a miss
+     */
+    public V get(String key)
+    {
+        V value = current.get(key);
+        if (value == null)
+        {
+            value = previous.get(key);
+            if (value != null)
+            {
+                value = put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value unless one is already present (or the key is not cacheable).
+     * 
+     * @param key
+     * @param value
+     * @return the canonical value for the key, which is the given value unless another thread got there first
+     */
+    public V put(String key, V value)
+    {
+        if (maxEntries <= 0 || key.length() > maxKeyLength)
+        {
+            return value;
+        }
+        ConcurrentHashMap<String, V> generation = current;
+        if (generation.size() >= maxEntries)
+        {
+            generation = rotate(generation);
+        }
+        V existing = generation.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    private synchronized ConcurrentHashMap<String, V> rotate(ConcurrentHashMap<String, V> full)
+    {
+        if (current == full)
+        {
+            previous = full;
+            current = newGeneration();
+        }
+        return current;
+    }
+
+    private ConcurrentHashMap<String, V> newGeneration()
+    {
+        return new ConcurrentHashMap<String, V>(Math.max(16, Math.min(maxEntries, 1 << 16) * 4 / 3 + 1));
+    }
+
+    /**
+     * @return the number of entries currently held across both generations (approximate)
+     */
+    public int size()
+    {
+        return current.size() + previous.size();
+    }
+
+    /**
+     * Empties the cache.
+     */
+    public synchronized void clear()
+    {
+        current = newGeneration();
+        previous = newGeneration();
+    }
+
+}
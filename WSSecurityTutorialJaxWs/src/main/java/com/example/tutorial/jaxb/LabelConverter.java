@@ -0,0 +1,57 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.jaxb;
+
+/**
+ * A JAXB Converter for Label values which returns one shared String instance for each frequently seen label, so that
+ * the copies held on to after unmarshalling (journal, delivery queue) don't each carry their own.  The cache size can
+ * be set with the system property {@value #CACHE_SIZE_PROPERTY}.
+ */
+public class LabelConverter
+{
+
+    /**
+     * System property giving the number of labels to cache per generation (0 disables the cache).
+     */
+    public static final String CACHE_SIZE_PROPERTY = "com.example.tutorial.jaxb.labelCacheSize";
+
+    private static final CanonicalizationCache<String> cache = new CanonicalizationCache<String>(
+            Integer.getInteger(CACHE_SIZE_PROPERTY, 4096), 255);
+
+    /**
+     * Parses the Label
+     * 
+     * @param xmlRepresentation
+     * @return
+     */
+    public static String parseLabel(String xmlRepresentation)
+    {
+        if (xmlRepresentation == null)
+        {
+            return null;
+        }
+        String label = cache.get(xmlRepresentation);
+        return label != null ? label : cache.put(xmlRepresentation, xmlRepresentation);
+    }
+
+    /**
+     * Prints the Label
+     * 
+     * @param label
+     * @return
+     */
+    public static String printLabel(String label)
+    {
+        return label;
+    }
+
+    /**
+     * @return the cache of labels
+     */
+    static CanonicalizationCache<String> getCache()
+    {
+        return cache;
+    }
+
+}
@@ -7,13 +7,23 @@ import java.net.URI;
 import java.net.URISyntaxException;
 
 /**
- * A JAXB Converter for URI values.
+ * A JAXB Converter for URI values.  Parsed URIs are shared through a {@link CanonicalizationCache}, so a URI seen
+ * before skips the URI grammar parse entirely; the cache size can be set with the system property
+ * {@value #CACHE_SIZE_PROPERTY}.
  *
  * @author Ross M. Lodge
  */
 public class UriConverter
 {
     
+    /**
+     * System property giving the number of URIs to cache per generation (0 disables the cache).
+     */
+    public static final String CACHE_SIZE_PROPERTY = "com.example.tutorial.jaxb.uriCacheSize";
+    
+    private static final CanonicalizationCache<URI> cache = new CanonicalizationCache<URI>(
+            Integer.getInteger(CACHE_SIZE_PROPERTY, 4096), 255);
+    
     /**
      * Parses the URI object
      * 
@@ -22,9 +32,18 @@ public class UriConverter
      */
     public static URI parseUri(String xmlRepresentation)
     {
+        if (xmlRepresentation == null || "".equals(xmlRepresentation))
+        {
+            return null;
+        }
+        URI uri = cache.get(xmlRepresentation);
+        if (uri != null)
+        {
+            return uri;
+        }
         try
         {
-            return xmlRepresentation != null && !"".equals(xmlRepresentation) ? new URI(xmlRepresentation) : null;
+            return cache.put(xmlRepresentation, new URI(xmlRepresentation));
         }
         catch (URISyntaxException e)
         {
@@ -43,4 +62,12 @@ public class UriConverter
         return uri != null ? uri.toString() : null;
     }
 
+    /**
+     * @return the cache of parsed URIs
+     */
+    static CanonicalizationCache<URI> getCache()
+    {
+        return cache;
+    }
+
 }
@@ -0,0 +1,168 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.binary;
+
+import static org.testng.Assert.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.namespace.QName;
+
+import org.testng.annotations.Test;
+
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.RequiredHeaderMissingFaultMessage;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.types.RequestStructure;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * Unit tests for {@link BinaryFrameCodec} and {@link FrameSigner}.
+ */
+public class BinaryFrameCodecTest
+{
+
+    private static final String KEY = DatatypeConverter.printBase64Binary("0123456789abcdef0123456789abcdef"
+            .getBytes());
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void requestRoundTripTest() throws Exception
+    {
+        TutorialRequest request = new TutorialRequest();
+        RequestStructure structure = new RequestStructure();
+        structure.setGuid("3f0e5a1c-guid");
+        RequestStructure.Tag tag = new RequestStructure.Tag();
+        tag.setUri(URI.create("tag:vork:339:#1"));
+        tag.setValue("Some Value 1");
+        structure.getTags().add(tag);
+        structure.getTags().add(new RequestStructure.Tag());
+        request.setRequestStructure(structure);
+        MessageSource source = new MessageSource();
+        source.setSystemIdentifier("test");
+        source.getOtherAttributes().put(new QName("urn:x", "extra"), "1");
+
+        BinaryFrame frame = BinaryFrame.request(request, source);
+        byte[] bytes = BinaryFrameCodec.encode(frame);
+        BinaryFrame decoded = BinaryFrameCodec.decode(bytes, bytes.length);
+
+        assertEquals(decoded.getType(), BinaryFrame.Type.REQUEST);
+        assertEquals(decoded.getCreated(), frame.getCreated());
+        RequestStructure decodedStructure = decoded.getRequest().getRequestStructure();
+        assertEquals(decodedStructure.getGuid(), "3f0e5a1c-guid");
+        assertEquals(decodedStructure.getTags().size(), 2);
+        assertEquals(decodedStructure.getTags().get(0).getUri(), URI.create("tag:vork:339:#1"));
+        assertEquals(decodedStructure.getTags().get(0).getValue(), "Some Value 1");
+        assertNull(decodedStructure.getTags().get(1).getUri());
+        assertEquals(decoded.getSource().getSystemIdentifier(), "test");
+        assertNull(decoded.getSource().getMessageIdentifier());
+        assertEquals(decoded.getSource().getOtherAttributes().get(new QName("urn:x", "extra")), "1");
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void responseAndFaultRoundTripTest() throws Exception
+    {
+        Calendar serverDate = Calendar.getInstance(TimeZone.getTimeZone("America/Los_Angeles"));
+        ResponseStructure structure = new ResponseStructure();
+        structure.setServerDate(serverDate);
+        structure.setResponseCode("00000");
+        TutorialResponse response = new TutorialResponse();
+        response.setResponseStructure(structure);
+        MessageAcknowledgment acknowledgment = new MessageAcknowledgment();
+        acknowledgment.setSomeMessage("WE ACKNOWLEDGE!");
+
+        byte[] inReplyTo = new byte[FrameSigner.SIGNATURE_LENGTH];
+        Arrays.fill(inReplyTo, (byte)7);
+        byte[] bytes = BinaryFrameCodec.encode(BinaryFrame.response(inReplyTo, response, acknowledgment));
+        BinaryFrame decoded = BinaryFrameCodec.decode(bytes, bytes.length);
+        assertEquals(decoded.getType(), BinaryFrame.Type.RESPONSE);
+        assertEquals(decoded.getInReplyTo(), inReplyTo);
+        assertEquals(decoded.getResponse().getResponseStructure().getServerDate().getTimeInMillis(), serverDate
+                .getTimeInMillis());
+        assertEquals(decoded.getResponse().getResponseStructure().getServerDate().getTimeZone().getID(),
+                "America/Los_Angeles");
+        assertEquals(decoded.getResponse().getResponseStructure().getResponseCode(), "00000");
+        assertNull(decoded.getResponse().getResponseStructure().getResponseMessage());
+        assertEquals(decoded.getAcknowledgment().getSomeMessage(), "WE ACKNOWLEDGE!");
+
+        RequiredHeaderMissingFaultMessage faultInfo = new RequiredHeaderMissingFaultMessage();
+        faultInfo.setMessage("Source cannot be null.");
+        faultInfo.setMissingHeaderName("source");
+        bytes = BinaryFrameCodec.encode(BinaryFrame.fault(inReplyTo, faultInfo));
+        decoded = BinaryFrameCodec.decode(bytes, bytes.length);
+        assertEquals(decoded.getType(), BinaryFrame.Type.REQUIRED_HEADER_MISSING);
+        assertEquals(decoded.getInReplyTo(), inReplyTo);
+        assertEquals(decoded.getRequiredHeaderMissing().getMissingHeaderName(), "source");
+        assertEquals(decoded.getRequiredHeaderMissing().getMessage(), "Source cannot be null.");
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit", expectedExceptions = IOException.class)
+    public void otherVersionTest() throws Exception
+    {
+        byte[] bytes = BinaryFrameCodec.encode(BinaryFrame.request(new TutorialRequest(), null));
+        bytes[0] = BinaryFrameCodec.FORMAT_VERSION + 1;
+        BinaryFrameCodec.decode(bytes, bytes.length);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void signatureTest() throws Exception
+    {
+        FrameSigner signer = new FrameSigner(KEY);
+        byte[] frame = BinaryFrameCodec.encode(BinaryFrame.request(new TutorialRequest(), new MessageSource()));
+        byte[] signed = signer.sign(frame);
+        assertEquals(signed.length, frame.length + FrameSigner.SIGNATURE_LENGTH);
+        assertEquals(signer.verify(signed, signed.length), frame.length);
+
+        signed[3] ^= 1;
+        try
+        {
+            signer.verify(signed, signed.length);
+            fail("A changed frame must not verify");
+        }
+        catch (SignatureException e)
+        {
+            // expected
+        }
+        signed[3] ^= 1;
+        FrameSigner otherKey = new FrameSigner(DatatypeConverter.printBase64Binary(new byte[32]));
+        try
+        {
+            otherKey.verify(signed, signed.length);
+            fail("A frame signed with another key must not verify");
+        }
+        catch (SignatureException e)
+        {
+            // expected
+        }
+    }
+
+    /**
+     *
+     */
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void shortKeyTest()
+    {
+        new FrameSigner(DatatypeConverter.printBase64Binary(new byte[16]));
+    }
+
+}
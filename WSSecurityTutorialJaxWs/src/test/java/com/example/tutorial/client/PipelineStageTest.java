@@ -0,0 +1,83 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.client;
+
+import static org.testng.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link PipelineStage}.
+ */
+public class PipelineStageTest
+{
+
+    /**
+     * A full stage holds back whoever feeds it, and says so.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void stageBlocksWhenFullTest() throws Exception
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        PipelineStage stage = new PipelineStage("test", 1, 1, new PipelineStage.Handler()
+        {
+            public void handle(PipelinedMessage message) throws Exception
+            {
+                release.await();
+                message.finish(null);
+            }
+        });
+        stage.start(null);
+        TutorialPipeline owner = new TutorialPipeline();
+        List<PipelinedMessage> messages = new ArrayList<PipelinedMessage>();
+        for (int i = 0; i < 3; i++)
+        {
+            messages.add(new PipelinedMessage(owner, null));
+        }
+        stage.put(messages.get(0));
+        while (stage.getBusyWorkers() == 0)
+        {
+            Thread.sleep(1);
+        }
+        stage.put(messages.get(1));
+        assertEquals(stage.getQueueDepth(), 1);
+
+        Thread releaser = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                release.countDown();
+            }
+        };
+        releaser.start();
+        stage.put(messages.get(2));
+        assertEquals(stage.getBlockedCount(), 1);
+        assertTrue(stage.getBlockedMillis() >= 50, stage.toString());
+
+        for (PipelinedMessage message : messages)
+        {
+            assertNull(message.get(10, TimeUnit.SECONDS));
+        }
+        stage.stop();
+        assertEquals(stage.getProcessedCount(), 3);
+        assertEquals(stage.getBusyWorkers(), 0);
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.client;
+
+import static org.testng.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.ws.Holder;
+
+import org.apache.cxf.configuration.security.AuthorizationPolicy;
+import org.apache.cxf.configuration.security.ProxyAuthorizationPolicy;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.MessageTrustDecider;
+import org.apache.cxf.transport.http.URLConnectionInfo;
+import org.apache.cxf.transport.http.UntrustedURLConnectionIOException;
+import org.apache.cxf.transport.http.auth.DefaultBasicAuthSupplier;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.testng.annotations.Test;
+
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * Unit tests that {@link TutorialPipeline} sends with the settings of the client's http:conduit, or refuses to start.
+ */
+public class TutorialPipelineConduitTest
+{
+
+    private static final String ADDRESS = "http://tutorial.invalid/TutorialWebService";
+
+    /**
+     * A direct call on the pipeline's client goes through the conduit's proxy with its credentials.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void sendsWithConduitSettingsTest() throws Exception
+    {
+        final ServerSocket proxy = new ServerSocket(0);
+        final List<String> request = new ArrayList<String>();
+        Thread server = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Socket socket = proxy.accept();
+                    try
+                    {
+                        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                "ISO-8859-1"));
+                        for (String line = in.readLine(); line != null && line.length() > 0; line = in.readLine())
+                        {
+                            request.add(line);
+                        }
+                        OutputStream out = socket.getOutputStream();
+                        out.write("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+                                .getBytes("ISO-8859-1"));
+                        out.flush();
+                    }
+                    finally
+                    {
+                        socket.close();
+                    }
+                }
+                catch (Exception e)
+                {
+                    request.add(e.toString());
+                }
+            }
+        };
+        server.start();
+
+        TutorialWebService port = client();
+        HTTPConduit conduit = (HTTPConduit)ClientProxy.getClient(port).getConduit();
+        HTTPClientPolicy policy = new HTTPClientPolicy();
+        policy.setProxyServer("127.0.0.1");
+        policy.setProxyServerPort(proxy.getLocalPort());
+        policy.setReceiveTimeout(5000);
+        conduit.setClient(policy);
+        AuthorizationPolicy authorization = new AuthorizationPolicy();
+        authorization.setUserName("producer");
+        authorization.setPassword("secret");
+        conduit.setAuthorization(authorization);
+        ProxyAuthorizationPolicy proxyAuthorization = new ProxyAuthorizationPolicy();
+        proxyAuthorization.setUserName("gateway");
+        proxyAuthorization.setPassword("open");
+        conduit.setProxyAuthorization(proxyAuthorization);
+
+        TutorialPipeline pipeline = new TutorialPipeline();
+        pipeline.setClient(port);
+        pipeline.afterPropertiesSet();
+        try
+        {
+            port.sendTutorialMessage(new TutorialRequest(), new MessageSource(), new Holder<TutorialResponse>(),
+                    new Holder<MessageAcknowledgment>());
+            fail("The proxy answered 503");
+        }
+        catch (Exception e)
+        {
+            // expected: the request is what is being checked
+        }
+        finally
+        {
+            pipeline.destroy();
+            server.join(5000);
+            proxy.close();
+        }
+
+        assertFalse(request.isEmpty(), "Nothing reached the conduit's proxy");
+        assertTrue(request.get(0).startsWith("POST " + ADDRESS + " "), request.get(0));
+        assertTrue(request.contains("Authorization: "
+                + DefaultBasicAuthSupplier.getBasicAuthHeader("producer", "secret")), request.toString());
+        assertTrue(request.contains("Proxy-Authorization: "
+                + DefaultBasicAuthSupplier.getBasicAuthHeader("gateway", "open")), request.toString());
+    }
+
+    /**
+     * A trust decider can't be applied by the pipeline, so it must not start rather than skip it.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "unit", expectedExceptions = IllegalStateException.class)
+    public void refusesTrustDeciderTest() throws Exception
+    {
+        TutorialWebService port = client();
+        ((HTTPConduit)ClientProxy.getClient(port).getConduit()).setTrustDecider(new MessageTrustDecider()
+        {
+            @Override
+            public void establishTrust(String conduitName, URLConnectionInfo connectionInfo, Message message)
+                throws UntrustedURLConnectionIOException
+            {
+                // trusts everything; only its presence matters
+            }
+        });
+        TutorialPipeline pipeline = new TutorialPipeline();
+        pipeline.setClient(port);
+        pipeline.afterPropertiesSet();
+    }
+
+    private static TutorialWebService client()
+    {
+        JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+        factory.setServiceClass(TutorialWebService.class);
+        factory.setAddress(ADDRESS);
+        return (TutorialWebService)factory.create();
+    }
+
+}
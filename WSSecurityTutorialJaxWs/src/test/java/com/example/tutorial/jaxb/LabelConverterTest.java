@@ -0,0 +1,73 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.jaxb;
+
+import static org.testng.Assert.*;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link LabelConverter} and the cache behind it.
+ */
+public class LabelConverterTest
+{
+
+    private static final int CACHE_SIZE = Integer.getInteger(LabelConverter.CACHE_SIZE_PROPERTY, 4096);
+
+    /**
+     * Starts each test from an empty cache.
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void clearCache()
+    {
+        LabelConverter.getCache().clear();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void sharesLabelTest() throws Exception
+    {
+        String first = LabelConverter.parseLabel(new String("Some Label"));
+        String second = LabelConverter.parseLabel(new String("Some Label"));
+        assertEquals(first, "Some Label");
+        assertSame(second, first);
+        assertEquals(LabelConverter.getCache().size(), 1);
+        assertSame(LabelConverter.printLabel(first), first);
+        assertNull(LabelConverter.parseLabel(null));
+    }
+
+    /**
+     * A label in steady use survives rotation; one seen once is evicted after two generations of other labels, and an
+     * over-long one is never held.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void evictsUnusedLabelsTest() throws Exception
+    {
+        String hot = LabelConverter.parseLabel(new String("hot"));
+        String cold = LabelConverter.parseLabel(new String("cold"));
+        for (int i = 0; i < CACHE_SIZE * 2 + 1; i++)
+        {
+            LabelConverter.parseLabel("label " + i);
+            assertSame(LabelConverter.parseLabel(new String("hot")), hot);
+            assertTrue(LabelConverter.getCache().size() <= CACHE_SIZE * 2);
+        }
+        String again = LabelConverter.parseLabel(new String("cold"));
+        assertEquals(again, cold);
+        assertNotSame(again, cold);
+
+        StringBuilder longLabel = new StringBuilder();
+        while (longLabel.length() < 256)
+        {
+            longLabel.append('x');
+        }
+        String parsed = LabelConverter.parseLabel(longLabel.toString());
+        assertNotSame(LabelConverter.parseLabel(longLabel.toString()), parsed);
+    }
+
+}
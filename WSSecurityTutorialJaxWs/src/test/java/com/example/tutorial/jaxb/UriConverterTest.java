@@ -0,0 +1,109 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.jaxb;
+
+import static org.testng.Assert.*;
+
+import java.net.URI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link UriConverter} and its {@link CanonicalizationCache}.  The "benchmark" group is not run by
+ * default; run it with -Dgroups=benchmark to compare cached and uncached parsing.
+ */
+public class UriConverterTest
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void sharesParsedUriTest() throws Exception
+    {
+        URI first = UriConverter.parseUri(new String("tag:vork:339:#1"));
+        URI second = UriConverter.parseUri(new String("tag:vork:339:#1"));
+        assertEquals(first, new URI("tag:vork:339:#1"));
+        assertSame(first, second);
+        assertNull(UriConverter.parseUri(""));
+        assertNull(UriConverter.parseUri(null));
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit", expectedExceptions = IllegalArgumentException.class)
+    public void invalidUriTest() throws Exception
+    {
+        UriConverter.parseUri("not a uri");
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void boundedUnderHighCardinalityTest() throws Exception
+    {
+        CanonicalizationCache<URI> cache = new CanonicalizationCache<URI>(100, 255);
+        URI hot = new URI("tag:vork:339:#1");
+        cache.put(hot.toString(), hot);
+        for (int i = 0; i < 10000; i++)
+        {
+            String key = "tag:attacker:" + i;
+            cache.put(key, new URI(key));
+            assertSame(cache.get(hot.toString()), hot);
+            assertTrue(cache.size() <= 200);
+        }
+        assertEquals(cache.put(longKey(), hot), hot);
+        assertNull(cache.get(longKey()));
+    }
+
+    /**
+     * Parses a realistic mix (a few hundred distinct tag URIs) with and without the cache.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void parseBenchmark() throws Exception
+    {
+        for (int cardinality : new int[] { 300, 3000, 100000 })
+        {
+            String[] values = new String[cardinality];
+            for (int i = 0; i < cardinality; i++)
+            {
+                values[i] = "tag:vork:" + (i % 1000) + ":#" + i;
+            }
+            int iterations = 2000000;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                new URI(values[i % cardinality]);
+            }
+            long uncached = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                UriConverter.parseUri(values[i % cardinality]);
+            }
+            long cached = System.nanoTime() - start;
+            log.info("cardinality {}: uncached {} ns/parse, cached {} ns/parse", new Object[] { cardinality,
+                    uncached / iterations, cached / iterations });
+        }
+    }
+
+    private String longKey()
+    {
+        StringBuilder key = new StringBuilder("tag:");
+        while (key.length() < 300)
+        {
+            key.append('x');
+        }
+        return key.toString();
+    }
+
+}
@@ -3,8 +3,10 @@
  */
 package com.example.tutorial.ws;
 
+import java.io.IOException;
 import java.util.Calendar;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.jws.WebService;
 import javax.xml.ws.Holder;
@@ -14,6 +16,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Scope;
 
+import com.example.tutorial.ws.delivery.DeliveryEvent;
+import com.example.tutorial.ws.delivery.DeliveryQueue;
+import com.example.tutorial.ws.delivery.DeliveryQueue.Reservation;
+import com.example.tutorial.ws.journal.MessageJournal;
+import com.example.tutorial.ws.logging.AuditContext;
+import com.example.tutorial.ws.response.ResponseTemplates;
 import com.example.tutotial.MessageAcknowledgment;
 import com.example.tutotial.MessageSource;
 import com.example.tutotial.RequiredHeaderMissingFault;
@@ -38,6 +46,12 @@ import com.example.tutotial.types.ResponseStructure;
 public class TutorialWebServiceImpl implements TutorialWebService {
 	
 	private final Logger log = LoggerFactory.getLogger(getClass());
+	
+	@Inject
+	private DeliveryQueue deliveryQueue;
+	
+	@Inject
+	private MessageJournal messageJournal;
 
 	/** 
 	 * {@inheritDoc}
@@ -47,6 +61,19 @@ public class TutorialWebServiceImpl implements TutorialWebService {
 	@Override
 	public void sendTutorialMessage(TutorialRequest parameters, MessageSource source, Holder<TutorialResponse> response,
 			Holder<MessageAcknowledgment> acknowledgment) throws RequiredHeaderMissingFault, SystemUnavailableFault {
+		boolean started = AuditContext.begin(parameters, source);
+		try {
+			handleTutorialMessage(parameters, source, response, acknowledgment);
+		}
+		finally {
+			if (started) {
+				AuditContext.end();
+			}
+		}
+	}
+
+	private void handleTutorialMessage(TutorialRequest parameters, MessageSource source, Holder<TutorialResponse> response,
+			Holder<MessageAcknowledgment> acknowledgment) throws RequiredHeaderMissingFault, SystemUnavailableFault {
 		log.info("Received request message: {}", parameters.getRequestStructure());
 		if (source == null) {
 			throwRequiredHeaderFault("Source cannot be null.", "source");
@@ -58,21 +85,36 @@ public class TutorialWebServiceImpl implements TutorialWebService {
 			throwRequiredHeaderFault("systemIdentifier cannot be null or empty.", "system-identifier");
 		}
 		else if (source.getMessageIdentifier().equals("SYSTEM FAILURE")) {
-			SystemUnavailableFaultMessage faultInfo = new SystemUnavailableFaultMessage();
-			faultInfo.setMessage("SystemUnvailabelFault requested.");
-			throw new SystemUnavailableFault(faultInfo.getMessage(), faultInfo);
+			throwSystemUnavailableFault("SystemUnvailabelFault requested.");
 		}
 		TutorialResponse responseMessage = new TutorialResponse();
-		ResponseStructure responseStructure = new ResponseStructure();
-		responseStructure.setResponseCode("00000");
-		responseStructure.setResponseMessage("SUCCESS!");
-		responseStructure.setServerDate(Calendar.getInstance());
+		ResponseStructure responseStructure = ResponseTemplates.successResponse(Calendar.getInstance());
 		responseMessage.setResponseStructure(responseStructure);
 		response.value = responseMessage;
 		
-		MessageAcknowledgment acknowledgmentMessage = new MessageAcknowledgment();
-		acknowledgmentMessage.setSomeMessage("WE ACKNOWLEDGE!");
-		acknowledgment.value = acknowledgmentMessage;
+		// hold a delivery slot, then journal, then queue: the journal only records messages the caller is told were
+		// accepted, and nothing is queued for delivery until its record is written
+		Reservation reservation = deliveryQueue.reserve(new DeliveryEvent(parameters.getRequestStructure(), source));
+		if (reservation == null) {
+			throwSystemUnavailableFault("Unable to queue this event for delivery.");
+		}
+		boolean journaled = false;
+		try {
+			messageJournal.append(parameters.getRequestStructure(), source, responseStructure);
+			journaled = true;
+		}
+		catch (IOException e) {
+			log.error("Unable to journal message " + source.getMessageIdentifier(), e);
+			throwSystemUnavailableFault("Unable to record message for delivery.");
+		}
+		finally {
+			if (!journaled) {
+				reservation.cancel();
+			}
+		}
+		reservation.commit();
+		
+		acknowledgment.value = ResponseTemplates.acknowledgment();
 	}
 
 	/**
@@ -87,4 +129,14 @@ public class TutorialWebServiceImpl implements TutorialWebService {
 		throw new RequiredHeaderMissingFault(message, faultInfo);
 	}
 
+	/**
+	 * @param message
+	 * @throws SystemUnavailableFault
+	 */
+	private void throwSystemUnavailableFault(String message) throws SystemUnavailableFault {
+		SystemUnavailableFaultMessage faultInfo = new SystemUnavailableFaultMessage();
+		faultInfo.setMessage(message);
+		throw new SystemUnavailableFault(faultInfo.getMessage(), faultInfo);
+	}
+
 }
@@ -0,0 +1,562 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.validation.Schema;
+import javax.xml.ws.Holder;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.cxf.Bus;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.transport.DestinationFactory;
+import org.apache.cxf.transport.DestinationFactoryManager;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.cxf.wsdl.EndpointReferenceUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.example.tutorial.binary.BinaryFrame;
+import com.example.tutorial.binary.BinaryFrameCodec;
+import com.example.tutorial.binary.FrameSigner;
+import com.example.tutorial.ws.tenant.Tenant;
+import com.example.tutorial.ws.tenant.TenantRegistry;
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.RequiredHeaderMissingFault;
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.SystemUnavailableFaultMessage;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * <p>
+ * The binary binding of TutorialWebService, for trusted internal callers: the same implementation as the SOAP port,
+ * reached by POSTing a {@link BinaryFrame} signed with HMAC-SHA256 (see {@link FrameSigner}) to {@link #address}, on
+ * the bus's HTTP transport (the CXF servlet in the WAR, Jetty when the service runs on its own).  There is no XML, no
+ * WS-Security and no WS-Policy on this path; callers use
+ * {@link com.example.tutorial.binary.BinaryTutorialWebServiceClient}.  The SOAP port is not affected.
+ * </p>
+ * <p>
+ * A frame with a bad signature, or created more than {@link #maxSkewMillis} from now, is refused with HTTP 403, and a
+ * malformed or oversized one with 400; the declared faults come back as signed fault frames with HTTP 500.  Decoded
+ * requests are validated against the SOAP port's schema, as that port does with schema-validation-enabled, and one
+ * that does not conform is refused with 400.
+ * </p>
+ * <p>
+ * The signatures of accepted frames are remembered (see {@link ReplayCache}) until the frames are too old to pass the
+ * skew check, and a frame whose signature has been seen is refused with 403, so a captured frame cannot be delivered
+ * again.  Should more than {@link #replayCacheSize} frames arrive within the skew window, further ones are answered
+ * with SystemUnavailableFault until older signatures expire.  Every response and fault frame carries the signature of
+ * the request it answers, which the client checks.
+ * </p>
+ * <p>
+ * Callers are only authenticated as holders of the shared key, which has no certificate for the per-tenant signer
+ * check of the SOAP port to look at; instead the key is bound to the {@link #systemIdentifiers} it is issued to, and a
+ * frame claiming any other system is refused with 403, as is one from a system the {@link TenantRegistry} does not
+ * know while tenant.required is set.  A registered system's quota applies as on the SOAP port, and a request over it
+ * is answered with SystemUnavailableFault.  Requests run on the transport's thread.
+ * </p>
+ */
+@ManagedResource(description = "Binary binding of TutorialWebService")
+public class BinaryTutorialEndpoint implements MessageObserver, InitializingBean, DisposableBean
+{
+
+    private static final String HTTP_TRANSPORT = "http://cxf.apache.org/transports/http";
+
+    private static final QName ENDPOINT_NAME = new QName("http://example.com/tutotial/", "TutorialWebServiceBinary");
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private boolean enabled;
+
+    private Bus bus;
+
+    private String address;
+
+    private TutorialWebService implementor;
+
+    private EndpointImpl soapEndpoint;
+
+    private TenantRegistry registry;
+
+    private Set<String> systemIdentifiers = Collections.emptySet();
+
+    private String signingKey;
+
+    private long maxSkewMillis = 300000;
+
+    private int maxFrameBytes = 1024 * 1024;
+
+    private int replayCacheSize = 100000;
+
+    private FrameSigner signer;
+
+    private ReplayCache replayCache;
+
+    private Schema schema;
+
+    private JAXBContext context;
+
+    private Destination destination;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong faults = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong malformed = new AtomicLong();
+
+    /**
+     * Opens the destination, if enabled.
+     *
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        if (bus == null || address == null || implementor == null || soapEndpoint == null)
+        {
+            throw new IllegalStateException(
+                    "bus, address, implementor and soapEndpoint must be set on a BinaryTutorialEndpoint.");
+        }
+        if (systemIdentifiers.isEmpty())
+        {
+            throw new IllegalStateException("systemIdentifiers must name the systems the signing key is issued to.");
+        }
+        signer = new FrameSigner(signingKey);
+        replayCache = new ReplayCache(replayCacheSize);
+        schema = EndpointReferenceUtils.getSchema(soapEndpoint.getService().getServiceInfos().get(0), bus);
+        context = JAXBContext.newInstance(TutorialRequest.class, MessageSource.class);
+        DestinationFactory factory = bus.getExtension(DestinationFactoryManager.class).getDestinationFactory(
+                HTTP_TRANSPORT);
+        EndpointInfo endpointInfo = new EndpointInfo(null, HTTP_TRANSPORT);
+        endpointInfo.setName(ENDPOINT_NAME);
+        endpointInfo.setAddress(address);
+        destination = factory.getDestination(endpointInfo);
+        destination.setMessageObserver(this);
+        log.info("Binary binding of TutorialWebService listening at {}", address);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws Exception
+    {
+        if (destination != null)
+        {
+            destination.setMessageObserver(null);
+            destination.shutdown();
+            destination = null;
+        }
+    }
+
+    /**
+     * Handles one request.
+     *
+     * @see org.apache.cxf.transport.MessageObserver#onMessage(org.apache.cxf.message.Message)
+     */
+    public void onMessage(Message message)
+    {
+        try
+        {
+            if (!"POST".equals(message.get(Message.HTTP_REQUEST_METHOD)))
+            {
+                respond(message, 405, null);
+                return;
+            }
+            byte[] body = read(message.getContent(InputStream.class));
+            if (body == null)
+            {
+                malformed.incrementAndGet();
+                respond(message, 400, null);
+                return;
+            }
+            BinaryFrame frame;
+            byte[] signature;
+            try
+            {
+                int frameLength = signer.verify(body, body.length);
+                signature = Arrays.copyOfRange(body, frameLength, body.length);
+                frame = BinaryFrameCodec.decode(body, frameLength);
+            }
+            catch (SignatureException e)
+            {
+                rejected.incrementAndGet();
+                log.warn("Refused a frame: {}", e.getMessage());
+                respond(message, 403, null);
+                return;
+            }
+            catch (IOException e)
+            {
+                malformed.incrementAndGet();
+                log.warn("Refused a frame: {}", e.toString());
+                respond(message, 400, null);
+                return;
+            }
+            if (frame.getType() != BinaryFrame.Type.REQUEST || frame.getRequest() == null
+                    || frame.getRequest().getRequestStructure() == null)
+            {
+                malformed.incrementAndGet();
+                respond(message, 400, null);
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (Math.abs(now - frame.getCreated()) > maxSkewMillis)
+            {
+                rejected.incrementAndGet();
+                log.warn("Refused a frame created at {}, more than {} ms from now", frame.getCreated(),
+                        maxSkewMillis);
+                respond(message, 403, null);
+                return;
+            }
+            switch (replayCache.add(signature, frame.getCreated() + maxSkewMillis, now))
+            {
+                case REPLAYED:
+                    rejected.incrementAndGet();
+                    log.warn("Refused a frame created at {} that has already been received", frame.getCreated());
+                    respond(message, 403, null);
+                    return;
+                case FULL:
+                    faults.incrementAndGet();
+                    respond(message, BinaryFrame.fault(signature, systemUnavailable(
+                            "too many recent requests to check this one for replay")));
+                    return;
+                default:
+                    break;
+            }
+            try
+            {
+                validate(frame);
+            }
+            catch (JAXBException e)
+            {
+                malformed.incrementAndGet();
+                log.warn("Refused a frame that does not conform to the schema: {}", e.getLinkedException() != null ? e
+                        .getLinkedException().getMessage() : e.toString());
+                respond(message, 400, null);
+                return;
+            }
+            String systemIdentifier = frame.getSource() == null ? null : StringUtils.trimToNull(frame.getSource()
+                    .getSystemIdentifier());
+            Tenant tenant = null;
+            if (systemIdentifier != null)
+            {
+                // a missing system-identifier is left to the service to report, as on the SOAP port
+                if (!systemIdentifiers.contains(systemIdentifier))
+                {
+                    rejected.incrementAndGet();
+                    log.warn("Refused a frame from system {}, which the signing key is not issued to",
+                            systemIdentifier);
+                    respond(message, 403, null);
+                    return;
+                }
+                tenant = registry == null ? null : registry.lookup(systemIdentifier);
+                if (tenant == null && registry != null && registry.isRequired())
+                {
+                    rejected.incrementAndGet();
+                    log.warn("Refused a frame from unregistered system {}", systemIdentifier);
+                    respond(message, 403, null);
+                    return;
+                }
+                if (tenant != null && !tenant.tryAcquire())
+                {
+                    faults.incrementAndGet();
+                    respond(message, BinaryFrame.fault(signature, systemUnavailable(
+                            "too many requests in progress for " + systemIdentifier)));
+                    return;
+                }
+            }
+            requests.incrementAndGet();
+            try
+            {
+                respond(message, invoke(frame, signature));
+            }
+            finally
+            {
+                if (tenant != null)
+                {
+                    tenant.release();
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Could not answer a binary request", e);
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Binary request failed", e);
+            try
+            {
+                respond(message, 500, null);
+            }
+            catch (IOException e1)
+            {
+                log.warn("Could not answer a binary request", e1);
+            }
+        }
+    }
+
+    /**
+     * Marshals the request and its source with the schema set, which throws at the first violation.
+     */
+    private void validate(BinaryFrame frame) throws JAXBException
+    {
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setSchema(schema);
+        DefaultHandler discard = new DefaultHandler();
+        marshaller.marshal(frame.getRequest(), discard);
+        if (frame.getSource() != null)
+        {
+            marshaller.marshal(frame.getSource(), discard);
+        }
+    }
+
+    private static SystemUnavailableFaultMessage systemUnavailable(String message)
+    {
+        SystemUnavailableFaultMessage faultInfo = new SystemUnavailableFaultMessage();
+        faultInfo.setMessage(message);
+        return faultInfo;
+    }
+
+    private BinaryFrame invoke(BinaryFrame request, byte[] signature)
+    {
+        Holder<TutorialResponse> response = new Holder<TutorialResponse>();
+        Holder<MessageAcknowledgment> acknowledgment = new Holder<MessageAcknowledgment>();
+        try
+        {
+            implementor.sendTutorialMessage(request.getRequest(), request.getSource(), response, acknowledgment);
+            return BinaryFrame.response(signature, response.value, acknowledgment.value);
+        }
+        catch (RequiredHeaderMissingFault e)
+        {
+            faults.incrementAndGet();
+            return BinaryFrame.fault(signature, e.getFaultInfo());
+        }
+        catch (SystemUnavailableFault e)
+        {
+            faults.incrementAndGet();
+            return BinaryFrame.fault(signature, e.getFaultInfo());
+        }
+    }
+
+    /**
+     * @return the request body, or null if it is larger than {@link #maxFrameBytes}
+     */
+    private byte[] read(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+        {
+            bytes.write(buffer, 0, read);
+            if (bytes.size() > maxFrameBytes)
+            {
+                return null;
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private void respond(Message request, BinaryFrame frame) throws IOException
+    {
+        int status = frame.getType() == BinaryFrame.Type.RESPONSE ? 200 : 500;
+        respond(request, status, signer.sign(BinaryFrameCodec.encode(frame)));
+    }
+
+    private void respond(Message request, int status, byte[] body) throws IOException
+    {
+        Message response = new MessageImpl();
+        response.setExchange(request.getExchange());
+        request.getExchange().setOutMessage(response);
+        response.put(Message.RESPONSE_CODE, status);
+        if (body != null)
+        {
+            response.put(Message.CONTENT_TYPE, BinaryFrameCodec.CONTENT_TYPE);
+        }
+        Conduit backChannel = destination.getBackChannel(request, null, null);
+        backChannel.prepare(response);
+        OutputStream out = response.getContent(OutputStream.class);
+        if (body != null)
+        {
+            out.write(body);
+        }
+        backChannel.close(response);
+    }
+
+    /**
+     * @return the number of requests handled, including faults
+     */
+    @ManagedAttribute(description = "Requests handled")
+    public long getRequestCount()
+    {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of requests answered with a fault
+     */
+    @ManagedAttribute(description = "Requests answered with a fault")
+    public long getFaultCount()
+    {
+        return faults.get();
+    }
+
+    /**
+     * @return the number of frames refused for their signature, age, system or as replays
+     */
+    @ManagedAttribute(description = "Frames refused for their signature, creation time or system, or as replays")
+    public long getRejectedCount()
+    {
+        return rejected.get();
+    }
+
+    /**
+     * @return the number of frames that could not be read
+     */
+    @ManagedAttribute(description = "Frames refused as malformed, oversized or not conforming to the schema")
+    public long getMalformedCount()
+    {
+        return malformed.get();
+    }
+
+    /**
+     * @return the number of request signatures held to detect replays
+     */
+    @ManagedAttribute(description = "Request signatures held to detect replays")
+    public int getReplayCacheCount()
+    {
+        return replayCache == null ? 0 : replayCache.size();
+    }
+
+    /**
+     * @param enabled whether to open the binary endpoint at all
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param bus the bus whose HTTP transport to listen on
+     */
+    public void setBus(Bus bus)
+    {
+        this.bus = bus;
+    }
+
+    /**
+     * @param address the endpoint address, as for a jaxws:endpoint
+     */
+    public void setAddress(String address)
+    {
+        this.address = address;
+    }
+
+    /**
+     * @param implementor the service implementation
+     */
+    public void setImplementor(TutorialWebService implementor)
+    {
+        this.implementor = implementor;
+    }
+
+    /**
+     * @param soapEndpoint the SOAP port, whose schema decoded requests are validated against
+     */
+    public void setSoapEndpoint(EndpointImpl soapEndpoint)
+    {
+        this.soapEndpoint = soapEndpoint;
+    }
+
+    /**
+     * @param registry the tenants, whose quotas apply and, when required, registration
+     */
+    public void setRegistry(TenantRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * @param systemIdentifiers comma-separated system identifiers the signing key is issued to; frames claiming any
+     *            other system are refused
+     */
+    public void setSystemIdentifiers(String systemIdentifiers)
+    {
+        Set<String> identifiers = new LinkedHashSet<String>();
+        for (String identifier : StringUtils.split(StringUtils.defaultString(systemIdentifiers), ", "))
+        {
+            identifiers.add(identifier);
+        }
+        this.systemIdentifiers = identifiers;
+    }
+
+    /**
+     * @param signingKey the key shared with callers, base64-encoded; at least 32 bytes
+     */
+    public void setSigningKey(String signingKey)
+    {
+        this.signingKey = signingKey;
+    }
+
+    /**
+     * @param maxSkewMillis how far a frame's creation time may be from now
+     */
+    public void setMaxSkewMillis(long maxSkewMillis)
+    {
+        this.maxSkewMillis = maxSkewMillis;
+    }
+
+    /**
+     * @param replayCacheSize the most request signatures remembered at once, which bounds the requests accepted
+     *            within {@link #maxSkewMillis} either way
+     */
+    public void setReplayCacheSize(int replayCacheSize)
+    {
+        this.replayCacheSize = replayCacheSize;
+    }
+
+    /**
+     * @param maxFrameBytes the largest request accepted
+     */
+    public void setMaxFrameBytes(int maxFrameBytes)
+    {
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.binary;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * <p>
+ * The request signatures {@link BinaryTutorialEndpoint} has accepted, each kept until the frame it signs is too old to
+ * be accepted anyway, so that a captured frame cannot be sent again while it is still fresh.  The cache holds at most
+ * {@link #capacity} signatures; when it is full of ones that have not yet expired, new frames are turned away rather
+ * than accepted unchecked.
+ * </p>
+ * <p>
+ * Thread safe; each call holds the cache's lock for a hash lookup and the removal of whatever has expired.
+ * </p>
+ */
+class ReplayCache
+{
+
+    /**
+     * What {@link ReplayCache#add(byte[], long, long)} made of a signature.
+     */
+    enum Result
+    {
+        /** Not seen before, and now remembered. */
+        ADDED,
+        /** Seen before, and not yet expired. */
+        REPLAYED,
+        /** Not seen before, but there is no room to remember it. */
+        FULL
+    }
+
+    private final int capacity;
+
+    private final Set<ByteBuffer> signatures = new HashSet<ByteBuffer>();
+
+    private final PriorityQueue<Entry> byExpiry = new PriorityQueue<Entry>();
+
+    /**
+     * @param capacity the most signatures held at once
+     */
+    ReplayCache(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param signature
+     * @param expires when the signed frame stops being fresh, in milliseconds since the epoch
+     * @param now the current time, in milliseconds since the epoch
+     * @return whether the signature is new, a replay, or could not be remembered
+     */
+    synchronized Result add(byte[] signature, long expires, long now)
+    {
+        while (!byExpiry.isEmpty() && byExpiry.peek().expires < now)
+        {
+            signatures.remove(byExpiry.poll().signature);
+        }
+        ByteBuffer key = ByteBuffer.wrap(signature.clone());
+        if (signatures.contains(key))
+        {
+            return Result.REPLAYED;
+        }
+        if (signatures.size() >= capacity)
+        {
+            return Result.FULL;
+        }
+        signatures.add(key);
+        byExpiry.add(new Entry(key, expires));
+        return Result.ADDED;
+    }
+
+    /**
+     * @return the number of signatures held
+     */
+    synchronized int size()
+    {
+        return signatures.size();
+    }
+
+    /**
+     * A signature and when it can be forgotten.
+     */
+    private static class Entry implements Comparable<Entry>
+    {
+
+        final ByteBuffer signature;
+
+        final long expires;
+
+        Entry(ByteBuffer signature, long expires)
+        {
+            this.signature = signature;
+            this.expires = expires;
+        }
+
+        public int compareTo(Entry other)
+        {
+            return expires < other.expires ? -1 : expires == other.expires ? 0 : 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.delivery;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.types.RequestStructure;
+
+/**
+ * An accepted message waiting in the {@link DeliveryQueue} to be handed to the {@link DeliverySink}.
+ */
+public class DeliveryEvent
+{
+
+    private final RequestStructure requestStructure;
+
+    private final MessageSource messageSource;
+
+    private final long enqueuedAt;
+
+    /**
+     * @param requestStructure
+     * @param messageSource
+     */
+    public DeliveryEvent(RequestStructure requestStructure, MessageSource messageSource)
+    {
+        this.requestStructure = requestStructure;
+        this.messageSource = messageSource;
+        this.enqueuedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the requestStructure
+     */
+    public RequestStructure getRequestStructure()
+    {
+        return requestStructure;
+    }
+
+    /**
+     * @return the messageSource
+     */
+    public MessageSource getMessageSource()
+    {
+        return messageSource;
+    }
+
+    /**
+     * @return the time the event was accepted, in milliseconds
+     */
+    public long getEnqueuedAt()
+    {
+        return enqueuedAt;
+    }
+
+}
@@ -0,0 +1,517 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.delivery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import com.example.tutorial.ws.util.BoundedMpscQueue;
+
+/**
+ * <p>
+ * The bounded queue standing between the web service and the downstream {@link DeliverySink}; this is what
+ * SystemUnavailableFault ("unable to queue this event for delivery") refers to.
+ * </p>
+ * <p>
+ * The queue is split into {@link #workers} shards, each a lock-free {@link BoundedMpscQueue} drained by its own worker
+ * thread.  Events are assigned to a shard by their system identifier, so events from one calling system are delivered
+ * in the order they were accepted.  Each worker drains up to {@link #batchSize} events at a time and hands them to the
+ * sink as one batch.
+ * </p>
+ * <p>
+ * {@link #offer(DeliveryEvent)} never blocks: if the shard is full it returns false and the caller is expected to
+ * reject the request.  A caller with work to do between deciding to accept an event and accepting it (journaling it,
+ * say) {@link #reserve(DeliveryEvent) reserves} a slot first and then either commits or cancels the
+ * {@link Reservation}, so that nothing is recorded for an event the queue then has no room for.  An idle worker parks
+ * until an offer to its shard wakes it.  {@link #destroy()} first stops accepting, then waits for offers and
+ * reservations already past that check, so that every accepted event is delivered before the workers exit.  Depth,
+ * batch size and drain rate are exported over JMX.
+ * </p>
+ */
+@ManagedResource(objectName = "com.example.tutorial:type=DeliveryQueue", description = "Downstream delivery queue")
+public class DeliveryQueue implements InitializingBean, DisposableBean
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private DeliverySink sink;
+
+    private int capacity = 10000;
+
+    private int workers = 1;
+
+    private volatile int batchSize = 100;
+
+    private Shard[] shards;
+
+    private volatile boolean running;
+
+    private volatile boolean stopped;
+
+    private final AtomicLong accepted = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile int lastBatchSize;
+
+    private volatile double drainRate;
+
+    private long rateWindowStart;
+
+    private long rateWindowDelivered;
+
+    /**
+     * Creates the shards and starts one worker thread per shard.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        if (sink == null)
+        {
+            throw new IllegalStateException("sink must be set on DeliveryQueue.");
+        }
+        if (workers < 1)
+        {
+            throw new IllegalStateException("workers must be positive.");
+        }
+        running = true;
+        rateWindowStart = System.nanoTime();
+        shards = new Shard[workers];
+        int totalCapacity = 0;
+        for (int i = 0; i < workers; i++)
+        {
+            // spread the remainder so the shards add up to the configured capacity
+            int shardCapacity = Math.max(1, capacity / workers + (i < capacity % workers ? 1 : 0));
+            totalCapacity += shardCapacity;
+            shards[i] = new Shard(shardCapacity);
+            Thread worker = new Thread(shards[i], "DeliveryQueue-worker-" + i);
+            worker.setDaemon(true);
+            shards[i].thread = worker;
+            worker.start();
+        }
+        capacity = totalCapacity;
+        log.info("Delivery queue started with {} worker(s), capacity {}", workers, capacity);
+    }
+
+    /**
+     * Stops accepting, waits for offers in progress, and stops the workers after they have drained what is queued.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws Exception
+    {
+        running = false;
+        if (shards != null)
+        {
+            for (Shard shard : shards)
+            {
+                while (shard.offering.get() > 0)
+                {
+                    Thread.yield();
+                }
+            }
+            stopped = true;
+            for (Shard shard : shards)
+            {
+                LockSupport.unpark(shard.thread);
+                shard.thread.join();
+            }
+        }
+    }
+
+    /**
+     * Queues an event for delivery.
+     * 
+     * @param event
+     * @return false if the queue is full (or stopped) and the event was not accepted
+     */
+    public boolean offer(DeliveryEvent event)
+    {
+        Reservation reservation = reserve(event);
+        if (reservation == null)
+        {
+            return false;
+        }
+        reservation.commit();
+        return true;
+    }
+
+    /**
+     * Holds a slot for an event without queueing it yet.  The caller must either {@link Reservation#commit()} or
+     * {@link Reservation#cancel()} the reservation, promptly: {@link #destroy()} waits for it.
+     * 
+     * @param event
+     * @return the reservation, or null if the queue is full (or stopped) and the event will not be accepted
+     */
+    public Reservation reserve(DeliveryEvent event)
+    {
+        if (!running)
+        {
+            rejected.incrementAndGet();
+            return null;
+        }
+        Shard shard = shardFor(event);
+        // destroy() waits for this count to drop before it lets the workers exit
+        shard.offering.incrementAndGet();
+        if (!running || !shard.claim())
+        {
+            shard.offering.decrementAndGet();
+            rejected.incrementAndGet();
+            return null;
+        }
+        return new Reservation(shard, event);
+    }
+
+    private Shard shardFor(DeliveryEvent event)
+    {
+        if (shards.length == 1)
+        {
+            return shards[0];
+        }
+        String systemIdentifier = event.getMessageSource().getSystemIdentifier();
+        int hash = systemIdentifier != null ? systemIdentifier.hashCode() : 0;
+        return shards[(hash & Integer.MAX_VALUE) % shards.length];
+    }
+
+    private void deliver(List<DeliveryEvent> batch)
+    {
+        try
+        {
+            sink.deliver(batch);
+            delivered.addAndGet(batch.size());
+        }
+        catch (PartialDeliveryException e)
+        {
+            int failures = e.getFailedEvents().size();
+            delivered.addAndGet(batch.size() - failures);
+            failed.addAndGet(failures);
+            log.error("Failed to deliver " + failures + " of a batch of " + batch.size() + " event(s)", e);
+        }
+        catch (Exception e)
+        {
+            failed.addAndGet(batch.size());
+            log.error("Failed to deliver batch of " + batch.size() + " event(s)", e);
+        }
+        batches.incrementAndGet();
+        lastBatchSize = batch.size();
+        updateDrainRate();
+    }
+
+    /**
+     * Recomputes the drain rate about once a second.  Workers race on this harmlessly; the rate is only a gauge.
+     */
+    private void updateDrainRate()
+    {
+        long now = System.nanoTime();
+        long elapsed = now - rateWindowStart;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1))
+        {
+            long total = delivered.get() + failed.get();
+            drainRate = (total - rateWindowDelivered) * (double)TimeUnit.SECONDS.toNanos(1) / elapsed;
+            rateWindowDelivered = total;
+            rateWindowStart = now;
+        }
+    }
+
+    /**
+     * @return the number of events waiting across all shards
+     */
+    @ManagedAttribute(description = "Events waiting for delivery")
+    public int getQueueDepth()
+    {
+        int depth = 0;
+        if (shards != null)
+        {
+            for (Shard shard : shards)
+            {
+                depth += shard.queue.size();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * @return the size of the most recently delivered batch
+     */
+    @ManagedAttribute(description = "Size of the most recent batch")
+    public int getLastBatchSize()
+    {
+        return lastBatchSize;
+    }
+
+    /**
+     * @return the mean batch size since startup
+     */
+    @ManagedAttribute(description = "Mean batch size since startup")
+    public double getAverageBatchSize()
+    {
+        long batchCount = batches.get();
+        return batchCount == 0 ? 0 : (delivered.get() + failed.get()) / (double)batchCount;
+    }
+
+    /**
+     * @return events drained per second, measured over roughly the last second of activity
+     */
+    @ManagedAttribute(description = "Events drained per second")
+    public double getDrainRate()
+    {
+        return drainRate;
+    }
+
+    /**
+     * @return the number of events accepted
+     */
+    @ManagedAttribute(description = "Events accepted since startup")
+    public long getAcceptedCount()
+    {
+        return accepted.get();
+    }
+
+    /**
+     * @return the number of events rejected because the queue was full
+     */
+    @ManagedAttribute(description = "Events rejected since startup")
+    public long getRejectedCount()
+    {
+        return rejected.get();
+    }
+
+    /**
+     * @return the number of events the sink accepted
+     */
+    @ManagedAttribute(description = "Events delivered since startup")
+    public long getDeliveredCount()
+    {
+        return delivered.get();
+    }
+
+    /**
+     * @return the number of events the sink failed to deliver
+     */
+    @ManagedAttribute(description = "Events that failed delivery since startup")
+    public long getFailedCount()
+    {
+        return failed.get();
+    }
+
+    /**
+     * @return the sink
+     */
+    public DeliverySink getSink()
+    {
+        return sink;
+    }
+
+    /**
+     * @param sink the sink to set
+     */
+    public void setSink(DeliverySink sink)
+    {
+        this.sink = sink;
+    }
+
+    /**
+     * @return the capacity; once started, the total the shards actually hold
+     */
+    @ManagedAttribute(description = "Total capacity across all shards")
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @param capacity the total number of events that may wait, split evenly across the workers (at least one per
+     *            worker)
+     */
+    public void setCapacity(int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the workers
+     */
+    @ManagedAttribute(description = "Number of worker threads")
+    public int getWorkers()
+    {
+        return workers;
+    }
+
+    /**
+     * @param workers the number of shards, each with its own worker thread
+     */
+    public void setWorkers(int workers)
+    {
+        this.workers = workers;
+    }
+
+    /**
+     * @return the batchSize
+     */
+    @ManagedAttribute(description = "Maximum batch size")
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize the most events handed to the sink at once; at least 1
+     */
+    public void setBatchSize(int batchSize)
+    {
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * A slot held in one shard by {@link DeliveryQueue#reserve(DeliveryEvent)}.
+     */
+    public final class Reservation
+    {
+
+        private final Shard shard;
+
+        private final DeliveryEvent event;
+
+        private boolean done;
+
+        private Reservation(Shard shard, DeliveryEvent event)
+        {
+            this.shard = shard;
+            this.event = event;
+        }
+
+        /**
+         * Queues the event into the reserved slot.
+         */
+        public void commit()
+        {
+            finish();
+            if (!shard.queue.offer(event))
+            {
+                // the slot was claimed against the same capacity, so this can't happen
+                throw new IllegalStateException("No room for a reserved event");
+            }
+            shard.offering.decrementAndGet();
+            accepted.incrementAndGet();
+            if (shard.parked)
+            {
+                LockSupport.unpark(shard.thread);
+            }
+        }
+
+        /**
+         * Gives the slot back; the event counts as rejected.
+         */
+        public void cancel()
+        {
+            finish();
+            shard.free.incrementAndGet();
+            shard.offering.decrementAndGet();
+            rejected.incrementAndGet();
+        }
+
+        private void finish()
+        {
+            if (done)
+            {
+                throw new IllegalStateException("Reservation already committed or cancelled");
+            }
+            done = true;
+        }
+
+    }
+
+    /**
+     * One queue and the worker draining it.  Offers claim one of the shard's free slots before they touch the queue,
+     * and the worker hands slots back as it drains them, so a reserved slot is always there to commit into.
+     */
+    private class Shard implements Runnable
+    {
+
+        final BoundedMpscQueue<DeliveryEvent> queue;
+
+        Thread thread;
+
+        volatile boolean parked;
+
+        final AtomicInteger offering = new AtomicInteger();
+
+        final AtomicInteger free;
+
+        Shard(int capacity)
+        {
+            this.queue = new BoundedMpscQueue<DeliveryEvent>(capacity);
+            this.free = new AtomicInteger(capacity);
+        }
+
+        boolean claim()
+        {
+            while (true)
+            {
+                int available = free.get();
+                if (available == 0)
+                {
+                    return false;
+                }
+                if (free.compareAndSet(available, available - 1))
+                {
+                    return true;
+                }
+            }
+        }
+
+        public void run()
+        {
+            List<DeliveryEvent> batch = new ArrayList<DeliveryEvent>(batchSize);
+            while (true)
+            {
+                int drained = queue.drainTo(batch, batchSize);
+                if (drained > 0)
+                {
+                    free.addAndGet(drained);
+                    deliver(batch);
+                    batch = new ArrayList<DeliveryEvent>(batchSize);
+                    continue;
+                }
+                if (stopped && queue.size() == 0)
+                {
+                    return;
+                }
+                parked = true;
+                // an offer claims its slot before it looks at parked, so one that lands now is seen here
+                if (queue.size() == 0 && !stopped)
+                {
+                    LockSupport.park(this);
+                }
+                parked = false;
+            }
+        }
+
+    }
+
+}
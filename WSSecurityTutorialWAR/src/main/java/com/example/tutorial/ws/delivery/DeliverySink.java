@@ -0,0 +1,25 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.delivery;
+
+import java.util.List;
+
+/**
+ * The downstream system that {@link DeliveryQueue} workers hand batches of accepted events to.  Implementations are
+ * called from one worker thread per queue shard, so they must be thread-safe if the queue has more than one worker.
+ */
+public interface DeliverySink
+{
+
+    /**
+     * Delivers a batch of events, in the order they were accepted within their shard.
+     * 
+     * @param batch never empty
+     * @throws PartialDeliveryException if only some of the events could not be delivered; those are counted as failed
+     *             and dropped, and the rest as delivered
+     * @throws Exception if the batch could not be delivered; the events are counted as failed and dropped
+     */
+    void deliver(List<DeliveryEvent> batch) throws Exception;
+
+}
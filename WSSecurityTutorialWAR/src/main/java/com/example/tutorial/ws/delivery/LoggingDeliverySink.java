@@ -0,0 +1,38 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.delivery;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The default {@link DeliverySink}, which just logs what it is given.  Replace it with a real downstream in
+ * war-config.xml.
+ */
+public class LoggingDeliverySink implements DeliverySink
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see com.example.tutorial.ws.delivery.DeliverySink#deliver(java.util.List)
+     */
+    @Override
+    public void deliver(List<DeliveryEvent> batch) throws Exception
+    {
+        if (log.isDebugEnabled())
+        {
+            for (DeliveryEvent event : batch)
+            {
+                log.debug("Delivered message {} from {}", event.getMessageSource().getMessageIdentifier(),
+                        event.getMessageSource().getSystemIdentifier());
+            }
+        }
+    }
+
+}
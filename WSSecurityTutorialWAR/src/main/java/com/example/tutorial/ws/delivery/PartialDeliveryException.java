@@ -0,0 +1,38 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.delivery;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by a {@link DeliverySink} that delivered some of a batch but not all of it, naming the events that failed;
+ * {@link DeliveryQueue} counts the rest as delivered.
+ */
+public class PartialDeliveryException extends Exception
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<DeliveryEvent> failedEvents;
+
+    /**
+     * @param failedEvents the events that were not delivered
+     * @param cause the (first) reason they were not
+     */
+    public PartialDeliveryException(List<DeliveryEvent> failedEvents, Throwable cause)
+    {
+        super(failedEvents.size() + " event(s) not delivered", cause);
+        this.failedEvents = Collections.unmodifiableList(failedEvents);
+    }
+
+    /**
+     * @return the events that were not delivered, in batch order
+     */
+    public List<DeliveryEvent> getFailedEvents()
+    {
+        return failedEvents;
+    }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.executor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <p>
+ * Limits how many messages may be in the WS-Security crypto stages (decrypt/verify on the way in, sign/encrypt on the
+ * way out) at once, to {@link #permits} (by default one per available processor).  WSS4J runs synchronously on the
+ * request thread in this CXF version, so rather than hopping threads we bracket its interceptors with a pair that takes
+ * and returns a permit.  With a large container pool this keeps the CPU-bound crypto from being time-sliced across
+ * hundreds of threads, while the rest of the request still runs at the container's concurrency.
+ * </p>
+ * <p>
+ * Add it to an endpoint or client as a jaxws:feature.  A message that cannot get a permit within
+ * {@link #acquireTimeoutMillis} is failed.
+ * </p>
+ */
+@ManagedResource(description = "WS-Security crypto stage limiter")
+public class CryptoStageFeature extends AbstractFeature implements InitializingBean
+{
+
+    private static final String WSS4J_IN = "org.apache.cxf.ws.security.wss4j.PolicyBasedWSS4JInInterceptor";
+
+    private static final String WSS4J_OUT = "org.apache.cxf.ws.security.wss4j.PolicyBasedWSS4JOutInterceptor"
+            + "$PolicyBasedWSS4JOutInterceptorInternal";
+
+    private static final String PERMIT_HELD = CryptoStageFeature.class.getName() + ".permitHeld";
+
+    private int permits;
+
+    private volatile long acquireTimeoutMillis = 30000;
+
+    private Semaphore semaphore;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicLong acquired = new AtomicLong();
+
+    private final AtomicLong timedOut = new AtomicLong();
+
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        if (permits <= 0)
+        {
+            permits = Runtime.getRuntime().availableProcessors();
+        }
+        semaphore = new Semaphore(permits, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.feature.AbstractFeature#initializeProvider(org.apache.cxf.interceptor.InterceptorProvider,
+     *      org.apache.cxf.Bus)
+     */
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus)
+    {
+        provider.getInInterceptors().add(new Enter(Phase.PRE_PROTOCOL, WSS4J_IN));
+        provider.getInInterceptors().add(new Exit(Phase.PRE_PROTOCOL, WSS4J_IN));
+        provider.getOutInterceptors().add(new Enter(Phase.POST_PROTOCOL, WSS4J_OUT));
+        provider.getOutInterceptors().add(new Exit(Phase.POST_PROTOCOL, WSS4J_OUT));
+        provider.getOutFaultInterceptors().add(new Enter(Phase.POST_PROTOCOL, WSS4J_OUT));
+        provider.getOutFaultInterceptors().add(new Exit(Phase.POST_PROTOCOL, WSS4J_OUT));
+    }
+
+    private void acquire(Message message)
+    {
+        if (Boolean.TRUE.equals(message.get(PERMIT_HELD)))
+        {
+            return;
+        }
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try
+        {
+            if (!semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS))
+            {
+                timedOut.incrementAndGet();
+                throw new Fault(new IllegalStateException("Timed out waiting for the crypto stage"));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new Fault(e);
+        }
+        finally
+        {
+            waiting.decrementAndGet();
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+        acquired.incrementAndGet();
+        message.put(PERMIT_HELD, Boolean.TRUE);
+    }
+
+    private void release(Message message)
+    {
+        if (Boolean.TRUE.equals(message.remove(PERMIT_HELD)))
+        {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * @return the number of messages waiting for a permit
+     */
+    @ManagedAttribute(description = "Messages waiting to enter the crypto stage")
+    public int getWaitingCount()
+    {
+        return waiting.get();
+    }
+
+    /**
+     * @return the number of messages currently in the crypto stage
+     */
+    @ManagedAttribute(description = "Messages currently in the crypto stage")
+    public int getInStageCount()
+    {
+        return semaphore == null ? 0 : permits - semaphore.availablePermits();
+    }
+
+    /**
+     * @return the total number of permits handed out
+     */
+    @ManagedAttribute(description = "Permits acquired since startup")
+    public long getAcquiredCount()
+    {
+        return acquired.get();
+    }
+
+    /**
+     * @return the number of messages failed because no permit came free in time
+     */
+    @ManagedAttribute(description = "Messages timed out waiting for a permit")
+    public long getTimedOutCount()
+    {
+        return timedOut.get();
+    }
+
+    /**
+     * @return the mean time spent waiting for a permit, in microseconds
+     */
+    @ManagedAttribute(description = "Mean wait for a permit in microseconds")
+    public double getAverageWaitMicros()
+    {
+        long count = acquired.get() + timedOut.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / 1000.0 / count;
+    }
+
+    /**
+     * @return the permits
+     */
+    @ManagedAttribute(description = "Concurrent messages allowed in the crypto stage")
+    public int getPermits()
+    {
+        return permits;
+    }
+
+    /**
+     * @param permits how many messages may be in the crypto stage at once; 0 means one per available processor
+     */
+    public void setPermits(int permits)
+    {
+        this.permits = permits;
+    }
+
+    /**
+     * @param acquireTimeoutMillis how long a message may wait for a permit before it is failed; not negative
+     */
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis)
+    {
+        if (acquireTimeoutMillis < 0)
+        {
+            throw new IllegalArgumentException("acquireTimeoutMillis must not be negative: " + acquireTimeoutMillis);
+        }
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * Takes a permit just before the WSS4J interceptor, and gives it back if the chain unwinds after a fault.
+     */
+    private class Enter extends AbstractPhaseInterceptor<Message>
+    {
+
+        Enter(String phase, String wss4jInterceptor)
+        {
+            super(CryptoStageFeature.class.getName() + ".Enter." + phase, phase);
+            addBefore(wss4jInterceptor);
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault
+        {
+            acquire(message);
+        }
+
+        @Override
+        public void handleFault(Message message)
+        {
+            release(message);
+        }
+
+    }
+
+    /**
+     * Gives the permit back just after the WSS4J interceptor.
+     */
+    private class Exit extends AbstractPhaseInterceptor<Message>
+    {
+
+        Exit(String phase, String wss4jInterceptor)
+        {
+            super(CryptoStageFeature.class.getName() + ".Exit." + phase, phase);
+            addAfter(wss4jInterceptor);
+            addAfter(CryptoStageFeature.class.getName() + ".Enter." + phase);
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault
+        {
+            release(message);
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.executor;
+
+/**
+ * How a {@link TutorialExecutor} runs its work.
+ */
+public enum ExecutorMode
+{
+    /**
+     * Run on the calling (container) thread; this is what CXF does when no executor is configured.  This is the
+     * default: CXF waits for the invocation on the container thread in every mode, so the others add a handoff and a
+     * rejection path without freeing that thread.
+     */
+    INLINE,
+    /**
+     * A fixed pool of poolSize platform threads with a queue of queueCapacity.
+     */
+    BOUNDED,
+    /**
+     * Like {@link #BOUNDED}, but with one thread per available processor, for CPU-bound work.
+     */
+    CPU,
+    /**
+     * A new virtual thread per task, when the running JVM supports them (falls back to {@link #BOUNDED} otherwise).
+     * Concurrency is still capped at poolSize + queueCapacity tasks.
+     */
+    VIRTUAL;
+}
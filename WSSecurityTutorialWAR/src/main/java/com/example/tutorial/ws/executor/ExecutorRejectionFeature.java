@@ -0,0 +1,85 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.executor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.SystemUnavailableFaultMessage;
+
+/**
+ * <p>
+ * Reports a saturated endpoint executor to the caller as the WSDL's SystemUnavailableFault, the fault the service
+ * already uses when it cannot take a message, rather than as the generic server fault CXF makes of the
+ * {@link RejectedExecutionException} that {@link TutorialExecutor} throws.  Callers can then tell "retry later" apart
+ * from a server bug.
+ * </p>
+ * <p>
+ * Add it to an endpoint that has a {@link TutorialExecutor} as a jaxws:feature.
+ * </p>
+ */
+public class ExecutorRejectionFeature extends AbstractFeature
+{
+
+    /**
+     * The message of the fault sent for a rejected invocation.
+     */
+    static final String MESSAGE = "System unavailable: too many requests in progress, retry later.";
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.apache.cxf.feature.AbstractFeature#initializeProvider(org.apache.cxf.interceptor.InterceptorProvider,
+     *      org.apache.cxf.Bus)
+     */
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus)
+    {
+        provider.getOutFaultInterceptors().add(new MapRejection());
+    }
+
+    /**
+     * Replaces a rejected-execution fault with SystemUnavailableFault before the fault is marshalled.
+     *
+     * @param message
+     */
+    static void mapRejection(Message message)
+    {
+        Exception exception = message.getContent(Exception.class);
+        Throwable cause = exception instanceof Fault ? exception.getCause() : exception;
+        if (cause instanceof RejectedExecutionException)
+        {
+            SystemUnavailableFaultMessage faultInfo = new SystemUnavailableFaultMessage();
+            faultInfo.setMessage(MESSAGE);
+            message.setContent(Exception.class, new Fault(new SystemUnavailableFault(MESSAGE, faultInfo)));
+        }
+    }
+
+    /**
+     * Runs ahead of the JAX-WS fault interceptor, which writes a declared fault's detail from the cause.
+     */
+    private static class MapRejection extends AbstractPhaseInterceptor<Message>
+    {
+
+        MapRejection()
+        {
+            super(ExecutorRejectionFeature.class.getName() + ".MapRejection", Phase.PRE_LOGICAL);
+        }
+
+        public void handleMessage(Message message) throws Fault
+        {
+            mapRejection(message);
+        }
+
+    }
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <p>
+ * A named, bounded {@link Executor} for one endpoint, configured from property placeholders and exported over JMX.  Set
+ * it as the jaxws:executor of an endpoint and CXF runs service invocations on it, so each endpoint gets its own
+ * concurrency limit.  CXF still waits for the invocation on the container's request thread, so the executor bounds
+ * and isolates the work but does not free container threads.
+ * </p>
+ * <p>
+ * See {@link ExecutorMode} for the available modes.  In every mode but {@link ExecutorMode#INLINE}, work beyond the
+ * pool and its queue is rejected with a {@link RejectedExecutionException}, which {@link ExecutorRejectionFeature}
+ * reports to the caller as SystemUnavailableFault.
+ * </p>
+ */
+@ManagedResource(description = "Endpoint executor")
+public class TutorialExecutor implements Executor, InitializingBean, DisposableBean, BeanNameAware
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private String name;
+
+    private ExecutorMode mode = ExecutorMode.INLINE;
+
+    private int poolSize = 50;
+
+    private int queueCapacity = 200;
+
+    private ExecutorService delegate;
+
+    private ThreadPoolExecutor pool;
+
+    private Semaphore virtualPermits;
+
+    private ExecutorMode effectiveMode;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Creates the underlying executor for the configured mode.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        effectiveMode = mode;
+        if (mode == ExecutorMode.VIRTUAL)
+        {
+            delegate = newVirtualThreadPerTaskExecutor();
+            if (delegate != null)
+            {
+                virtualPermits = new Semaphore(poolSize + queueCapacity);
+            }
+            else
+            {
+                log.warn("Virtual threads are not available in this JVM; executor {} falls back to BOUNDED", name);
+                effectiveMode = ExecutorMode.BOUNDED;
+            }
+        }
+        if (effectiveMode == ExecutorMode.BOUNDED || effectiveMode == ExecutorMode.CPU)
+        {
+            int threads = effectiveMode == ExecutorMode.CPU ? Runtime.getRuntime().availableProcessors() : poolSize;
+            BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<Runnable>(queueCapacity)
+                    : new SynchronousQueue<Runnable>();
+            pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue, new NamedThreadFactory(name));
+            pool.allowCoreThreadTimeOut(true);
+            delegate = pool;
+        }
+        log.info("Executor {} running in {} mode", name, effectiveMode);
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor() reflectively so we still build and run on JVMs without it.
+     * 
+     * @return the executor, or null if virtual threads are not available
+     */
+    private ExecutorService newVirtualThreadPerTaskExecutor()
+    {
+        try
+        {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService)factory.invoke(null);
+        }
+        catch (Exception e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Shuts the executor down, letting queued work finish.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws Exception
+    {
+        if (delegate != null)
+        {
+            delegate.shutdown();
+            if (!delegate.awaitTermination(30, TimeUnit.SECONDS))
+            {
+                log.warn("Executor {} did not terminate within 30 seconds", name);
+                delegate.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
+     */
+    @Override
+    public void execute(final Runnable command)
+    {
+        if (delegate == null)
+        {
+            run(command);
+            return;
+        }
+        if (virtualPermits != null && !virtualPermits.tryAcquire())
+        {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Executor " + name + " is saturated");
+        }
+        try
+        {
+            delegate.execute(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        TutorialExecutor.this.run(command);
+                    }
+                    finally
+                    {
+                        if (virtualPermits != null)
+                        {
+                            virtualPermits.release();
+                        }
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            if (virtualPermits != null)
+            {
+                virtualPermits.release();
+            }
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void run(Runnable command)
+    {
+        active.incrementAndGet();
+        try
+        {
+            command.run();
+        }
+        finally
+        {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the mode actually in effect (after any fallback)
+     */
+    @ManagedAttribute(description = "Mode in effect")
+    public String getEffectiveMode()
+    {
+        return String.valueOf(effectiveMode);
+    }
+
+    /**
+     * @return the number of tasks currently running
+     */
+    @ManagedAttribute(description = "Tasks currently running")
+    public int getActiveCount()
+    {
+        return active.get();
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    @ManagedAttribute(description = "Tasks waiting for a thread")
+    public int getQueueDepth()
+    {
+        return pool != null ? pool.getQueue().size() : 0;
+    }
+
+    /**
+     * @return the number of live pool threads (0 for INLINE and VIRTUAL)
+     */
+    @ManagedAttribute(description = "Live pool threads")
+    public int getPoolThreadCount()
+    {
+        return pool != null ? pool.getPoolSize() : 0;
+    }
+
+    /**
+     * @return the number of tasks completed
+     */
+    @ManagedAttribute(description = "Tasks completed since startup")
+    public long getCompletedCount()
+    {
+        return completed.get();
+    }
+
+    /**
+     * @return the number of tasks rejected because the executor was saturated
+     */
+    @ManagedAttribute(description = "Tasks rejected since startup")
+    public long getRejectedCount()
+    {
+        return rejected.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.springframework.beans.factory.BeanNameAware#setBeanName(java.lang.String)
+     */
+    @Override
+    public void setBeanName(String beanName)
+    {
+        if (name == null)
+        {
+            name = beanName;
+        }
+    }
+
+    /**
+     * @return the name
+     */
+    @ManagedAttribute(description = "Executor name")
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @param name the name used for the threads; defaults to the bean name
+     */
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return the mode
+     */
+    public ExecutorMode getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * @param mode the mode to set
+     */
+    public void setMode(ExecutorMode mode)
+    {
+        this.mode = mode;
+    }
+
+    /**
+     * @return the poolSize
+     */
+    @ManagedAttribute(description = "Configured pool size")
+    public int getPoolSize()
+    {
+        return poolSize;
+    }
+
+    /**
+     * @param poolSize the number of threads for BOUNDED mode (ignored for CPU mode)
+     */
+    public void setPoolSize(int poolSize)
+    {
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * @return the queueCapacity
+     */
+    @ManagedAttribute(description = "Configured queue capacity")
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+    /**
+     * @param queueCapacity how many tasks may wait for a thread before new ones are rejected
+     */
+    public void setQueueCapacity(int queueCapacity)
+    {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Names threads after the executor so they are recognizable in thread dumps and logs.
+     */
+    private static class NamedThreadFactory implements ThreadFactory
+    {
+
+        private final String prefix;
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String name)
+        {
+            this.prefix = name + "-";
+        }
+
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads back the segments written by {@link MessageJournal}, for replay or ad-hoc scans.  The reader maps segments
+ * read-only and may be used while the journal is still being written; it simply stops at the last complete record it
+ * sees.
+ */
+public class JournalReader
+{
+
+    private final File directory;
+
+    /**
+     * @param directory the journal directory
+     */
+    public JournalReader(File directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Replays every record in sequence order.
+     * 
+     * @param handler
+     * @return the number of records handed to the handler
+     * @throws IOException
+     */
+    public long replay(JournalRecordHandler handler) throws IOException
+    {
+        return replayFrom(0, handler);
+    }
+
+    /**
+     * Replays every record whose sequence is at least fromSequence, in sequence order.  Segments that end before
+     * fromSequence are skipped without being decoded.
+     * 
+     * @param fromSequence
+     * @param handler
+     * @return the number of records handed to the handler
+     * @throws IOException
+     */
+    public long replayFrom(long fromSequence, JournalRecordHandler handler) throws IOException
+    {
+        File[] files = JournalSegment.listSegmentFiles(directory);
+        long count = 0;
+        for (int i = 0; i < files.length; i++)
+        {
+            if (i + 1 < files.length && JournalSegment.baseSequenceOf(files[i + 1]) <= fromSequence)
+            {
+                continue;
+            }
+            JournalSegment segment = new JournalSegment(files[i], JournalSegment.baseSequenceOf(files[i]), 0, true);
+            try
+            {
+                ByteBuffer view = segment.readView();
+                JournalSegment.Entry entry;
+                while ((entry = JournalSegment.readEntry(view)) != null)
+                {
+                    if (entry.sequence < fromSequence)
+                    {
+                        continue;
+                    }
+                    count++;
+                    if (!handler.handle(JournalRecordCodec.decode(entry.sequence, entry.timestamp, entry.payload)))
+                    {
+                        return count;
+                    }
+                }
+            }
+            finally
+            {
+                segment.close();
+            }
+        }
+        return count;
+    }
+
+}
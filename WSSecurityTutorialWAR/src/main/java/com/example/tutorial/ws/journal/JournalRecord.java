@@ -0,0 +1,84 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.journal;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.types.RequestStructure;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * A single entry read back out of the {@link MessageJournal}: the request, its source header and the response we sent,
+ * along with the sequence number and time at which it was appended.
+ */
+public class JournalRecord
+{
+
+    private final long sequence;
+
+    private final long timestamp;
+
+    private final RequestStructure requestStructure;
+
+    private final MessageSource messageSource;
+
+    private final ResponseStructure responseStructure;
+
+    /**
+     * @param sequence
+     * @param timestamp
+     * @param requestStructure
+     * @param messageSource
+     * @param responseStructure
+     */
+    public JournalRecord(long sequence, long timestamp, RequestStructure requestStructure, MessageSource messageSource,
+            ResponseStructure responseStructure)
+    {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.requestStructure = requestStructure;
+        this.messageSource = messageSource;
+        this.responseStructure = responseStructure;
+    }
+
+    /**
+     * @return the sequence
+     */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @return the timestamp
+     */
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    /**
+     * @return the requestStructure
+     */
+    public RequestStructure getRequestStructure()
+    {
+        return requestStructure;
+    }
+
+    /**
+     * @return the messageSource
+     */
+    public MessageSource getMessageSource()
+    {
+        return messageSource;
+    }
+
+    /**
+     * @return the responseStructure
+     */
+    public ResponseStructure getResponseStructure()
+    {
+        return responseStructure;
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import javax.xml.namespace.QName;
+
+import com.example.tutorial.jaxb.UriConverter;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.types.RequestStructure;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * Compact binary encoding of the model objects we journal.  This is deliberately hand-rolled on top of
+ * {@link DataOutputStream} rather than going through JAXB: it only needs to round-trip the handful of fields in
+ * {@link RequestStructure}, {@link MessageSource} and {@link ResponseStructure}, and it needs to be cheap.
+ * <p>
+ * Every payload starts with a format version byte so that a change of layout can be detected.  Strings are written as
+ * an int length and the UTF-8 bytes rather than with {@link DataOutputStream#writeUTF(String)}, which cannot hold more
+ * than 65535 encoded bytes, since nothing in the schema bounds a MessageSource attribute value.
+ */
+public final class JournalRecordCodec
+{
+
+    /**
+     * The current payload format version.
+     */
+    static final byte FORMAT_VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private JournalRecordCodec()
+    {
+    }
+
+    /**
+     * Encodes the given request, source and response into a payload.
+     * 
+     * @param request
+     * @param source
+     * @param response
+     * @return
+     * @throws IOException
+     */
+    public static byte[] encode(RequestStructure request, MessageSource source, ResponseStructure response)
+            throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+
+        out.writeBoolean(request != null);
+        if (request != null)
+        {
+            writeString(out, request.getGuid());
+            out.writeInt(request.getTags().size());
+            for (RequestStructure.Tag tag : request.getTags())
+            {
+                writeString(out, UriConverter.printUri(tag.getUri()));
+                writeString(out, tag.getValue());
+            }
+        }
+
+        out.writeBoolean(source != null);
+        if (source != null)
+        {
+            writeString(out, source.getSystemIdentifier());
+            writeString(out, source.getMessageIdentifier());
+            Map<QName, String> otherAttributes = source.getOtherAttributes();
+            out.writeInt(otherAttributes.size());
+            for (Map.Entry<QName, String> attribute : otherAttributes.entrySet())
+            {
+                writeString(out, attribute.getKey().getNamespaceURI());
+                writeString(out, attribute.getKey().getLocalPart());
+                writeString(out, attribute.getValue());
+            }
+        }
+
+        out.writeBoolean(response != null);
+        if (response != null)
+        {
+            writeCalendar(out, response.getServerDate());
+            writeString(out, response.getResponseCode());
+            writeString(out, response.getResponseMessage());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a payload produced by {@link #encode(RequestStructure, MessageSource, ResponseStructure)}.
+     * 
+     * @param sequence
+     * @param timestamp
+     * @param payload
+     * @return
+     * @throws IOException
+     */
+    public static JournalRecord decode(long sequence, long timestamp, byte[] payload) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported journal record format version " + version + " at sequence " + sequence);
+        }
+
+        RequestStructure request = null;
+        if (in.readBoolean())
+        {
+            request = new RequestStructure();
+            request.setGuid(readString(in));
+            int tagCount = in.readInt();
+            for (int i = 0; i < tagCount; i++)
+            {
+                RequestStructure.Tag tag = new RequestStructure.Tag();
+                URI uri = UriConverter.parseUri(readString(in));
+                tag.setUri(uri);
+                tag.setValue(readString(in));
+                request.getTags().add(tag);
+            }
+        }
+
+        MessageSource source = null;
+        if (in.readBoolean())
+        {
+            source = new MessageSource();
+            source.setSystemIdentifier(readString(in));
+            source.setMessageIdentifier(readString(in));
+            int attributeCount = in.readInt();
+            for (int i = 0; i < attributeCount; i++)
+            {
+                String namespace = readString(in);
+                String localPart = readString(in);
+                source.getOtherAttributes().put(new QName(namespace, localPart), readString(in));
+            }
+        }
+
+        ResponseStructure response = null;
+        if (in.readBoolean())
+        {
+            response = new ResponseStructure();
+            response.setServerDate(readCalendar(in));
+            response.setResponseCode(readString(in));
+            response.setResponseMessage(readString(in));
+        }
+
+        return new JournalRecord(sequence, timestamp, request, source, response);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null)
+        {
+            byte[] bytes = value.getBytes(UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        int length = in.readInt();
+        if (length < 0 || length > in.available())
+        {
+            throw new IOException("Corrupt journal string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static void writeCalendar(DataOutputStream out, Calendar value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null)
+        {
+            out.writeLong(value.getTimeInMillis());
+            writeString(out, value.getTimeZone().getID());
+        }
+    }
+
+    private static Calendar readCalendar(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+        long millis = in.readLong();
+        String zone = readString(in);
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone(zone));
+        cal.setTimeInMillis(millis);
+        return cal;
+    }
+
+}
@@ -0,0 +1,20 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.journal;
+
+/**
+ * Callback used by {@link JournalReader} to hand each replayed record to the caller.
+ */
+public interface JournalRecordHandler
+{
+
+    /**
+     * Handles a single record.  Returning false stops the scan.
+     * 
+     * @param record
+     * @return true to keep reading, false to stop
+     */
+    boolean handle(JournalRecord record);
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.journal;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * One fixed-size, memory-mapped file of the {@link MessageJournal}.  Records are framed as
+ * </p>
+ * 
+ * <pre>
+ *   int  length     (payload length; 0 marks the end of the written region)
+ *   int  crc        (CRC32 of the payload)
+ *   long sequence
+ *   long timestamp
+ *   byte[length] payload
+ * </pre>
+ * <p>
+ * Segment files are named after the sequence number of their first record, so a directory listing sorted by name is
+ * also sorted by sequence.  Newly created files are zero-filled, which is what lets a reader (or recovery after a
+ * crash) find the end of the data without a separate index.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; {@link MessageJournal} serializes appends, and {@link #force()} is safe to call
+ * concurrently with an append because it only flushes the mapping.  {@link #close()} unmaps the file straight away
+ * rather than leaving a segment's worth of address space to the garbage collector, so force and close are
+ * synchronized against each other, and a force after close does nothing.
+ * </p>
+ */
+class JournalSegment
+{
+
+    static final String FILE_PREFIX = "journal-";
+
+    static final String FILE_SUFFIX = ".seg";
+
+    static final int HEADER_LENGTH = 4 + 4 + 8 + 8;
+
+    private final File file;
+
+    private final long baseSequence;
+
+    private final RandomAccessFile randomAccessFile;
+
+    private final MappedByteBuffer buffer;
+
+    private long lastSequence;
+
+    private boolean closed;
+
+    /**
+     * Opens (creating if necessary) a segment file.  Writable segments are positioned after the last valid record; read-only
+     * ones are left for the caller to scan via {@link #readView()}.
+     * 
+     * @param file
+     * @param baseSequence
+     * @param size
+     * @param readOnly
+     * @throws IOException
+     */
+    JournalSegment(File file, long baseSequence, int size, boolean readOnly) throws IOException
+    {
+        this.file = file;
+        this.baseSequence = baseSequence;
+        this.lastSequence = baseSequence - 1;
+        this.randomAccessFile = new RandomAccessFile(file, readOnly ? "r" : "rw");
+        FileChannel channel = randomAccessFile.getChannel();
+        if (readOnly)
+        {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        else
+        {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+            recover();
+        }
+    }
+
+    /**
+     * Walks the existing records, leaving the buffer positioned at the end of the last one whose CRC is intact. A torn
+     * record left by a crash is cut off by zeroing its length field.
+     */
+    private void recover()
+    {
+        buffer.position(0);
+        while (true)
+        {
+            int start = buffer.position();
+            Entry entry = readEntry(buffer);
+            if (entry == null)
+            {
+                buffer.position(start);
+                if (buffer.remaining() >= 4)
+                {
+                    buffer.putInt(start, 0);
+                }
+                return;
+            }
+            lastSequence = entry.sequence;
+        }
+    }
+
+    /**
+     * Appends a record if there is room for it (plus the terminating zero length).
+     * 
+     * @param sequence
+     * @param timestamp
+     * @param payload
+     * @return false if the segment is full
+     */
+    boolean append(long sequence, long timestamp, byte[] payload)
+    {
+        if (buffer.remaining() < HEADER_LENGTH + payload.length + 4)
+        {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int start = buffer.position();
+        // Write everything but the length first, so a reader never sees a length without its record.
+        buffer.position(start + 4);
+        buffer.putInt((int)crc.getValue());
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        buffer.put(payload);
+        buffer.putInt(start, payload.length);
+        lastSequence = sequence;
+        return true;
+    }
+
+    /**
+     * Reads the record at the buffer's position, advancing past it.
+     * 
+     * @param buffer
+     * @return the record, or null at the end of the data or on a corrupt record
+     */
+    static Entry readEntry(ByteBuffer buffer)
+    {
+        if (buffer.remaining() < HEADER_LENGTH)
+        {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining() - (HEADER_LENGTH - 4))
+        {
+            return null;
+        }
+        int storedCrc = buffer.getInt();
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int)crc.getValue() != storedCrc)
+        {
+            return null;
+        }
+        return new Entry(sequence, timestamp, payload);
+    }
+
+    /**
+     * Flushes written records to the storage device.
+     */
+    synchronized void force()
+    {
+        if (!closed)
+        {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Forces, unmaps and closes the underlying file.  Views from {@link #readView()} must not be used afterwards.
+     * 
+     * @throws IOException
+     */
+    synchronized void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        if (!buffer.isReadOnly())
+        {
+            buffer.force();
+        }
+        randomAccessFile.close();
+        unmap(buffer);
+    }
+
+    /**
+     * Releases a mapping without waiting for it to be collected, through the buffer's cleaner.  Where the JVM does
+     * not expose one, the mapping is left to the garbage collector as before.
+     * 
+     * @param mapped
+     */
+    private static void unmap(MappedByteBuffer mapped)
+    {
+        try
+        {
+            Method cleanerMethod = mapped.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(mapped);
+            if (cleaner != null)
+            {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        }
+        catch (Exception e)
+        {
+            LoggerFactory.getLogger(JournalSegment.class).debug("Cannot unmap journal segment: {}", e.toString());
+        }
+    }
+
+    /**
+     * @return a read-only view of the segment from the first record
+     */
+    ByteBuffer readView()
+    {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        return view;
+    }
+
+    /**
+     * @return the file
+     */
+    File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return the sequence number of the first record in this segment
+     */
+    long getBaseSequence()
+    {
+        return baseSequence;
+    }
+
+    /**
+     * @return the sequence number of the last record written, or {@link #getBaseSequence()} - 1 if empty
+     */
+    long getLastSequence()
+    {
+        return lastSequence;
+    }
+
+    /**
+     * @param directory
+     * @param baseSequence
+     * @return the file a segment starting at baseSequence lives in
+     */
+    static File fileFor(File directory, long baseSequence)
+    {
+        return new File(directory, FILE_PREFIX + String.format("%020d", baseSequence) + FILE_SUFFIX);
+    }
+
+    /**
+     * @param file
+     * @return the base sequence encoded in a segment file name, or -1 if it isn't one of ours
+     */
+    static long baseSequenceOf(File file)
+    {
+        String name = file.getName();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX))
+        {
+            return -1;
+        }
+        try
+        {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        }
+        catch (NumberFormatException e)
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * @param directory
+     * @return the segment files in the directory, in sequence order
+     */
+    static File[] listSegmentFiles(File directory)
+    {
+        File[] files = directory.listFiles(new FileFilter()
+        {
+            public boolean accept(File candidate)
+            {
+                return candidate.isFile() && baseSequenceOf(candidate) >= 0;
+            }
+        });
+        if (files == null)
+        {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    /**
+     * A raw, still-encoded record.
+     */
+    static class Entry
+    {
+        final long sequence;
+
+        final long timestamp;
+
+        final byte[] payload;
+
+        Entry(long sequence, long timestamp, byte[] payload)
+        {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.payload = payload;
+        }
+    }
+
+}
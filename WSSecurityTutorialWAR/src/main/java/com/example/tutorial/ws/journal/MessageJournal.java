@@ -0,0 +1,365 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.journal;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.types.RequestStructure;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * <p>
+ * Durable, append-only journal of every message the service accepts, kept for audit and reprocessing.  Records are
+ * encoded with {@link JournalRecordCodec} and appended to memory-mapped {@link JournalSegment} files in
+ * {@link #directory}, rolling over to a new file whenever the current one fills up.
+ * </p>
+ * <p>
+ * Appending only copies bytes into the mapping, so it costs the request thread very little.  Getting the bytes onto
+ * disk is left to a background flusher which calls fsync (via {@link java.nio.MappedByteBuffer#force()}) once every
+ * {@link #flushIntervalMillis}, covering every record appended since the last pass in a single group commit.  By
+ * default ({@link #awaitFlush}) {@link #append(RequestStructure, MessageSource, ResponseStructure)} then blocks until
+ * the group commit covering its record has completed, so an acknowledged message is on disk; this adds up to
+ * flushIntervalMillis to each request.
+ * </p>
+ * <p>
+ * Use {@link JournalReader} to replay or scan the segments.
+ * </p>
+ */
+public class MessageJournal implements InitializingBean, DisposableBean
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private boolean enabled = true;
+
+    private File directory;
+
+    private int segmentSize = 64 * 1024 * 1024;
+
+    private volatile long flushIntervalMillis = 10;
+
+    private volatile boolean awaitFlush = true;
+
+    private final Object flushMonitor = new Object();
+
+    private JournalSegment currentSegment;
+
+    private long nextSequence;
+
+    private volatile long durableSequence = -1;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    /**
+     * Opens the newest existing segment (or creates the first one) and starts the flusher.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        if (!enabled)
+        {
+            log.info("Message journal is disabled.");
+            return;
+        }
+        if (directory == null)
+        {
+            throw new IllegalStateException("directory must be set on an enabled MessageJournal.");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Cannot create journal directory " + directory);
+        }
+        File[] existing = JournalSegment.listSegmentFiles(directory);
+        if (existing.length > 0)
+        {
+            File newest = existing[existing.length - 1];
+            currentSegment = new JournalSegment(newest, JournalSegment.baseSequenceOf(newest), segmentSize, false);
+        }
+        else
+        {
+            currentSegment = new JournalSegment(JournalSegment.fileFor(directory, 0), 0, segmentSize, false);
+        }
+        nextSequence = currentSegment.getLastSequence() + 1;
+        durableSequence = currentSegment.getLastSequence();
+        log.info("Message journal opened at {}, next sequence {}", currentSegment.getFile(), nextSequence);
+
+        running = true;
+        flusher = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                flushLoop();
+            }
+        }, "MessageJournal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops the flusher and forces and closes the current segment.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws Exception
+    {
+        if (!running)
+        {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join();
+        synchronized (this)
+        {
+            currentSegment.close();
+            publishDurable(currentSegment.getLastSequence());
+        }
+    }
+
+    /**
+     * Appends a record.
+     * 
+     * @param request
+     * @param source
+     * @param response
+     * @return the sequence number assigned to the record, or -1 if the journal is disabled
+     * @throws IOException if the record could not be written
+     */
+    public long append(RequestStructure request, MessageSource source, ResponseStructure response) throws IOException
+    {
+        if (!enabled)
+        {
+            return -1;
+        }
+        byte[] payload = JournalRecordCodec.encode(request, source, response);
+        if (payload.length + JournalSegment.HEADER_LENGTH + 4 > segmentSize)
+        {
+            throw new IOException("Journal record of " + payload.length + " bytes does not fit in a segment of "
+                    + segmentSize + " bytes.");
+        }
+        long sequence;
+        synchronized (this)
+        {
+            if (!running)
+            {
+                throw new IOException("Message journal is not running.");
+            }
+            sequence = nextSequence;
+            long timestamp = System.currentTimeMillis();
+            if (!currentSegment.append(sequence, timestamp, payload))
+            {
+                roll(sequence);
+                currentSegment.append(sequence, timestamp, payload);
+            }
+            nextSequence++;
+        }
+        if (awaitFlush)
+        {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * Closes the full segment and starts a new one beginning at the given sequence.  Called with the lock held.
+     * 
+     * @param baseSequence
+     * @throws IOException
+     */
+    private void roll(long baseSequence) throws IOException
+    {
+        JournalSegment full = currentSegment;
+        full.close();
+        publishDurable(full.getLastSequence());
+        currentSegment = new JournalSegment(JournalSegment.fileFor(directory, baseSequence), baseSequence, segmentSize,
+                false);
+        log.info("Message journal rolled to {}", currentSegment.getFile());
+    }
+
+    private void flushLoop()
+    {
+        while (running)
+        {
+            try
+            {
+                Thread.sleep(flushIntervalMillis);
+            }
+            catch (InterruptedException e)
+            {
+                // destroy() wakes us up; fall through so we flush whatever is pending one last time.
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Performs one group commit of everything appended so far.
+     */
+    void flush()
+    {
+        JournalSegment segment;
+        long upTo;
+        synchronized (this)
+        {
+            segment = currentSegment;
+            upTo = segment.getLastSequence();
+        }
+        if (upTo <= durableSequence)
+        {
+            return;
+        }
+        try
+        {
+            segment.force();
+            publishDurable(upTo);
+        }
+        catch (RuntimeException e)
+        {
+            // A segment closed by a concurrent roll has already been forced by the roll.
+            log.debug("Journal flush skipped: {}", e.getMessage());
+        }
+    }
+
+    private void publishDurable(long sequence)
+    {
+        synchronized (flushMonitor)
+        {
+            if (sequence > durableSequence)
+            {
+                durableSequence = sequence;
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void awaitDurable(long sequence) throws IOException
+    {
+        synchronized (flushMonitor)
+        {
+            while (durableSequence < sequence)
+            {
+                if (!running)
+                {
+                    throw new IOException("Message journal stopped before sequence " + sequence + " was flushed.");
+                }
+                try
+                {
+                    flushMonitor.wait(flushIntervalMillis);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for journal flush of sequence " + sequence);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the sequence number of the last record known to be on disk
+     */
+    public long getDurableSequence()
+    {
+        return durableSequence;
+    }
+
+    /**
+     * @return whether the journal is enabled
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @param enabled whether to journal at all; a disabled journal accepts and discards appends
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the directory
+     */
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * @param directory the directory holding the segment files
+     */
+    public void setDirectory(File directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the segmentSize
+     */
+    public int getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    /**
+     * @param segmentSize the size in bytes each segment file is mapped at
+     */
+    public void setSegmentSize(int segmentSize)
+    {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * @return the flushIntervalMillis
+     */
+    public long getFlushIntervalMillis()
+    {
+        return flushIntervalMillis;
+    }
+
+    /**
+     * @param flushIntervalMillis how long the flusher waits between group commits; at least 1
+     */
+    public void setFlushIntervalMillis(long flushIntervalMillis)
+    {
+        if (flushIntervalMillis < 1)
+        {
+            throw new IllegalArgumentException("flushIntervalMillis must be positive: " + flushIntervalMillis);
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * @return the awaitFlush
+     */
+    public boolean isAwaitFlush()
+    {
+        return awaitFlush;
+    }
+
+    /**
+     * @param awaitFlush whether appends block until their record has been flushed to disk; true by default.  With
+     *            false, a message is acknowledged while its record is only in the page cache, and a crash of the host
+     *            (not just the JVM) loses up to flushIntervalMillis of acknowledged messages.
+     */
+    public void setAwaitFlush(boolean awaitFlush)
+    {
+        this.awaitFlush = awaitFlush;
+    }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.logging;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import com.example.tutorial.ws.util.BoundedMpscQueue;
+
+/**
+ * <p>
+ * Hands logging events to one background thread, which passes them on to the appenders attached with appender-ref,
+ * so that a request thread never waits on a file or the console.  The events are queued in a lock-free
+ * {@link BoundedMpscQueue} of {@link #queueSize}, and the appender is lossy rather than blocking: once fewer than
+ * {@link #discardingThreshold} slots are free, TRACE, DEBUG and INFO events are dropped, and once the queue is full
+ * everything is.  The number dropped is reported by {@link #getDiscardedCount()}, and in logback's status when the
+ * appender stops.  The worker parks while the queue is empty, and an append wakes it.
+ * </p>
+ * <p>
+ * Logback 0.9.26 has no AsyncAppender of its own; this is configured the same way, in logback.xml.  Caller data is not
+ * captured, so %caller and friends are empty downstream.
+ * </p>
+ */
+public class AsyncAuditAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements
+        AppenderAttachable<ILoggingEvent>
+{
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<ILoggingEvent>();
+
+    private int queueSize = 8192;
+
+    private int discardingThreshold = -1;
+
+    private long stopTimeoutMillis = 1000;
+
+    private BoundedMpscQueue<ILoggingEvent> queue;
+
+    private int freeSlotsToKeep;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private volatile boolean parked;
+
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * Creates the queue and starts the worker.
+     *
+     * @see ch.qos.logback.core.UnsynchronizedAppenderBase#start()
+     */
+    @Override
+    public void start()
+    {
+        if (!appenders.iteratorForAppenders().hasNext())
+        {
+            addError("No appender-ref for AsyncAuditAppender [" + name + "].");
+            return;
+        }
+        if (queueSize < 1)
+        {
+            addError("queueSize must be positive for AsyncAuditAppender [" + name + "].");
+            return;
+        }
+        queue = new BoundedMpscQueue<ILoggingEvent>(queueSize);
+        freeSlotsToKeep = discardingThreshold >= 0 ? discardingThreshold : queue.capacity() / 5;
+        running = true;
+        worker = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                work();
+            }
+        }, "AsyncAuditAppender-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        super.start();
+    }
+
+    /**
+     * Lets the worker write what is queued, for up to {@link #stopTimeoutMillis}, then stops the attached appenders.
+     *
+     * @see ch.qos.logback.core.UnsynchronizedAppenderBase#stop()
+     */
+    @Override
+    public void stop()
+    {
+        if (!isStarted())
+        {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try
+        {
+            worker.join(stopTimeoutMillis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive())
+        {
+            addWarn("AsyncAuditAppender [" + name + "] stopped with " + queue.size() + " event(s) unwritten.");
+        }
+        if (discarded.get() > 0)
+        {
+            addInfo("AsyncAuditAppender [" + name + "] discarded " + discarded.get() + " event(s).");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.UnsynchronizedAppenderBase#append(java.lang.Object)
+     */
+    @Override
+    protected void append(ILoggingEvent event)
+    {
+        if (event.getLevel().toInt() < Level.WARN_INT && queue.capacity() - queue.size() <= freeSlotsToKeep)
+        {
+            discarded.incrementAndGet();
+            return;
+        }
+        // the message, thread name and MDC have to be taken on the logging thread
+        event.prepareForDeferredProcessing();
+        if (!queue.offer(event))
+        {
+            discarded.incrementAndGet();
+            return;
+        }
+        if (parked)
+        {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void work()
+    {
+        while (true)
+        {
+            ILoggingEvent event = queue.poll();
+            if (event != null)
+            {
+                appenders.appendLoopOnAppenders(event);
+                continue;
+            }
+            if (!running)
+            {
+                return;
+            }
+            parked = true;
+            // an offer claims its slot before append looks at parked, so one that lands now is seen here
+            if (queue.size() == 0 && running)
+            {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+    }
+
+    /**
+     * @return the number of events dropped because the queue was (nearly) full
+     */
+    public long getDiscardedCount()
+    {
+        return discarded.get();
+    }
+
+    /**
+     * @return the number of events waiting to be written
+     */
+    public int getQueueDepth()
+    {
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * @param queueSize the most events that may wait
+     */
+    public void setQueueSize(int queueSize)
+    {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * @param discardingThreshold how many free slots to keep for WARN and ERROR events; by default a fifth of the queue
+     */
+    public void setDiscardingThreshold(int discardingThreshold)
+    {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    /**
+     * @param stopTimeoutMillis how long {@link #stop()} waits for queued events to be written
+     */
+    public void setStopTimeoutMillis(long stopTimeoutMillis)
+    {
+        this.stopTimeoutMillis = stopTimeoutMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.spi.AppenderAttachable#addAppender(ch.qos.logback.core.Appender)
+     */
+    public void addAppender(Appender<ILoggingEvent> appender)
+    {
+        appenders.addAppender(appender);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.spi.AppenderAttachable#iteratorForAppenders()
+     */
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders()
+    {
+        return appenders.iteratorForAppenders();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.spi.AppenderAttachable#getAppender(java.lang.String)
+     */
+    public Appender<ILoggingEvent> getAppender(String name)
+    {
+        return appenders.getAppender(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.spi.AppenderAttachable#isAttached(ch.qos.logback.core.Appender)
+     */
+    public boolean isAttached(Appender<ILoggingEvent> appender)
+    {
+        return appenders.isAttached(appender);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.spi.AppenderAttachable#detachAndStopAllAppenders()
+     */
+    public void detachAndStopAllAppenders()
+    {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.spi.AppenderAttachable#detachAppender(ch.qos.logback.core.Appender)
+     */
+    public boolean detachAppender(Appender<ILoggingEvent> appender)
+    {
+        return appenders.detachAppender(appender);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.spi.AppenderAttachable#detachAppender(java.lang.String)
+     */
+    public boolean detachAppender(String name)
+    {
+        return appenders.detachAppender(name);
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.logging;
+
+import org.slf4j.MDC;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+
+/**
+ * Puts the identifiers of the message being handled into the SLF4J MDC, so that every line logged while handling it
+ * carries them; {@link StructuredAuditEncoder} writes them as fields of their own.  On the SOAP port
+ * {@link AuditContextFeature} sets them for the whole exchange; the service sets them again on the thread it runs on,
+ * which with an executor is not the one CXF logs from.  Identifiers read from a request before its signature has been
+ * verified are only what the caller claims, and go under keys of their own until the verified ones replace them.
+ */
+public final class AuditContext
+{
+
+    /** MDC key of the source's messageIdentifier. */
+    public static final String MESSAGE_IDENTIFIER = "messageIdentifier";
+
+    /** MDC key of the source's systemIdentifier. */
+    public static final String SYSTEM_IDENTIFIER = "systemIdentifier";
+
+    /** MDC key of the request's guid. */
+    public static final String GUID = "guid";
+
+    /** MDC key of the messageIdentifier read from a request whose signature has not been verified yet. */
+    public static final String CLAIMED_MESSAGE_IDENTIFIER = "claimedMessageIdentifier";
+
+    /** MDC key of the systemIdentifier read from a request whose signature has not been verified yet. */
+    public static final String CLAIMED_SYSTEM_IDENTIFIER = "claimedSystemIdentifier";
+
+    private AuditContext()
+    {
+    }
+
+    /**
+     * Sets the identifiers of a message on this thread; missing ones are left out.  A source replaces the claimed
+     * identifiers, if any.
+     *
+     * @param request
+     * @param source
+     * @return true if this thread had no identifiers set, so the caller should {@link #end()} when done; false if
+     *         they were already set for the exchange (by {@link AuditContextFeature}), which will remove them itself
+     */
+    public static boolean begin(TutorialRequest request, MessageSource source)
+    {
+        boolean started = MDC.get(MESSAGE_IDENTIFIER) == null && MDC.get(SYSTEM_IDENTIFIER) == null
+                && MDC.get(GUID) == null;
+        if (source != null)
+        {
+            put(MESSAGE_IDENTIFIER, source.getMessageIdentifier());
+            put(SYSTEM_IDENTIFIER, source.getSystemIdentifier());
+            MDC.remove(CLAIMED_MESSAGE_IDENTIFIER);
+            MDC.remove(CLAIMED_SYSTEM_IDENTIFIER);
+        }
+        if (request != null && request.getRequestStructure() != null)
+        {
+            put(GUID, request.getRequestStructure().getGuid());
+        }
+        return started;
+    }
+
+    /**
+     * Removes what {@link #begin(TutorialRequest, MessageSource)} and {@link #claim(String, String)} set.
+     */
+    public static void end()
+    {
+        MDC.remove(MESSAGE_IDENTIFIER);
+        MDC.remove(SYSTEM_IDENTIFIER);
+        MDC.remove(GUID);
+        MDC.remove(CLAIMED_MESSAGE_IDENTIFIER);
+        MDC.remove(CLAIMED_SYSTEM_IDENTIFIER);
+    }
+
+    /**
+     * Sets the identifiers a request claims, before its signature has been verified; missing ones are left out.
+     *
+     * @param messageIdentifier
+     * @param systemIdentifier
+     */
+    static void claim(String messageIdentifier, String systemIdentifier)
+    {
+        put(CLAIMED_MESSAGE_IDENTIFIER, messageIdentifier);
+        put(CLAIMED_SYSTEM_IDENTIFIER, systemIdentifier);
+    }
+
+    static void put(String key, String value)
+    {
+        if (value != null)
+        {
+            MDC.put(key, value);
+        }
+    }
+
+}
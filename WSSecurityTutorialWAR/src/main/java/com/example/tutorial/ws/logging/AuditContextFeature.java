@@ -0,0 +1,247 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.interceptor.LoggingInInterceptor;
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageContentsList;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+
+/**
+ * <p>
+ * Sets the {@link AuditContext} for the whole exchange, so that the lines CXF logs about a message (the payload logged
+ * by {@link LoggingInInterceptor} and LoggingOutInterceptor, WS-Security and policy failures, faults) carry its
+ * identifiers, not just the lines the service itself logs.
+ * </p>
+ * <p>
+ * The identifiers and guid are set once the request has been verified and unmarshalled, so that nothing the caller
+ * sends can put its identifiers on the lines logged before then.  When the payload is logged (the
+ * {@link LoggingInInterceptor} logger is at INFO), an interceptor at the start of the in-chain, ahead of the payload
+ * logging, also reads the message-identifier and system-identifier attributes of the message-source header from the
+ * raw request and sets them as the claimed identifiers, so the logged payload and any WS-Security failure can be
+ * traced; that buffers and parses the request, so it is skipped otherwise.  The context is removed when the response
+ * or fault has been written, and any left over from an exchange that ended some other way is removed when the next
+ * request starts on the thread.
+ * </p>
+ */
+public class AuditContextFeature extends AbstractFeature
+{
+
+    private static final QName MESSAGE_SOURCE = new QName("http://example.com/tutotial/", "message-source");
+
+    private static final String BODY = "Body";
+
+    private static final Logger PAYLOAD_LOG = LoggerFactory.getLogger(LoggingInInterceptor.class);
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.apache.cxf.feature.AbstractFeature#initializeProvider(org.apache.cxf.interceptor.InterceptorProvider,
+     *      org.apache.cxf.Bus)
+     */
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus)
+    {
+        provider.getInInterceptors().add(new BeginFromHeader());
+        provider.getInInterceptors().add(new AddRequest());
+        provider.getOutInterceptors().add(new End());
+        provider.getOutFaultInterceptors().add(new End());
+    }
+
+    /**
+     * Removes any context left on the thread and, if the payload is logged, buffers the request and sets the
+     * identifiers from its message-source header as the claimed ones.
+     *
+     * @param message
+     * @param payloadLogged whether the payload logger is enabled
+     * @throws IOException
+     */
+    static void beginFromHeader(Message message, boolean payloadLogged) throws IOException
+    {
+        AuditContext.end();
+        if (!payloadLogged)
+        {
+            return;
+        }
+        InputStream in = message.getContent(InputStream.class);
+        if (in == null)
+        {
+            return;
+        }
+        CachedOutputStream cache = new CachedOutputStream();
+        try
+        {
+            IOUtils.copy(in, cache);
+            cache.flush();
+            in.close();
+            message.setContent(InputStream.class, cache.getInputStream());
+            InputStream scan = cache.getInputStream();
+            try
+            {
+                scanHeader(StaxUtils.createXMLStreamReader(scan, (String)message.get(Message.ENCODING)));
+            }
+            finally
+            {
+                scan.close();
+            }
+        }
+        finally
+        {
+            cache.close();
+        }
+    }
+
+    /**
+     * Reads up to the message-source header or the start of the body, whichever comes first.
+     */
+    private static void scanHeader(XMLStreamReader reader)
+    {
+        try
+        {
+            while (reader.hasNext())
+            {
+                if (reader.next() != XMLStreamReader.START_ELEMENT)
+                {
+                    continue;
+                }
+                if (MESSAGE_SOURCE.equals(reader.getName()))
+                {
+                    AuditContext.claim(reader.getAttributeValue(null, "message-identifier"),
+                            reader.getAttributeValue(null, "system-identifier"));
+                    return;
+                }
+                if (BODY.equals(reader.getLocalName()))
+                {
+                    return;
+                }
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            // A request that doesn't parse is reported by the chain proper.
+        }
+        finally
+        {
+            try
+            {
+                reader.close();
+            }
+            catch (XMLStreamException e)
+            {
+                // nothing more to read
+            }
+        }
+    }
+
+    /**
+     * Sets the identifiers and guid from the verified and unmarshalled request.
+     *
+     * @param message
+     */
+    static void addRequest(Message message)
+    {
+        MessageContentsList parameters = MessageContentsList.getContentsList(message);
+        if (parameters == null)
+        {
+            return;
+        }
+        TutorialRequest request = null;
+        MessageSource source = null;
+        for (Object parameter : parameters)
+        {
+            if (parameter instanceof TutorialRequest)
+            {
+                request = (TutorialRequest)parameter;
+            }
+            else if (parameter instanceof MessageSource)
+            {
+                source = (MessageSource)parameter;
+            }
+        }
+        AuditContext.begin(request, source);
+    }
+
+    /**
+     * Clears the context, and claims it from the raw request when the payload is logged.
+     */
+    private static class BeginFromHeader extends AbstractPhaseInterceptor<Message>
+    {
+
+        BeginFromHeader()
+        {
+            super(AuditContextFeature.class.getName() + ".BeginFromHeader", Phase.RECEIVE);
+            addBefore(LoggingInInterceptor.class.getName());
+        }
+
+        public void handleMessage(Message message) throws Fault
+        {
+            try
+            {
+                beginFromHeader(message, PAYLOAD_LOG.isInfoEnabled());
+            }
+            catch (IOException e)
+            {
+                throw new Fault(e);
+            }
+        }
+
+    }
+
+    /**
+     * Sets the context once the request has been verified, decrypted and unmarshalled.
+     */
+    private static class AddRequest extends AbstractPhaseInterceptor<Message>
+    {
+
+        AddRequest()
+        {
+            super(AuditContextFeature.class.getName() + ".AddRequest", Phase.PRE_LOGICAL);
+        }
+
+        public void handleMessage(Message message) throws Fault
+        {
+            addRequest(message);
+        }
+
+    }
+
+    /**
+     * Removes the context once the response (or fault) has been written.
+     */
+    private static class End extends AbstractPhaseInterceptor<Message>
+    {
+
+        End()
+        {
+            super(AuditContextFeature.class.getName() + ".End", Phase.SETUP_ENDING);
+        }
+
+        public void handleMessage(Message message) throws Fault
+        {
+            AuditContext.end();
+        }
+
+    }
+
+}
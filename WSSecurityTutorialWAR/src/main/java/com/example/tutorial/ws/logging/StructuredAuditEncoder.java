@@ -0,0 +1,293 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.logging;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+/**
+ * <p>
+ * Writes each event as one line of JSON:
+ * </p>
+ *
+ * <pre>
+ * {"time":"2026-10-18T09:15:02.117Z","level":"INFO","thread":"qtp-12","logger":"...","messageIdentifier":"...",
+ *  "systemIdentifier":"...","guid":"...","claimedMessageIdentifier":"...","claimedSystemIdentifier":"...",
+ *  "message":"...","exception":"..."}
+ * </pre>
+ * <p>
+ * messageIdentifier, systemIdentifier, guid and the claimed (not yet verified) identifiers come from the MDC set by
+ * {@link AuditContext}, and are left out when absent, as is exception.  The line is built in a byte buffer that is kept between events, and the time (UTC) is
+ * worked out arithmetically from the day's start, so writing an event allocates nothing unless it carries an
+ * exception or is longer than any before it.  An encoder belongs to one appender, which calls it under its own lock
+ * or from a single thread.
+ * </p>
+ */
+public class StructuredAuditEncoder extends EncoderBase<ILoggingEvent>
+{
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private static final byte[] LINE_END = "}\n".getBytes();
+
+    private static final String[] MDC_FIELDS = { AuditContext.MESSAGE_IDENTIFIER, AuditContext.SYSTEM_IDENTIFIER,
+            AuditContext.GUID, AuditContext.CLAIMED_MESSAGE_IDENTIFIER, AuditContext.CLAIMED_SYSTEM_IDENTIFIER };
+
+    private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    private byte[] buffer = new byte[1024];
+
+    private int length;
+
+    private long dayStart = Long.MIN_VALUE;
+
+    private final byte[] day = new byte[11];
+
+    private boolean immediateFlush = true;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.encoder.Encoder#doEncode(java.lang.Object)
+     */
+    public void doEncode(ILoggingEvent event) throws IOException
+    {
+        length = 0;
+        append((byte) '{');
+        field("time");
+        append((byte) '"');
+        time(event.getTimeStamp());
+        append((byte) '"');
+        append((byte) ',');
+        field("level");
+        string(event.getLevel().levelStr);
+        append((byte) ',');
+        field("thread");
+        string(event.getThreadName());
+        append((byte) ',');
+        field("logger");
+        string(event.getLoggerName());
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty())
+        {
+            for (String key : MDC_FIELDS)
+            {
+                String value = mdc.get(key);
+                if (value != null)
+                {
+                    append((byte) ',');
+                    field(key);
+                    string(value);
+                }
+            }
+        }
+        append((byte) ',');
+        field("message");
+        string(event.getFormattedMessage());
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null)
+        {
+            append((byte) ',');
+            field("exception");
+            string(ThrowableProxyUtil.asString(throwable));
+        }
+        append(LINE_END);
+        outputStream.write(buffer, 0, length);
+        if (immediateFlush)
+        {
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see ch.qos.logback.core.encoder.Encoder#close()
+     */
+    public void close() throws IOException
+    {
+        outputStream.flush();
+    }
+
+    /**
+     * @param immediateFlush whether to flush after every event; on by default, so that nothing is lost with the JVM
+     */
+    public void setImmediateFlush(boolean immediateFlush)
+    {
+        this.immediateFlush = immediateFlush;
+    }
+
+    /**
+     * @return the size of the reusable line buffer, which grows to the longest line written
+     */
+    public int getBufferSize()
+    {
+        return buffer.length;
+    }
+
+    private void field(String name)
+    {
+        append((byte) '"');
+        for (int i = 0; i < name.length(); i++)
+        {
+            append((byte) name.charAt(i));
+        }
+        append((byte) '"');
+        append((byte) ':');
+    }
+
+    /**
+     * Appends a JSON string, escaped and encoded as UTF-8, or null.
+     */
+    private void string(String value)
+    {
+        if (value == null)
+        {
+            append((byte) 'n');
+            append((byte) 'u');
+            append((byte) 'l');
+            append((byte) 'l');
+            return;
+        }
+        // at most 6 bytes (an escape) per char
+        ensure(value.length() * 6 + 2);
+        byte[] b = buffer;
+        int n = length;
+        b[n++] = '"';
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+            {
+                b[n++] = '\\';
+                b[n++] = (byte) c;
+            }
+            else if (c < 0x20)
+            {
+                b[n++] = '\\';
+                switch (c)
+                {
+                case '\n':
+                    b[n++] = 'n';
+                    break;
+                case '\r':
+                    b[n++] = 'r';
+                    break;
+                case '\t':
+                    b[n++] = 't';
+                    break;
+                default:
+                    b[n++] = 'u';
+                    b[n++] = '0';
+                    b[n++] = '0';
+                    b[n++] = HEX[c >> 4];
+                    b[n++] = HEX[c & 0xf];
+                }
+            }
+            else if (c < 0x80)
+            {
+                b[n++] = (byte) c;
+            }
+            else if (c < 0x800)
+            {
+                b[n++] = (byte) (0xc0 | (c >> 6));
+                b[n++] = (byte) (0x80 | (c & 0x3f));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1)))
+            {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                b[n++] = (byte) (0xf0 | (cp >> 18));
+                b[n++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                b[n++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                b[n++] = (byte) (0x80 | (cp & 0x3f));
+            }
+            else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)
+            {
+                // an unpaired surrogate cannot be encoded
+                b[n++] = '?';
+            }
+            else
+            {
+                b[n++] = (byte) (0xe0 | (c >> 12));
+                b[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                b[n++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        b[n++] = '"';
+        length = n;
+    }
+
+    /**
+     * Appends yyyy-MM-ddTHH:mm:ss.SSSZ in UTC; the date part is only recomputed when the day changes.
+     */
+    private void time(long millis)
+    {
+        if (millis < dayStart || millis >= dayStart + MILLIS_PER_DAY)
+        {
+            dayStart = millis - ((millis % MILLIS_PER_DAY) + MILLIS_PER_DAY) % MILLIS_PER_DAY;
+            utc.setTimeInMillis(dayStart);
+            digits(day, 0, utc.get(Calendar.YEAR), 4);
+            day[4] = '-';
+            digits(day, 5, utc.get(Calendar.MONTH) + 1, 2);
+            day[7] = '-';
+            digits(day, 8, utc.get(Calendar.DAY_OF_MONTH), 2);
+            day[10] = 'T';
+        }
+        append(day);
+        int ofDay = (int) (millis - dayStart);
+        ensure(13);
+        digits(buffer, length, ofDay / 3600000, 2);
+        buffer[length + 2] = ':';
+        digits(buffer, length + 3, ofDay / 60000 % 60, 2);
+        buffer[length + 5] = ':';
+        digits(buffer, length + 6, ofDay / 1000 % 60, 2);
+        buffer[length + 8] = '.';
+        digits(buffer, length + 9, ofDay % 1000, 3);
+        buffer[length + 12] = 'Z';
+        length += 13;
+    }
+
+    private static void digits(byte[] b, int offset, int value, int width)
+    {
+        for (int i = offset + width - 1; i >= offset; i--)
+        {
+            b[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private void append(byte b)
+    {
+        ensure(1);
+        buffer[length++] = b;
+    }
+
+    private void append(byte[] b)
+    {
+        ensure(b.length);
+        System.arraycopy(b, 0, buffer, length, b.length);
+        length += b.length;
+    }
+
+    private void ensure(int more)
+    {
+        if (length + more > buffer.length)
+        {
+            byte[] larger = new byte[Math.max(buffer.length * 2, length + more)];
+            System.arraycopy(buffer, 0, larger, 0, length);
+            buffer = larger;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.policy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.ws.policy.EffectivePolicy;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+import org.apache.neethi.PolicyRegistry;
+
+/**
+ * The effective policy of one operation in one direction (or of one fault), with the policy itself frozen (see
+ * {@link FrozenPolicy}) and the chosen alternative and interceptors copied into unmodifiable collections.
+ */
+public class FrozenEffectivePolicy implements EffectivePolicy
+{
+
+    private final Policy policy;
+
+    private final Collection<Assertion> chosenAlternative;
+
+    private final List<Interceptor<? extends Message>> interceptors;
+
+    /**
+     * @param effectivePolicy as computed by the policy engine
+     * @param registry
+     */
+    public FrozenEffectivePolicy(EffectivePolicy effectivePolicy, PolicyRegistry registry)
+    {
+        policy = FrozenPolicy.freeze(effectivePolicy.getPolicy(), registry);
+        chosenAlternative = copy(effectivePolicy.getChosenAlternative());
+        interceptors = copy(effectivePolicy.getInterceptors());
+    }
+
+    static <T> List<T> copy(Collection<T> collection)
+    {
+        return collection == null ? null : Collections.unmodifiableList(new ArrayList<T>(collection));
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EffectivePolicy#getPolicy()
+     */
+    public Policy getPolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EffectivePolicy#getChosenAlternative()
+     */
+    public Collection<Assertion> getChosenAlternative()
+    {
+        return chosenAlternative;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EffectivePolicy#getInterceptors()
+     */
+    public List<Interceptor<? extends Message>> getInterceptors()
+    {
+        return interceptors;
+    }
+
+}
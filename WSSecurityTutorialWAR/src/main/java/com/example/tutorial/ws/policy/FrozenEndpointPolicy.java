@@ -0,0 +1,139 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.policy;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.ws.policy.Assertor;
+import org.apache.cxf.ws.policy.EndpointPolicy;
+import org.apache.cxf.ws.policy.EndpointPolicyImpl;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+import org.apache.neethi.PolicyRegistry;
+
+/**
+ * <p>
+ * The policy of an endpoint, frozen.  CXF reads the endpoint's vocabulary and interceptors on every incoming message,
+ * before the operation is known, through getters that are synchronized on the endpoint policy; this copy answers
+ * without locking.
+ * </p>
+ * <p>
+ * It extends {@link EndpointPolicyImpl} because the policy engine asks the endpoint policy for its {@link Assertor}
+ * when it works out an operation's effective policy later on (for a fault, say).
+ * </p>
+ */
+public class FrozenEndpointPolicy extends EndpointPolicyImpl
+{
+
+    private final EndpointPolicy original;
+
+    private final Assertor assertor;
+
+    private final Collection<Assertion> chosenAlternative;
+
+    private final Collection<Assertion> vocabulary;
+
+    private final Collection<Assertion> faultVocabulary;
+
+    private final List<Interceptor<? extends Message>> interceptors;
+
+    private final List<Interceptor<? extends Message>> faultInterceptors;
+
+    /**
+     * @param original as computed by the policy engine
+     * @param registry
+     */
+    public FrozenEndpointPolicy(EndpointPolicy original, PolicyRegistry registry)
+    {
+        super(FrozenPolicy.freeze(original.getPolicy(), registry));
+        this.original = original;
+        assertor = original instanceof EndpointPolicyImpl ? ((EndpointPolicyImpl)original).getAssertor() : null;
+        chosenAlternative = FrozenEffectivePolicy.copy(original.getChosenAlternative());
+        vocabulary = FrozenEffectivePolicy.copy(original.getVocabulary());
+        faultVocabulary = FrozenEffectivePolicy.copy(original.getFaultVocabulary());
+        interceptors = FrozenEffectivePolicy.copy(original.getInterceptors());
+        faultInterceptors = FrozenEffectivePolicy.copy(original.getFaultInterceptors());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EndpointPolicyImpl#getAssertor()
+     */
+    @Override
+    public Assertor getAssertor()
+    {
+        return assertor;
+    }
+
+    /**
+     * Policies added at runtime (e.g. by WS-Addressing) are merged by the original, so the result is no longer frozen.
+     * 
+     * @see org.apache.cxf.ws.policy.EndpointPolicyImpl#updatePolicy(org.apache.neethi.Policy)
+     */
+    @Override
+    public EndpointPolicy updatePolicy(Policy policy)
+    {
+        return original.updatePolicy(policy);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EndpointPolicyImpl#getChosenAlternative()
+     */
+    @Override
+    public Collection<Assertion> getChosenAlternative()
+    {
+        return chosenAlternative;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EndpointPolicyImpl#getVocabulary()
+     */
+    @Override
+    public Collection<Assertion> getVocabulary()
+    {
+        return vocabulary;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EndpointPolicyImpl#getFaultVocabulary()
+     */
+    @Override
+    public Collection<Assertion> getFaultVocabulary()
+    {
+        return faultVocabulary;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EndpointPolicyImpl#getInterceptors()
+     */
+    @Override
+    public List<Interceptor<? extends Message>> getInterceptors()
+    {
+        return interceptors;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.ws.policy.EndpointPolicyImpl#getFaultInterceptors()
+     */
+    @Override
+    public List<Interceptor<? extends Message>> getFaultInterceptors()
+    {
+        return faultInterceptors;
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.policy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.ws.policy.AssertionInfo;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
+import org.apache.cxf.ws.policy.PolicyAssertion;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+import org.apache.neethi.PolicyContainingAssertion;
+import org.apache.neethi.PolicyRegistry;
+
+/**
+ * <p>
+ * A policy normalized once, with its alternatives worked out in advance.  Neethi's {@link Policy#getAlternatives()}
+ * normalizes the whole policy tree on every call, and CXF's policy verification interceptors call it for every
+ * message to check the message's assertions against the effective policy; this class answers from the precomputed
+ * list instead.
+ * </p>
+ * <p>
+ * It also keeps the alternatives of every nested policy (the WS-SecurityPolicy binding's tokens, algorithm suite and
+ * so on), so that {@link #isSatisfiedBy(AssertionInfoMap)} can check a message's assertions without the
+ * WS-SecurityPolicy models rebuilding and normalizing their nested policies, as
+ * {@link AssertionInfoMap#checkEffectivePolicy(Policy)} has them do for every message.
+ * </p>
+ * <p>
+ * The policy is treated as immutable once built: it is shared by every message on an endpoint.
+ * </p>
+ */
+public class FrozenPolicy extends Policy
+{
+
+    private final List<List<Assertion>> alternatives;
+
+    private final List<List<Check>> checks;
+
+    /**
+     * @param policy the policy to freeze
+     * @param registry used to resolve policy references while normalizing
+     */
+    public FrozenPolicy(Policy policy, PolicyRegistry registry)
+    {
+        super(registry, policy.getNamespace());
+        Policy normalized = policy.normalize(registry, true);
+        addPolicyComponents(normalized.getPolicyComponents());
+        for (Map.Entry<QName, String> attribute : policy.getAttributes().entrySet())
+        {
+            addAttribute(attribute.getKey(), attribute.getValue());
+        }
+        List<List<Assertion>> list = new ArrayList<List<Assertion>>();
+        for (Iterator<List<Assertion>> iterator = normalized.getAlternatives(registry); iterator.hasNext();)
+        {
+            list.add(Collections.unmodifiableList(new ArrayList<Assertion>(iterator.next())));
+        }
+        alternatives = Collections.unmodifiableList(list);
+        checks = plan(list);
+    }
+
+    /**
+     * @param policy
+     * @param registry
+     * @return the policy frozen, or the policy itself if it is null or already frozen
+     */
+    public static Policy freeze(Policy policy, PolicyRegistry registry)
+    {
+        return policy == null || policy instanceof FrozenPolicy ? policy : new FrozenPolicy(policy, registry);
+    }
+
+    /**
+     * @return the number of alternatives
+     */
+    public int getAlternativeCount()
+    {
+        return alternatives.size();
+    }
+
+    /**
+     * Checks a message's assertions the way {@link AssertionInfoMap#checkEffectivePolicy(Policy)} does: an
+     * alternative is satisfied if each of its assertions, and each assertion of every alternative of a nested policy,
+     * is asserted or optional.
+     * 
+     * @param aim the message's assertions
+     * @return true if any alternative is satisfied
+     */
+    public boolean isSatisfiedBy(AssertionInfoMap aim)
+    {
+        for (List<Check> alternative : checks)
+        {
+            if (isSatisfied(alternative, aim))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.neethi.Policy#getAlternatives()
+     */
+    @Override
+    public Iterator<List<Assertion>> getAlternatives()
+    {
+        return alternatives.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.neethi.Policy#getAlternatives(org.apache.neethi.PolicyRegistry)
+     */
+    @Override
+    public Iterator<List<Assertion>> getAlternatives(PolicyRegistry registry)
+    {
+        return alternatives.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.neethi.Policy#normalize(boolean)
+     */
+    @Override
+    public Policy normalize(boolean deep)
+    {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.neethi.Policy#normalize(org.apache.neethi.PolicyRegistry, boolean)
+     */
+    @Override
+    public Policy normalize(PolicyRegistry registry, boolean deep)
+    {
+        return this;
+    }
+
+    private static List<List<Check>> plan(Iterable<List<Assertion>> alternatives)
+    {
+        List<List<Check>> plan = new ArrayList<List<Check>>();
+        for (List<Assertion> alternative : alternatives)
+        {
+            List<Check> list = new ArrayList<Check>(alternative.size());
+            for (Assertion assertion : alternative)
+            {
+                list.add(new Check(assertion));
+            }
+            plan.add(list);
+        }
+        return plan;
+    }
+
+    private static boolean isSatisfied(List<Check> alternative, AssertionInfoMap aim)
+    {
+        for (Check check : alternative)
+        {
+            if (!check.isSatisfied(aim))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One assertion of an alternative, with the alternatives of its nested policy, if it has one.  The
+     * WS-SecurityPolicy models build their nested policy afresh on each call; the assertions they keep as fields
+     * come back the same each time, and the ones they make up on the fly are matched by name and
+     * {@link Assertion#equal(org.apache.neethi.PolicyComponent)}, as AssertionInfoMap does, so building it once here
+     * gives the same answers.
+     */
+    private static final class Check
+    {
+
+        private final Assertion assertion;
+
+        private final List<List<Check>> nested;
+
+        Check(Assertion assertion)
+        {
+            this.assertion = assertion;
+            List<List<Check>> list = Collections.emptyList();
+            if (assertion instanceof PolicyContainingAssertion)
+            {
+                Policy policy = ((PolicyContainingAssertion)assertion).getPolicy();
+                if (policy != null)
+                {
+                    List<List<Assertion>> alternatives = new ArrayList<List<Assertion>>();
+                    for (Iterator<List<Assertion>> iterator = policy.getAlternatives(); iterator.hasNext();)
+                    {
+                        alternatives.add(iterator.next());
+                    }
+                    list = plan(alternatives);
+                }
+            }
+            nested = list;
+        }
+
+        boolean isSatisfied(AssertionInfoMap aim)
+        {
+            if (!isAsserted(aim))
+            {
+                return false;
+            }
+            // every nested alternative, not just one, as AssertionInfoMap.supportsAlternative has it
+            for (List<Check> alternative : nested)
+            {
+                if (!FrozenPolicy.isSatisfied(alternative, aim))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isAsserted(AssertionInfoMap aim)
+        {
+            if (assertion.isOptional())
+            {
+                return true;
+            }
+            if (assertion instanceof PolicyAssertion)
+            {
+                return ((PolicyAssertion)assertion).isAsserted(aim);
+            }
+            Collection<AssertionInfo> infos = aim.getAssertionInfo(assertion.getName());
+            if (infos != null)
+            {
+                for (AssertionInfo info : infos)
+                {
+                    if (!info.isAsserted() && info.getAssertion().equal(assertion))
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.policy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.service.model.BindingFaultInfo;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.ws.policy.EffectivePolicy;
+import org.apache.cxf.ws.policy.PolicyEngine;
+import org.apache.neethi.PolicyRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <p>
+ * Works out the effective WS-Policy of every operation of an endpoint or client, in each direction and for each fault,
+ * when the endpoint or client is created, and hands the policy engine frozen copies (see {@link FrozenPolicy},
+ * {@link FrozenEffectivePolicy} and {@link FrozenEndpointPolicy}).  Left to itself the engine computes these lazily
+ * and caches them, but the per-message verification still normalizes the whole WS-SecurityPolicy tree of
+ * TutorialService.wsdl on every message, and reads the endpoint policy under a lock.  The feature also adds
+ * {@link FrozenPolicyVerificationInterceptor}, which checks each message against the frozen form in place of CXF's
+ * verification interceptors.
+ * </p>
+ * <p>
+ * Add it to an endpoint or client as a jaxws:feature.  Startup fails if a policy cannot be computed, rather than the
+ * first message that needs it.
+ * </p>
+ */
+@ManagedResource(description = "Effective policies frozen at endpoint startup")
+public class FrozenPolicyFeature extends AbstractFeature
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private boolean enabled = true;
+
+    private final AtomicInteger frozenCount = new AtomicInteger();
+
+    private final AtomicLong freezeMillis = new AtomicLong();
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.feature.AbstractFeature#initializeProvider(org.apache.cxf.interceptor.InterceptorProvider,
+     *      org.apache.cxf.Bus)
+     */
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus)
+    {
+        if (getEngine(bus) != null)
+        {
+            provider.getInInterceptors().add(FrozenPolicyVerificationInterceptor.IN);
+            provider.getOutInterceptors().add(FrozenPolicyVerificationInterceptor.OUT);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.feature.AbstractFeature#initialize(org.apache.cxf.endpoint.Server, org.apache.cxf.Bus)
+     */
+    @Override
+    public void initialize(Server server, Bus bus)
+    {
+        super.initialize(server, bus);
+        PolicyEngine engine = getEngine(bus);
+        if (engine != null)
+        {
+            long start = System.currentTimeMillis();
+            EndpointInfo endpoint = server.getEndpoint().getEndpointInfo();
+            Destination destination = server.getDestination();
+            PolicyRegistry registry = engine.getRegistry();
+            int count = 0;
+            for (BindingOperationInfo operation : getOperations(endpoint))
+            {
+                engine.setEffectiveServerRequestPolicy(endpoint, operation, freeze(engine
+                        .getEffectiveServerRequestPolicy(endpoint, operation), registry));
+                engine.setEffectiveServerResponsePolicy(endpoint, operation, freeze(engine
+                        .getEffectiveServerResponsePolicy(endpoint, operation, destination), registry));
+                count += 2;
+                for (BindingFaultInfo fault : operation.getFaults())
+                {
+                    engine.setEffectiveServerFaultPolicy(endpoint, fault, freeze(engine.getEffectiveServerFaultPolicy(
+                            endpoint, fault, destination), registry));
+                    count++;
+                }
+            }
+            engine.setServerEndpointPolicy(endpoint, new FrozenEndpointPolicy(engine.getServerEndpointPolicy(endpoint,
+                    destination), registry));
+            frozen(endpoint, count + 1, start);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.feature.AbstractFeature#initialize(org.apache.cxf.endpoint.Client, org.apache.cxf.Bus)
+     */
+    @Override
+    public void initialize(Client client, Bus bus)
+    {
+        super.initialize(client, bus);
+        PolicyEngine engine = getEngine(bus);
+        if (engine != null)
+        {
+            long start = System.currentTimeMillis();
+            EndpointInfo endpoint = client.getEndpoint().getEndpointInfo();
+            Conduit conduit = client.getConduit();
+            PolicyRegistry registry = engine.getRegistry();
+            int count = 0;
+            for (BindingOperationInfo operation : getOperations(endpoint))
+            {
+                engine.setEffectiveClientRequestPolicy(endpoint, operation, freeze(engine
+                        .getEffectiveClientRequestPolicy(endpoint, operation, conduit), registry));
+                engine.setEffectiveClientResponsePolicy(endpoint, operation, freeze(engine
+                        .getEffectiveClientResponsePolicy(endpoint, operation), registry));
+                count += 2;
+                for (BindingFaultInfo fault : operation.getFaults())
+                {
+                    engine.setEffectiveClientFaultPolicy(endpoint, fault, freeze(engine.getEffectiveClientFaultPolicy(
+                            endpoint, fault), registry));
+                    count++;
+                }
+            }
+            engine.setClientEndpointPolicy(endpoint, new FrozenEndpointPolicy(engine.getClientEndpointPolicy(endpoint,
+                    conduit), registry));
+            frozen(endpoint, count + 1, start);
+        }
+    }
+
+    private PolicyEngine getEngine(Bus bus)
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+        PolicyEngine engine = bus.getExtension(PolicyEngine.class);
+        return engine != null && engine.isEnabled() ? engine : null;
+    }
+
+    /**
+     * @return the binding operations, plus the unwrapped form of each wrapped one, since messages may refer to either
+     */
+    private static Collection<BindingOperationInfo> getOperations(EndpointInfo endpoint)
+    {
+        List<BindingOperationInfo> operations = new ArrayList<BindingOperationInfo>();
+        for (BindingOperationInfo operation : endpoint.getBinding().getOperations())
+        {
+            operations.add(operation);
+            if (operation.getUnwrappedOperation() != null && operation.getUnwrappedOperation() != operation)
+            {
+                operations.add(operation.getUnwrappedOperation());
+            }
+        }
+        return operations;
+    }
+
+    private static EffectivePolicy freeze(EffectivePolicy policy, PolicyRegistry registry)
+    {
+        return policy == null || policy instanceof FrozenEffectivePolicy ? policy : new FrozenEffectivePolicy(policy,
+                registry);
+    }
+
+    private void frozen(EndpointInfo endpoint, int count, long start)
+    {
+        long elapsed = System.currentTimeMillis() - start;
+        frozenCount.addAndGet(count);
+        freezeMillis.addAndGet(elapsed);
+        log.info("Froze {} policies for {} in {} ms", new Object[] { count, endpoint.getName(), elapsed });
+    }
+
+    /**
+     * @return the number of effective and endpoint policies frozen
+     */
+    @ManagedAttribute(description = "Effective and endpoint policies frozen")
+    public int getFrozenCount()
+    {
+        return frozenCount.get();
+    }
+
+    /**
+     * @return the time spent computing and freezing policies
+     */
+    @ManagedAttribute(description = "Milliseconds spent freezing policies")
+    public long getFreezeMillis()
+    {
+        return freezeMillis.get();
+    }
+
+    /**
+     * @return the enabled
+     */
+    @ManagedAttribute(description = "Whether policies are frozen at startup")
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @param enabled false to leave the policy engine to compute policies lazily, as it does by default
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.policy;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.binding.soap.SoapFault;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptor;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.ws.policy.AbstractPolicyInterceptor;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
+import org.apache.cxf.ws.policy.EffectivePolicy;
+import org.apache.cxf.ws.policy.PolicyEngine;
+import org.apache.cxf.ws.policy.PolicyException;
+import org.apache.cxf.ws.policy.PolicyVerificationInInterceptor;
+import org.apache.cxf.ws.policy.PolicyVerificationOutInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Stands in for CXF's {@link PolicyVerificationInInterceptor} and {@link PolicyVerificationOutInterceptor} when the
+ * message's effective policy is a {@link FrozenPolicy}: it checks the message's assertions with
+ * {@link FrozenPolicy#isSatisfiedBy(AssertionInfoMap)} and takes CXF's interceptor out of the message's chain.
+ * Otherwise it does nothing and leaves the check to CXF.
+ * </p>
+ * <p>
+ * If the policy is not satisfied, the check is handed back to {@link AssertionInfoMap#checkEffectivePolicy}, so the
+ * fault (inbound) or the logged failure (outbound) is exactly the one CXF would have produced.
+ * </p>
+ */
+public class FrozenPolicyVerificationInterceptor extends AbstractPolicyInterceptor
+{
+
+    /** Runs ahead of {@link PolicyVerificationInInterceptor}. */
+    public static final FrozenPolicyVerificationInterceptor IN = new FrozenPolicyVerificationInterceptor(
+            Phase.PRE_INVOKE, PolicyVerificationInInterceptor.INSTANCE);
+
+    /** Runs ahead of {@link PolicyVerificationOutInterceptor}. */
+    public static final FrozenPolicyVerificationInterceptor OUT = new FrozenPolicyVerificationInterceptor(
+            Phase.POST_STREAM, PolicyVerificationOutInterceptor.INSTANCE);
+
+    private static final QName ADDRESSING_HEADER_REQUIRED = new QName("http://www.w3.org/2005/08/addressing",
+            "MessageAddressingHeaderRequired");
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Interceptor<Message> replaced;
+
+    private final boolean inbound;
+
+    private FrozenPolicyVerificationInterceptor(String phase, PhaseInterceptor<Message> replaced)
+    {
+        super(FrozenPolicyVerificationInterceptor.class.getName() + "." + phase, phase);
+        this.replaced = replaced;
+        this.inbound = replaced == PolicyVerificationInInterceptor.INSTANCE;
+        addBefore(replaced.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.apache.cxf.ws.policy.AbstractPolicyInterceptor#handle(org.apache.cxf.message.Message)
+     */
+    @Override
+    protected void handle(Message message) throws PolicyException
+    {
+        AssertionInfoMap aim = message.get(AssertionInfoMap.class);
+        if (aim == null || MessageUtils.isPartialResponse(message))
+        {
+            return;
+        }
+        FrozenPolicy policy = getFrozenPolicy(message);
+        if (policy == null)
+        {
+            return;
+        }
+        message.getInterceptorChain().remove(replaced);
+        getTransportAssertions(message);
+        if (!policy.isSatisfiedBy(aim))
+        {
+            check(aim, policy);
+        }
+    }
+
+    private void check(AssertionInfoMap aim, FrozenPolicy policy) throws PolicyException
+    {
+        try
+        {
+            aim.checkEffectivePolicy(policy);
+        }
+        catch (PolicyException e)
+        {
+            if (!inbound)
+            {
+                // as PolicyVerificationOutInterceptor: reported, but not a fault
+                log.debug("The effective policy of an outbound message was not satisfied: {}", e.toString());
+            }
+            else if (e.getMessage().indexOf("Addressing") > -1)
+            {
+                throw new SoapFault("A required header representing a Message Addressing Property is not present",
+                        ADDRESSING_HEADER_REQUIRED);
+            }
+            else
+            {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the message's effective policy, looked up as CXF's verification interceptors do, if it is frozen
+     */
+    private FrozenPolicy getFrozenPolicy(Message message)
+    {
+        EffectivePolicy effective = message.get(EffectivePolicy.class);
+        if (effective == null && inbound)
+        {
+            Exchange exchange = message.getExchange();
+            BindingOperationInfo operation = exchange.get(BindingOperationInfo.class);
+            Endpoint endpoint = exchange.get(Endpoint.class);
+            Bus bus = exchange.get(Bus.class);
+            PolicyEngine engine = bus == null ? null : bus.getExtension(PolicyEngine.class);
+            if (operation == null || endpoint == null || engine == null)
+            {
+                return null;
+            }
+            effective = MessageUtils.isRequestor(message) ? engine.getEffectiveClientResponsePolicy(endpoint
+                    .getEndpointInfo(), operation) : engine.getEffectiveServerRequestPolicy(endpoint
+                    .getEndpointInfo(), operation);
+        }
+        return effective != null && effective.getPolicy() instanceof FrozenPolicy ? (FrozenPolicy)effective
+                .getPolicy() : null;
+    }
+
+}
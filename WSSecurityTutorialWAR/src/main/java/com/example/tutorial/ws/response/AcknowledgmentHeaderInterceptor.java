@@ -0,0 +1,71 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.response;
+
+import org.apache.cxf.binding.soap.SoapHeader;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.MessageContentsList;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.MessageInfo;
+import org.apache.cxf.service.model.MessagePartInfo;
+
+/**
+ * Out interceptor that replaces a {@link ResponseTemplates#acknowledgment()} header part with a copy of its
+ * pre-marshalled DOM, so the constant header is not run through JAXB on every response.  Any other acknowledgment
+ * value ({@link ResponseTemplates#isAcknowledgment(Object)} is false) is left alone and marshalled as usual.  The
+ * header is still signed along with the rest of the tutotial namespace headers, because signing happens later in the
+ * chain on the assembled SOAP document.
+ */
+public class AcknowledgmentHeaderInterceptor extends AbstractSoapInterceptor
+{
+
+    /**
+     * Runs after holders have been unwrapped into the contents list and before the SOAP headers are written.
+     */
+    public AcknowledgmentHeaderInterceptor()
+    {
+        super(Phase.POST_LOGICAL);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.interceptor.Interceptor#handleMessage(org.apache.cxf.message.Message)
+     */
+    @Override
+    public void handleMessage(SoapMessage message) throws Fault
+    {
+        if (!MessageUtils.isOutbound(message) || MessageUtils.isFault(message))
+        {
+            return;
+        }
+        BindingOperationInfo bop = message.getExchange().get(BindingOperationInfo.class);
+        MessageContentsList contents = MessageContentsList.getContentsList(message);
+        if (bop == null || contents == null)
+        {
+            return;
+        }
+        MessageInfo output = bop.getOperationInfo().getOutput();
+        if (output == null)
+        {
+            return;
+        }
+        for (MessagePartInfo part : output.getMessageParts())
+        {
+            if (ResponseTemplates.ACKNOWLEDGMENT_QNAME.equals(part.getConcreteName()) && contents.hasValue(part)
+                    && ResponseTemplates.isAcknowledgment(contents.get(part)))
+            {
+                contents.remove(part);
+                message.getHeaders().add(new SoapHeader(ResponseTemplates.ACKNOWLEDGMENT_QNAME,
+                        ResponseTemplates.acknowledgmentElement()));
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.response;
+
+import java.util.Calendar;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * <p>
+ * The constant parts of every successful response, built once.  The acknowledgment header never changes, so we keep a
+ * DOM rendering of it; {@link AcknowledgmentHeaderInterceptor} writes a copy of that DOM straight into the SOAP header
+ * instead of marshalling the object again for every response.  Only the server date varies per response.
+ * </p>
+ * <p>
+ * {@link #acknowledgment()} returns a new object each time, since the generated class is mutable and callers may hold
+ * on to it.  A DOM is not safe to read from several threads at once (Xerces may update the owner document while
+ * cloning), so each thread copies from its own template, imported once from the master under a lock.
+ * </p>
+ */
+public final class ResponseTemplates
+{
+
+    /**
+     * Response code for a successful request.
+     */
+    public static final String SUCCESS_CODE = "00000";
+
+    /**
+     * Response message for a successful request.
+     */
+    public static final String SUCCESS_MESSAGE = "SUCCESS!";
+
+    /**
+     * The text of the acknowledgment header.
+     */
+    public static final String ACKNOWLEDGMENT_MESSAGE = "WE ACKNOWLEDGE!";
+
+    /**
+     * Element name of the acknowledgment header.
+     */
+    public static final QName ACKNOWLEDGMENT_QNAME = new QName("http://example.com/tutotial/", "message-acknowledgment");
+
+    private static Element acknowledgmentElement;
+
+    private static final ThreadLocal<Element> threadTemplate = new ThreadLocal<Element>()
+    {
+        @Override
+        protected Element initialValue()
+        {
+            return importAcknowledgment();
+        }
+    };
+
+    private ResponseTemplates()
+    {
+    }
+
+    /**
+     * @return a new acknowledgment header
+     */
+    public static MessageAcknowledgment acknowledgment()
+    {
+        MessageAcknowledgment acknowledgment = new MessageAcknowledgment();
+        acknowledgment.setSomeMessage(ACKNOWLEDGMENT_MESSAGE);
+        return acknowledgment;
+    }
+
+    /**
+     * @param value
+     * @return whether value is an acknowledgment as {@link #acknowledgment()} returns it, which
+     *         {@link #acknowledgmentElement()} renders
+     */
+    public static boolean isAcknowledgment(Object value)
+    {
+        if (value == null || value.getClass() != MessageAcknowledgment.class)
+        {
+            return false;
+        }
+        MessageAcknowledgment acknowledgment = (MessageAcknowledgment)value;
+        return ACKNOWLEDGMENT_MESSAGE.equals(acknowledgment.getSomeMessage())
+                && acknowledgment.getOtherAttributes().isEmpty();
+    }
+
+    /**
+     * @param serverDate
+     * @return a new successful response structure stamped with the given date
+     */
+    public static ResponseStructure successResponse(Calendar serverDate)
+    {
+        ResponseStructure responseStructure = new ResponseStructure();
+        responseStructure.setResponseCode(SUCCESS_CODE);
+        responseStructure.setResponseMessage(SUCCESS_MESSAGE);
+        responseStructure.setServerDate(serverDate);
+        return responseStructure;
+    }
+
+    /**
+     * @return a fresh copy of the pre-marshalled acknowledgment header, ready to be added to a message
+     */
+    public static Element acknowledgmentElement()
+    {
+        return (Element)threadTemplate.get().cloneNode(true);
+    }
+
+    /**
+     * @return a copy of the master template in a document of its own
+     */
+    private static synchronized Element importAcknowledgment()
+    {
+        try
+        {
+            if (acknowledgmentElement == null)
+            {
+                Document document = newDocument();
+                JAXBContext.newInstance(MessageAcknowledgment.class).createMarshaller().marshal(acknowledgment(),
+                        document);
+                acknowledgmentElement = document.getDocumentElement();
+            }
+            Document document = newDocument();
+            Element copy = (Element)document.importNode(acknowledgmentElement, true);
+            document.appendChild(copy);
+            return copy;
+        }
+        catch (JAXBException e)
+        {
+            throw new IllegalStateException("Cannot marshal acknowledgment template", e);
+        }
+        catch (ParserConfigurationException e)
+        {
+            throw new IllegalStateException("Cannot marshal acknowledgment template", e);
+        }
+    }
+
+    private static Document newDocument() throws ParserConfigurationException
+    {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().newDocument();
+    }
+
+}
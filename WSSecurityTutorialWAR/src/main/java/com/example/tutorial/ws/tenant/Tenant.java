@@ -0,0 +1,150 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A calling (partner) system, identified by the system-identifier it sends in the message-source header.  Holds the
+ * certificates the system signs with, its in-flight request quota, and the name of the {@link
+ * com.example.tutorial.ws.delivery.DeliverySink} bean its messages are delivered to.  Tenants are built by {@link
+ * TenantRegistry}; everything but the quota counters is immutable.
+ */
+public class Tenant
+{
+
+    private final String systemIdentifier;
+
+    private final List<X509Certificate> certificates;
+
+    private final int maxInFlight;
+
+    private final String handler;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param systemIdentifier
+     * @param certificates the certificates this system signs with (more than one during a rollover)
+     * @param maxInFlight the most requests from this system that may be in progress at once; 0 for no limit
+     * @param handler the DeliverySink bean name for this system's messages, or null for the default sink
+     */
+    public Tenant(String systemIdentifier, List<X509Certificate> certificates, int maxInFlight, String handler)
+    {
+        this.systemIdentifier = systemIdentifier;
+        this.certificates = Collections.unmodifiableList(certificates);
+        this.maxInFlight = maxInFlight;
+        this.handler = handler;
+    }
+
+    /**
+     * Counts a request against the quota.
+     * 
+     * @return false, without counting it, if the system already has {@link #getMaxInFlight()} requests in progress
+     */
+    public boolean tryAcquire()
+    {
+        if (maxInFlight <= 0)
+        {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        for (;;)
+        {
+            int current = inFlight.get();
+            if (current >= maxInFlight)
+            {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1))
+            {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a request counted by {@link #tryAcquire()}.
+     */
+    public void release()
+    {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @param certificate
+     * @return true if the certificate is one of this system's
+     */
+    public boolean owns(X509Certificate certificate)
+    {
+        return certificates.contains(certificate);
+    }
+
+    /**
+     * @return the systemIdentifier
+     */
+    public String getSystemIdentifier()
+    {
+        return systemIdentifier;
+    }
+
+    /**
+     * @return the certificates
+     */
+    public List<X509Certificate> getCertificates()
+    {
+        return certificates;
+    }
+
+    /**
+     * @return the maxInFlight
+     */
+    public int getMaxInFlight()
+    {
+        return maxInFlight;
+    }
+
+    /**
+     * @return the handler
+     */
+    public String getHandler()
+    {
+        return handler;
+    }
+
+    /**
+     * @return the number of requests from this system currently in progress
+     */
+    public int getInFlight()
+    {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of requests turned away by the quota
+     */
+    public long getRejectedCount()
+    {
+        return rejected.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Tenant[" + systemIdentifier + "]";
+    }
+
+}
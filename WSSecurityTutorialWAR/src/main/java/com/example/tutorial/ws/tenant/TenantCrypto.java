@@ -0,0 +1,230 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.apache.ws.security.WSSecurityException;
+import org.apache.ws.security.components.crypto.CredentialException;
+import org.apache.ws.security.components.crypto.CryptoType;
+import org.apache.ws.security.components.crypto.Merlin;
+
+/**
+ * <p>
+ * A Merlin crypto (configured through {@link TenantCryptoProperties}, holding the service's own key) that also knows every
+ * {@link TenantRegistry} certificate.  Plain Merlin answers "which certificate has this issuer and serial" and "is this
+ * certificate trusted" by walking every alias in its keystores on each request, which is fine for the two entries in
+ * the service keystore but not for thousands of partner certificates.  Here the tenant certificates are indexed once,
+ * by issuer/serial, subject, SKI and SHA-1 thumbprint, and only lookups that miss the index fall through to Merlin.
+ * </p>
+ * <p>
+ * A tenant certificate is trusted because it is registered, not through a certificate path; signatures are still
+ * checked, and {@link TenantRoutingFeature} checks that the signer is the system named in the message-source header.
+ * </p>
+ */
+public class TenantCrypto extends Merlin
+{
+
+    private final Map<IssuerSerial, X509Certificate> byIssuerSerial = new HashMap<IssuerSerial, X509Certificate>();
+
+    private final Map<X500Principal, List<X509Certificate>> bySubject = new HashMap<X500Principal, List<X509Certificate>>();
+
+    private final Map<ByteBuffer, X509Certificate> bySki = new HashMap<ByteBuffer, X509Certificate>();
+
+    private final Map<ByteBuffer, X509Certificate> byThumbprint = new HashMap<ByteBuffer, X509Certificate>();
+
+    private final TenantRegistry registry;
+
+    /**
+     * Called reflectively by WSS4J's CryptoFactory.
+     * 
+     * @param properties a {@link TenantCryptoProperties}
+     * @param loader
+     * @throws CredentialException
+     * @throws IOException
+     * @throws WSSecurityException
+     */
+    public TenantCrypto(Properties properties, ClassLoader loader) throws CredentialException, IOException,
+            WSSecurityException
+    {
+        super(tenantProperties(properties), loader);
+        this.registry = ((TenantCryptoProperties)properties).getRegistry();
+        for (Tenant tenant : registry.getTenants())
+        {
+            for (X509Certificate certificate : tenant.getCertificates())
+            {
+                byIssuerSerial.put(new IssuerSerial(certificate.getIssuerX500Principal(), certificate
+                        .getSerialNumber()), certificate);
+                List<X509Certificate> subjectCertificates = bySubject.get(certificate.getSubjectX500Principal());
+                if (subjectCertificates == null)
+                {
+                    subjectCertificates = new ArrayList<X509Certificate>(1);
+                    bySubject.put(certificate.getSubjectX500Principal(), subjectCertificates);
+                }
+                subjectCertificates.add(certificate);
+                if (certificate.getVersion() >= 3)
+                {
+                    // WSS4J can't reference a version 1 certificate by SKI.
+                    bySki.put(ByteBuffer.wrap(getSKIBytesFromCert(certificate)), certificate);
+                }
+                byThumbprint.put(ByteBuffer.wrap(thumbprint(certificate)), certificate);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.ws.security.components.crypto.Merlin#getX509Certificates(org.apache.ws.security.components.crypto.CryptoType)
+     */
+    @Override
+    public X509Certificate[] getX509Certificates(CryptoType cryptoType) throws WSSecurityException
+    {
+        X509Certificate[] found = null;
+        if (cryptoType != null && cryptoType.getType() != null)
+        {
+            switch (cryptoType.getType())
+            {
+                case ISSUER_SERIAL:
+                    X500Principal issuer = principal(cryptoType.getIssuer());
+                    if (issuer != null && cryptoType.getSerial() != null)
+                    {
+                        found = single(byIssuerSerial.get(new IssuerSerial(issuer, cryptoType.getSerial())));
+                    }
+                    break;
+                case SUBJECT_DN:
+                    X500Principal subject = principal(cryptoType.getSubjectDN());
+                    List<X509Certificate> subjectCertificates = subject == null ? null : bySubject.get(subject);
+                    if (subjectCertificates != null)
+                    {
+                        found = subjectCertificates.toArray(new X509Certificate[subjectCertificates.size()]);
+                    }
+                    break;
+                case SKI_BYTES:
+                    found = cryptoType.getBytes() == null ? null : single(bySki.get(ByteBuffer.wrap(cryptoType
+                            .getBytes())));
+                    break;
+                case THUMBPRINT_SHA1:
+                    found = cryptoType.getBytes() == null ? null : single(byThumbprint.get(ByteBuffer.wrap(cryptoType
+                            .getBytes())));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return found != null ? found : super.getX509Certificates(cryptoType);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.ws.security.components.crypto.Merlin#verifyTrust(java.security.cert.X509Certificate[])
+     */
+    @Override
+    public boolean verifyTrust(X509Certificate[] certs) throws WSSecurityException
+    {
+        if (certs != null && certs.length > 0 && registry.lookup(certs[0]) != null)
+        {
+            return true;
+        }
+        return super.verifyTrust(certs);
+    }
+
+    private static TenantCryptoProperties tenantProperties(Properties properties)
+    {
+        if (!(properties instanceof TenantCryptoProperties))
+        {
+            throw new IllegalArgumentException(TenantCrypto.class.getSimpleName() + " must be configured with "
+                    + TenantCryptoProperties.class.getSimpleName());
+        }
+        return (TenantCryptoProperties)properties;
+    }
+
+    private static X509Certificate[] single(X509Certificate certificate)
+    {
+        return certificate == null ? null : new X509Certificate[] { certificate };
+    }
+
+    private static X500Principal principal(String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+        try
+        {
+            return new X500Principal(name);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Not a name we can parse; let Merlin try.
+            return null;
+        }
+    }
+
+    private static byte[] thumbprint(X509Certificate certificate) throws WSSecurityException
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-1").digest(certificate.getEncoded());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new WSSecurityException(WSSecurityException.FAILURE, "noSHA1availabe", null, e);
+        }
+        catch (CertificateEncodingException e)
+        {
+            throw new WSSecurityException(WSSecurityException.SECURITY_TOKEN_UNAVAILABLE, "encodeError", null, e);
+        }
+    }
+
+    /**
+     * Hash key for the issuer/serial index; X500Principal equality ignores formatting differences in the name.
+     */
+    private static final class IssuerSerial
+    {
+
+        private final X500Principal issuer;
+
+        private final BigInteger serial;
+
+        IssuerSerial(X500Principal issuer, BigInteger serial)
+        {
+            this.issuer = issuer;
+            this.serial = serial;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * issuer.hashCode() + serial.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof IssuerSerial))
+            {
+                return false;
+            }
+            IssuerSerial other = (IssuerSerial)obj;
+            return serial.equals(other.serial) && issuer.equals(other.issuer);
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import java.util.Properties;
+
+/**
+ * WS-Security crypto properties that select {@link TenantCrypto} and carry the {@link TenantRegistry} it indexes.
+ * WSS4J builds its crypto reflectively from the properties it is given, so this is how the registry reaches it.  Use
+ * it in place of the plain keystore properties for ws-security.signature.properties and
+ * ws-security.encryption.properties.
+ */
+public class TenantCryptoProperties extends Properties
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String CRYPTO_PROVIDER = "org.apache.ws.security.crypto.provider";
+
+    private final transient TenantRegistry registry;
+
+    /**
+     * @param keystoreProperties the Merlin properties for the service keystore
+     * @param registry the tenants
+     */
+    public TenantCryptoProperties(Properties keystoreProperties, TenantRegistry registry)
+    {
+        putAll(keystoreProperties);
+        setProperty(CRYPTO_PROVIDER, TenantCrypto.class.getName());
+        this.registry = registry;
+    }
+
+    /**
+     * @return the registry
+     */
+    public TenantRegistry getRegistry()
+    {
+        return registry;
+    }
+
+}
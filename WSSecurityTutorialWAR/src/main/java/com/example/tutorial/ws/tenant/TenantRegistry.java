@@ -0,0 +1,314 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <p>
+ * The calling systems we know about, each with its own keystore of signing certificates, keyed by the
+ * system-identifier they send in the message-source header.
+ * </p>
+ * <p>
+ * Tenants are listed in {@link #CATALOG_FILE} in {@link #directory}, one group of entries per system:
+ * </p>
+ * 
+ * <pre>
+ * partner-a.keystore=partner-a.jks     (required; relative to the directory, holds the system's certificate(s))
+ * partner-a.maxInFlight=20             (optional; defaults to defaultMaxInFlight, 0 for no limit)
+ * partner-a.handler=partnerASink       (optional; a DeliverySink bean name, see TenantRoutingDeliverySink)
+ * </pre>
+ * <p>
+ * Everything is loaded once at startup into hash tables keyed by system identifier and by certificate, so the lookups
+ * made for each request cost the same with ten tenants as with ten thousand.  If there is no catalog the registry is
+ * empty and every caller is handled as before, against the shared service keystore.
+ * </p>
+ */
+@ManagedResource(objectName = "com.example.tutorial:type=TenantRegistry", description = "Calling systems")
+public class TenantRegistry implements InitializingBean
+{
+
+    /**
+     * The name of the catalog file in {@link #directory}.
+     */
+    public static final String CATALOG_FILE = "tenants.properties";
+
+    private static final String KEYSTORE_SUFFIX = ".keystore";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private String directory;
+
+    private String keystoreType = "jks";
+
+    private String keystorePassword;
+
+    private int defaultMaxInFlight;
+
+    private volatile boolean required;
+
+    private Map<String, Tenant> bySystemIdentifier = Collections.emptyMap();
+
+    private Map<X509Certificate, Tenant> byCertificate = Collections.emptyMap();
+
+    private long loadMillis;
+
+    /**
+     * Loads the catalog and every tenant keystore it names.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        File catalogFile = new File(directory, CATALOG_FILE);
+        if (!catalogFile.isFile())
+        {
+            log.info("No tenant catalog at {}; all callers use the shared keystore.", catalogFile);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Properties catalog = new Properties();
+        InputStream in = new FileInputStream(catalogFile);
+        try
+        {
+            catalog.load(in);
+        }
+        finally
+        {
+            in.close();
+        }
+
+        List<Tenant> tenants = new ArrayList<Tenant>();
+        for (String key : catalog.stringPropertyNames())
+        {
+            if (key.endsWith(KEYSTORE_SUFFIX))
+            {
+                String systemIdentifier = key.substring(0, key.length() - KEYSTORE_SUFFIX.length());
+                tenants.add(loadTenant(systemIdentifier, catalog));
+            }
+        }
+        index(tenants);
+        loadMillis = System.currentTimeMillis() - start;
+        log.info("Loaded {} tenants with {} certificates in {} ms", new Object[] { bySystemIdentifier.size(),
+                byCertificate.size(), loadMillis });
+    }
+
+    private Tenant loadTenant(String systemIdentifier, Properties catalog) throws IOException,
+            GeneralSecurityException
+    {
+        File keystoreFile = new File(catalog.getProperty(systemIdentifier + KEYSTORE_SUFFIX).trim());
+        if (!keystoreFile.isAbsolute())
+        {
+            keystoreFile = new File(directory, keystoreFile.getPath());
+        }
+        KeyStore keystore = KeyStore.getInstance(keystoreType);
+        InputStream in = new FileInputStream(keystoreFile);
+        try
+        {
+            keystore.load(in, StringUtils.isEmpty(keystorePassword) ? null : keystorePassword.toCharArray());
+        }
+        finally
+        {
+            in.close();
+        }
+        List<X509Certificate> certificates = new ArrayList<X509Certificate>();
+        for (Enumeration<String> aliases = keystore.aliases(); aliases.hasMoreElements();)
+        {
+            Certificate certificate = keystore.getCertificate(aliases.nextElement());
+            if (certificate instanceof X509Certificate)
+            {
+                certificates.add((X509Certificate)certificate);
+            }
+        }
+        if (certificates.isEmpty())
+        {
+            throw new IllegalStateException("Tenant " + systemIdentifier + " has no certificates in " + keystoreFile);
+        }
+        String maxInFlight = catalog.getProperty(systemIdentifier + ".maxInFlight");
+        return new Tenant(systemIdentifier, certificates, StringUtils.isBlank(maxInFlight) ? defaultMaxInFlight
+                : Integer.parseInt(maxInFlight.trim()), StringUtils.trimToNull(catalog.getProperty(systemIdentifier
+                + ".handler")));
+    }
+
+    /**
+     * Builds the lookup tables.  Package-private so tests can load tenants without writing a catalog.
+     * 
+     * @param tenants
+     */
+    void index(Collection<Tenant> tenants)
+    {
+        Map<String, Tenant> systems = new HashMap<String, Tenant>(tenants.size() * 2);
+        Map<X509Certificate, Tenant> certificates = new HashMap<X509Certificate, Tenant>(tenants.size() * 2);
+        for (Tenant tenant : tenants)
+        {
+            systems.put(tenant.getSystemIdentifier(), tenant);
+            for (X509Certificate certificate : tenant.getCertificates())
+            {
+                Tenant other = certificates.put(certificate, tenant);
+                if (other != null && other != tenant)
+                {
+                    throw new IllegalStateException("Certificate " + certificate.getSubjectX500Principal()
+                            + " is registered to both " + other.getSystemIdentifier() + " and "
+                            + tenant.getSystemIdentifier());
+                }
+            }
+        }
+        bySystemIdentifier = systems;
+        byCertificate = certificates;
+    }
+
+    /**
+     * @param systemIdentifier
+     * @return the tenant with this system identifier, or null
+     */
+    public Tenant lookup(String systemIdentifier)
+    {
+        return systemIdentifier == null ? null : bySystemIdentifier.get(systemIdentifier);
+    }
+
+    /**
+     * @param certificate
+     * @return the tenant this signing certificate belongs to, or null
+     */
+    public Tenant lookup(X509Certificate certificate)
+    {
+        return certificate == null ? null : byCertificate.get(certificate);
+    }
+
+    /**
+     * @return all tenants
+     */
+    public Collection<Tenant> getTenants()
+    {
+        return Collections.unmodifiableCollection(bySystemIdentifier.values());
+    }
+
+    /**
+     * @return the number of tenants loaded
+     */
+    @ManagedAttribute(description = "Tenants loaded")
+    public int getTenantCount()
+    {
+        return bySystemIdentifier.size();
+    }
+
+    /**
+     * @return the number of tenant certificates loaded
+     */
+    @ManagedAttribute(description = "Tenant certificates loaded")
+    public int getCertificateCount()
+    {
+        return byCertificate.size();
+    }
+
+    /**
+     * @return how long loading the catalog and keystores took
+     */
+    @ManagedAttribute(description = "Time taken to load the tenants in milliseconds")
+    public long getLoadMillis()
+    {
+        return loadMillis;
+    }
+
+    /**
+     * @return the total number of requests in progress across all tenants
+     */
+    @ManagedAttribute(description = "Requests in progress across all tenants")
+    public int getInFlight()
+    {
+        int total = 0;
+        for (Tenant tenant : bySystemIdentifier.values())
+        {
+            total += tenant.getInFlight();
+        }
+        return total;
+    }
+
+    /**
+     * @return the total number of requests turned away by tenant quotas
+     */
+    @ManagedAttribute(description = "Requests rejected by tenant quotas")
+    public long getQuotaRejectedCount()
+    {
+        long total = 0;
+        for (Tenant tenant : bySystemIdentifier.values())
+        {
+            total += tenant.getRejectedCount();
+        }
+        return total;
+    }
+
+    /**
+     * @return true if callers whose system identifier is not registered are rejected
+     */
+    @ManagedAttribute(description = "Whether unregistered systems are rejected")
+    public boolean isRequired()
+    {
+        return required;
+    }
+
+    /**
+     * @param directory the directory holding the catalog and (by default) the tenant keystores
+     */
+    public void setDirectory(String directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * @param keystoreType the type of the tenant keystores
+     */
+    public void setKeystoreType(String keystoreType)
+    {
+        this.keystoreType = keystoreType;
+    }
+
+    /**
+     * @param keystorePassword the tenant keystore password; may be empty, since the keystores only hold certificates
+     */
+    public void setKeystorePassword(String keystorePassword)
+    {
+        this.keystorePassword = keystorePassword;
+    }
+
+    /**
+     * @param defaultMaxInFlight the quota for tenants that don't set maxInFlight; 0 for no limit
+     */
+    public void setDefaultMaxInFlight(int defaultMaxInFlight)
+    {
+        this.defaultMaxInFlight = defaultMaxInFlight;
+    }
+
+    /**
+     * @param required whether to reject callers whose system identifier is not registered
+     */
+    public void setRequired(boolean required)
+    {
+        this.required = required;
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.example.tutorial.ws.delivery.DeliveryEvent;
+import com.example.tutorial.ws.delivery.DeliverySink;
+import com.example.tutorial.ws.delivery.PartialDeliveryException;
+
+/**
+ * A {@link DeliverySink} that hands each event to its tenant's handler: the DeliverySink bean named by the tenant's
+ * handler entry in the {@link TenantRegistry} catalog, or {@link #defaultSink} for tenants without one and for
+ * unregistered systems.  Handler names are resolved when the context starts, so a misspelt one fails the deployment
+ * rather than the first delivery.  A batch is split by handler, keeping the events' order within each handler.  If a
+ * handler fails the others are still called, and a {@link PartialDeliveryException} names the events that were not
+ * delivered (all of the failing handler's, or those it names in a PartialDeliveryException of its own), so that the
+ * rest of the batch is counted as delivered.
+ */
+public class TenantRoutingDeliverySink implements DeliverySink, BeanFactoryAware, InitializingBean
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private TenantRegistry registry;
+
+    private DeliverySink defaultSink;
+
+    private BeanFactory beanFactory;
+
+    private Map<String, DeliverySink> handlers;
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.springframework.beans.factory.BeanFactoryAware#setBeanFactory(org.springframework.beans.factory.BeanFactory)
+     */
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException
+    {
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * Resolves every tenant's handler bean.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        Map<String, DeliverySink> resolved = new HashMap<String, DeliverySink>();
+        for (Tenant tenant : registry.getTenants())
+        {
+            String handler = tenant.getHandler();
+            if (handler != null && !resolved.containsKey(handler))
+            {
+                resolved.put(handler, beanFactory.getBean(handler, DeliverySink.class));
+            }
+        }
+        handlers = resolved;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see com.example.tutorial.ws.delivery.DeliverySink#deliver(java.util.List)
+     */
+    @Override
+    public void deliver(List<DeliveryEvent> batch) throws Exception
+    {
+        if (handlers.isEmpty())
+        {
+            defaultSink.deliver(batch);
+            return;
+        }
+        Map<DeliverySink, List<DeliveryEvent>> bySink = new LinkedHashMap<DeliverySink, List<DeliveryEvent>>();
+        for (DeliveryEvent event : batch)
+        {
+            DeliverySink sink = sinkFor(event);
+            List<DeliveryEvent> events = bySink.get(sink);
+            if (events == null)
+            {
+                events = new ArrayList<DeliveryEvent>();
+                bySink.put(sink, events);
+            }
+            events.add(event);
+        }
+        List<DeliveryEvent> failedEvents = new ArrayList<DeliveryEvent>();
+        Exception failure = null;
+        for (Map.Entry<DeliverySink, List<DeliveryEvent>> entry : bySink.entrySet())
+        {
+            try
+            {
+                entry.getKey().deliver(entry.getValue());
+            }
+            catch (PartialDeliveryException e)
+            {
+                failedEvents.addAll(e.getFailedEvents());
+                failure = firstOrLogged(failure, e);
+            }
+            catch (Exception e)
+            {
+                // Don't let one tenant's handler hold up the others' events.
+                failedEvents.addAll(entry.getValue());
+                failure = firstOrLogged(failure, e);
+            }
+        }
+        if (failure != null)
+        {
+            throw new PartialDeliveryException(failedEvents, failure);
+        }
+    }
+
+    private Exception firstOrLogged(Exception first, Exception next)
+    {
+        if (first == null)
+        {
+            return next;
+        }
+        log.error("Another tenant handler failed in the same batch", next);
+        return first;
+    }
+
+    private DeliverySink sinkFor(DeliveryEvent event)
+    {
+        Tenant tenant = registry.lookup(event.getMessageSource().getSystemIdentifier());
+        if (tenant == null || tenant.getHandler() == null)
+        {
+            return defaultSink;
+        }
+        return handlers.get(tenant.getHandler());
+    }
+
+    /**
+     * @param registry the registry
+     */
+    public void setRegistry(TenantRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * @param defaultSink the sink for systems without a handler of their own
+     */
+    public void setDefaultSink(DeliverySink defaultSink)
+    {
+        this.defaultSink = defaultSink;
+    }
+
+}
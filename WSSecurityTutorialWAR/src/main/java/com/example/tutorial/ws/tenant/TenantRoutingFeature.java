@@ -0,0 +1,289 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.namespace.QName;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.cxf.Bus;
+import org.apache.cxf.binding.soap.SoapFault;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.headers.Header;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.ws.security.WSSecurityEngineResult;
+import org.apache.ws.security.handler.WSHandlerConstants;
+import org.apache.ws.security.handler.WSHandlerResult;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.w3c.dom.Element;
+
+import com.example.tutorial.ws.executor.CryptoStageFeature;
+
+/**
+ * <p>
+ * Selects the {@link Tenant} for each request from the system-identifier attribute of the message-source header, which
+ * is signed but not encrypted and so can be read before any crypto work is done.  Selection happens before the
+ * WS-Security interceptor (and before {@link CryptoStageFeature}'s permit), so requests from unregistered systems (when
+ * the registry is required) and requests over a tenant's quota are turned away cheaply.
+ * </p>
+ * <p>
+ * Once WS-Security has verified the signature, the signing certificate must belong to the selected tenant; a caller
+ * cannot claim another system's identifier, and a registered certificate cannot be used under an unregistered one.
+ * The quota is held until the response has been sent.  The selected tenant is available from the exchange under
+ * {@code Tenant.class}.
+ * </p>
+ */
+@ManagedResource(description = "Tenant selection and quotas")
+public class TenantRoutingFeature extends AbstractFeature
+{
+
+    private static final QName MESSAGE_SOURCE = new QName("http://example.com/tutotial/", "message-source");
+
+    private static final String SYSTEM_IDENTIFIER = "system-identifier";
+
+    private static final String WSS4J_IN = "org.apache.cxf.ws.security.wss4j.PolicyBasedWSS4JInInterceptor";
+
+    private static final String CLAIMED_SYSTEM = TenantRoutingFeature.class.getName() + ".claimedSystem";
+
+    private static final String QUOTA_HELD = TenantRoutingFeature.class.getName() + ".quotaHeld";
+
+    private TenantRegistry registry;
+
+    private final AtomicLong selected = new AtomicLong();
+
+    private final AtomicLong unknownRejected = new AtomicLong();
+
+    private final AtomicLong quotaRejected = new AtomicLong();
+
+    private final AtomicLong signerRejected = new AtomicLong();
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.cxf.feature.AbstractFeature#initializeProvider(org.apache.cxf.interceptor.InterceptorProvider,
+     *      org.apache.cxf.Bus)
+     */
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus)
+    {
+        provider.getInInterceptors().add(new Select());
+        provider.getInInterceptors().add(new CheckSigner());
+        provider.getOutInterceptors().add(new Release());
+        provider.getOutFaultInterceptors().add(new Release());
+    }
+
+    private void select(SoapMessage message)
+    {
+        Header header = message.getHeader(MESSAGE_SOURCE);
+        String systemIdentifier = null;
+        if (header != null && header.getObject() instanceof Element)
+        {
+            systemIdentifier = StringUtils.trimToNull(((Element)header.getObject()).getAttribute(SYSTEM_IDENTIFIER));
+        }
+        if (systemIdentifier == null)
+        {
+            // Leave it to the service to report the missing header.
+            return;
+        }
+        Exchange exchange = message.getExchange();
+        exchange.put(CLAIMED_SYSTEM, systemIdentifier);
+        Tenant tenant = registry.lookup(systemIdentifier);
+        if (tenant == null)
+        {
+            if (registry.isRequired())
+            {
+                unknownRejected.incrementAndGet();
+                throw new SoapFault("Unknown system-identifier " + systemIdentifier, message.getVersion()
+                        .getSender());
+            }
+            return;
+        }
+        if (!tenant.tryAcquire())
+        {
+            quotaRejected.incrementAndGet();
+            throw new SoapFault("System unavailable: too many requests in progress for " + systemIdentifier, message
+                    .getVersion().getReceiver());
+        }
+        exchange.put(QUOTA_HELD, tenant);
+        exchange.put(Tenant.class, tenant);
+        selected.incrementAndGet();
+    }
+
+    private void checkSigner(SoapMessage message)
+    {
+        Exchange exchange = message.getExchange();
+        String claimedSystem = (String)exchange.get(CLAIMED_SYSTEM);
+        if (claimedSystem == null)
+        {
+            return;
+        }
+        Tenant tenant = exchange.get(Tenant.class);
+        X509Certificate signer = signingCertificate(message);
+        Tenant owner = registry.lookup(signer);
+        if (owner != tenant)
+        {
+            signerRejected.incrementAndGet();
+            throw new SoapFault("The signing certificate does not belong to system " + claimedSystem, message
+                    .getVersion().getSender());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static X509Certificate signingCertificate(Message message)
+    {
+        List<WSHandlerResult> results = (List<WSHandlerResult>)message.get(WSHandlerConstants.RECV_RESULTS);
+        if (results == null)
+        {
+            return null;
+        }
+        for (WSHandlerResult result : results)
+        {
+            for (WSSecurityEngineResult engineResult : result.getResults())
+            {
+                Object certificate = engineResult.get(WSSecurityEngineResult.TAG_X509_CERTIFICATE);
+                if (certificate instanceof X509Certificate
+                        && engineResult.get(WSSecurityEngineResult.TAG_SIGNATURE_VALUE) != null)
+                {
+                    return (X509Certificate)certificate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void release(Exchange exchange)
+    {
+        if (exchange == null)
+        {
+            return;
+        }
+        Tenant tenant = (Tenant)exchange.remove(QUOTA_HELD);
+        if (tenant != null)
+        {
+            tenant.release();
+        }
+    }
+
+    /**
+     * @return the number of requests matched to a registered tenant
+     */
+    @ManagedAttribute(description = "Requests matched to a registered tenant")
+    public long getSelectedCount()
+    {
+        return selected.get();
+    }
+
+    /**
+     * @return the number of requests rejected because their system is not registered
+     */
+    @ManagedAttribute(description = "Requests rejected as from an unregistered system")
+    public long getUnknownRejectedCount()
+    {
+        return unknownRejected.get();
+    }
+
+    /**
+     * @return the number of requests rejected by a tenant quota
+     */
+    @ManagedAttribute(description = "Requests rejected by a tenant quota")
+    public long getQuotaRejectedCount()
+    {
+        return quotaRejected.get();
+    }
+
+    /**
+     * @return the number of requests rejected because the signer was not the claimed system
+     */
+    @ManagedAttribute(description = "Requests rejected because the signer was not the claimed system")
+    public long getSignerRejectedCount()
+    {
+        return signerRejected.get();
+    }
+
+    /**
+     * @param registry the registry
+     */
+    public void setRegistry(TenantRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * Picks the tenant and takes its quota before any crypto work; gives the quota back if the chain unwinds.
+     */
+    private class Select extends AbstractSoapInterceptor
+    {
+
+        Select()
+        {
+            super(TenantRoutingFeature.class.getName() + ".Select", Phase.PRE_PROTOCOL);
+            addBefore(WSS4J_IN);
+            addBefore(CryptoStageFeature.class.getName() + ".Enter." + Phase.PRE_PROTOCOL);
+        }
+
+        @Override
+        public void handleMessage(SoapMessage message) throws Fault
+        {
+            select(message);
+        }
+
+        @Override
+        public void handleFault(SoapMessage message)
+        {
+            release(message.getExchange());
+        }
+
+    }
+
+    /**
+     * Checks the verified signer against the selected tenant.
+     */
+    private class CheckSigner extends AbstractSoapInterceptor
+    {
+
+        CheckSigner()
+        {
+            super(TenantRoutingFeature.class.getName() + ".CheckSigner", Phase.PRE_PROTOCOL);
+            addAfter(WSS4J_IN);
+        }
+
+        @Override
+        public void handleMessage(SoapMessage message) throws Fault
+        {
+            checkSigner(message);
+        }
+
+    }
+
+    /**
+     * Gives the quota back once the response (or fault) has been written.
+     */
+    private class Release extends AbstractPhaseInterceptor<Message>
+    {
+
+        Release()
+        {
+            super(TenantRoutingFeature.class.getName() + ".Release", Phase.SETUP_ENDING);
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault
+        {
+            release(message.getExchange());
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * A bounded, lock-free, multi-producer/single-consumer ring buffer.  Producers claim a slot by CAS on the tail and then
+ * publish into it; the single consumer reads slots in order, clearing each one before advancing the head so a
+ * producer can never overwrite an element that hasn't been taken.
+ * </p>
+ * <p>
+ * {@link #offer(Object)} never blocks: when the buffer is full it returns false and leaves backpressure to the caller.
+ * {@link #drainTo(List, int)} and {@link #poll()} must only ever be called from one thread.
+ * </p>
+ * 
+ * @param <E>
+ */
+public class BoundedMpscQueue<E>
+{
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final int mask;
+
+    private final int capacity;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity the most elements the queue holds; the ring itself is rounded up to the next power of two
+     */
+    public BoundedMpscQueue(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity)
+        {
+            length <<= 1;
+        }
+        this.buffer = new AtomicReferenceArray<E>(length);
+        this.mask = length - 1;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param element
+     * @return false if the queue is full
+     */
+    public boolean offer(E element)
+    {
+        if (element == null)
+        {
+            throw new NullPointerException("element");
+        }
+        while (true)
+        {
+            long currentTail = tail.get();
+            if (currentTail - head.get() >= capacity)
+            {
+                return false;
+            }
+            if (tail.compareAndSet(currentTail, currentTail + 1))
+            {
+                buffer.lazySet((int)currentTail & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return the next element, or null if none has been published yet
+     */
+    public E poll()
+    {
+        long currentHead = head.get();
+        int index = (int)currentHead & mask;
+        E element = buffer.get(index);
+        if (element == null)
+        {
+            return null;
+        }
+        buffer.lazySet(index, null);
+        head.lazySet(currentHead + 1);
+        return element;
+    }
+
+    /**
+     * Moves up to max published elements into target.
+     * 
+     * @param target
+     * @param max
+     * @return the number of elements moved
+     */
+    public int drainTo(List<? super E> target, int max)
+    {
+        int count = 0;
+        E element;
+        while (count < max && (element = poll()) != null)
+        {
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the approximate number of claimed slots
+     */
+    public int size()
+    {
+        return (int)Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return the capacity
+     */
+    public int capacity()
+    {
+        return capacity;
+    }
+
+}
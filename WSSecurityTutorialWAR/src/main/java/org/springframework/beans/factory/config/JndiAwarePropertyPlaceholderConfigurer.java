@@ -287,6 +287,14 @@ public class JndiAwarePropertyPlaceholderConfigurer extends PropertyPlaceholderC
         tempLocations = locations;
     }
 
+    /**
+     * @return the locations, with any placeholders in them resolved once the bean has been initialized
+     */
+    protected Resource[] getLocations()
+    {
+        return tempLocations;
+    }
+
     /**
      * @param searchJndiEnvironment
      */
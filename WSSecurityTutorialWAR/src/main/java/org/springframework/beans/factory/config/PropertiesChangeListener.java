@@ -0,0 +1,24 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package org.springframework.beans.factory.config;
+
+import java.util.Set;
+
+/**
+ * Told by a {@link ReloadablePropertyPlaceholderConfigurer} when properties it is registered for change.
+ */
+public interface PropertiesChangeListener
+{
+
+    /**
+     * Called once per reload, on the reloading thread, with every one of the listener's keys that changed in it, so
+     * that related properties (say a keystore path and its password) can be applied together.
+     *
+     * @param snapshot the new properties; read the changed values from here rather than from the configurer, which
+     *            may have moved on
+     * @param changedKeys the listener's keys that were added, removed or changed
+     */
+    void propertiesChanged(PropertiesSnapshot snapshot, Set<String> changedKeys);
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package org.springframework.beans.factory.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * One version of the properties a {@link ReloadablePropertyPlaceholderConfigurer} has resolved, with every placeholder
+ * in the values already expanded.  Snapshots never change once made; a reload that changes anything publishes a new
+ * one with the next version number.
+ * </p>
+ */
+public final class PropertiesSnapshot
+{
+
+    private final long version;
+
+    private final long loadedAt;
+
+    private final Map<String, String> values;
+
+    /**
+     * @param version
+     * @param values the resolved values; copied
+     */
+    public PropertiesSnapshot(long version, Map<String, String> values)
+    {
+        this.version = version;
+        this.loadedAt = System.currentTimeMillis();
+        this.values = Collections.unmodifiableMap(new HashMap<String, String>(values));
+    }
+
+    /**
+     * @param key
+     * @return the value, or null if the property is not set
+     */
+    public String getProperty(String key)
+    {
+        return values.get(key);
+    }
+
+    /**
+     * @return every property, by key
+     */
+    public Map<String, String> getValues()
+    {
+        return values;
+    }
+
+    /**
+     * @param previous
+     * @return the keys added, removed or changed since the previous snapshot
+     */
+    public Set<String> changedSince(PropertiesSnapshot previous)
+    {
+        Set<String> changed = new HashSet<String>();
+        for (Map.Entry<String, String> entry : values.entrySet())
+        {
+            if (!entry.getValue().equals(previous.values.get(entry.getKey())))
+            {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : previous.values.keySet())
+        {
+            if (!values.containsKey(key))
+            {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return the version; the first snapshot is version 1
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return when the snapshot was made, in milliseconds since the epoch
+     */
+    public long getLoadedAt()
+    {
+        return loadedAt;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "PropertiesSnapshot [version=" + version + ", properties=" + values.size() + "]";
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package org.springframework.beans.factory.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * <p>
+ * Keeps bean properties in step with placeholder properties of a {@link ReloadablePropertyPlaceholderConfigurer}:
+ * when any of the mapped keys changes, the new values are converted and set on the target bean, in the order they are
+ * mapped, with Spring's usual type conversion.  For example
+ * </p>
+ *
+ * <pre>
+ *  &lt;bean class=&quot;org.springframework.beans.factory.config.ReloadablePropertyBinding&quot;&gt;
+ *    &lt;property name=&quot;configurer&quot; ref=&quot;TutorialPropertyPlaceholderConfigurer&quot;/&gt;
+ *    &lt;property name=&quot;target&quot; ref=&quot;deliveryQueue&quot;/&gt;
+ *    &lt;property name=&quot;properties&quot;&gt;
+ *      &lt;map&gt;
+ *        &lt;entry key=&quot;delivery.batchSize&quot; value=&quot;batchSize&quot;/&gt;
+ *      &lt;/map&gt;
+ *    &lt;/property&gt;
+ *  &lt;/bean&gt;
+ * </pre>
+ * <p>
+ * Only bind properties the target reads afresh each time it needs them, from a volatile field: the setters run on the
+ * configurer's reloading thread.  Each setter must check the values it accepts as its bean's afterPropertiesSet would,
+ * throwing an IllegalArgumentException for one it rejects: a value that cannot be converted, or that the setter
+ * rejects, is logged and the bean keeps its current value.
+ * </p>
+ */
+public class ReloadablePropertyBinding implements PropertiesChangeListener, InitializingBean
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private ReloadablePropertyPlaceholderConfigurer configurer;
+
+    private Object target;
+
+    private Map<String, String> properties = new LinkedHashMap<String, String>();
+
+    /**
+     * Checks that every mapped bean property is writable, and registers with the configurer.
+     *
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception
+    {
+        if (configurer == null || target == null)
+        {
+            throw new IllegalStateException("configurer and target must be set on a ReloadablePropertyBinding.");
+        }
+        BeanWrapper wrapper = new BeanWrapperImpl(target);
+        for (String beanProperty : properties.values())
+        {
+            if (!wrapper.isWritableProperty(beanProperty))
+            {
+                throw new IllegalStateException(beanProperty + " is not a writable property of "
+                        + target.getClass().getName());
+            }
+        }
+        configurer.addListener(this, properties.keySet().toArray(new String[properties.size()]));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.springframework.beans.factory.config.PropertiesChangeListener#propertiesChanged(org.springframework.beans.factory.config.PropertiesSnapshot,
+     *      java.util.Set)
+     */
+    public void propertiesChanged(PropertiesSnapshot snapshot, Set<String> changedKeys)
+    {
+        BeanWrapper wrapper = new BeanWrapperImpl(target);
+        for (Map.Entry<String, String> entry : properties.entrySet())
+        {
+            if (!changedKeys.contains(entry.getKey()))
+            {
+                continue;
+            }
+            String value = snapshot.getProperty(entry.getKey());
+            if (value == null)
+            {
+                log.warn("{} was removed; {} keeps its current value", entry.getKey(), entry.getValue());
+                continue;
+            }
+            try
+            {
+                wrapper.setPropertyValue(entry.getValue(), value);
+                log.info("Set {}={} from {}", new Object[] { entry.getValue(), value, entry.getKey() });
+            }
+            catch (RuntimeException e)
+            {
+                log.error("Could not set " + entry.getValue() + " to " + value + " from " + entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * @param configurer the configurer whose properties to follow
+     */
+    public void setConfigurer(ReloadablePropertyPlaceholderConfigurer configurer)
+    {
+        this.configurer = configurer;
+    }
+
+    /**
+     * @param target the bean to update
+     */
+    public void setTarget(Object target)
+    {
+        this.target = target;
+    }
+
+    /**
+     * @param properties bean property names, by placeholder property key
+     */
+    public void setProperties(Map<String, String> properties)
+    {
+        this.properties = new LinkedHashMap<String, String>(properties);
+    }
+
+}
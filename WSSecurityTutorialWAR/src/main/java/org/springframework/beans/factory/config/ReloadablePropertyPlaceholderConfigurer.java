@@ -0,0 +1,405 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package org.springframework.beans.factory.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.Resource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * <p>
+ * A {@link JndiAwarePropertyPlaceholderConfigurer} that keeps the properties it resolved, re-reads its locations when
+ * they change, and tells registered {@link PropertiesChangeListener}s about the keys that changed, without restarting
+ * the application context.  Bean definitions are still only processed once, at startup: a property is only live if
+ * something listens for it, e.g. a {@link ReloadablePropertyBinding}.
+ * </p>
+ * <p>
+ * Each reload that changes anything publishes a new, immutable {@link PropertiesSnapshot} through a volatile field,
+ * so {@link #getProperty(String)} and {@link #getSnapshot()} never lock and always see one complete version.  Reloads
+ * are serialized, and each listener is called once per reload with all of its changed keys.  A reload that fails
+ * (an unreadable file, an unresolvable placeholder) is logged and leaves the current snapshot in place.
+ * </p>
+ * <p>
+ * Locations that are files (including a classpath in an exploded WAR) are checked for changes every
+ * {@link #pollIntervalMillis}; 0 turns the watcher off, leaving {@link #reload()} to be called, e.g. over JMX.
+ * </p>
+ */
+@ManagedResource(description = "Reloadable property placeholders")
+public class ReloadablePropertyPlaceholderConfigurer extends JndiAwarePropertyPlaceholderConfigurer implements
+        DisposableBean
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private String placeholderPrefix = DEFAULT_PLACEHOLDER_PREFIX;
+
+    private String placeholderSuffix = DEFAULT_PLACEHOLDER_SUFFIX;
+
+    private long pollIntervalMillis = 5000;
+
+    private volatile PropertiesSnapshot snapshot;
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<Registration>();
+
+    private Map<File, String> stamps = Collections.emptyMap();
+
+    private volatile String lastFailure;
+
+    private volatile boolean running;
+
+    private Thread watcher;
+
+    /**
+     * Keeps the properties as resolved at startup as the first snapshot, and starts the watcher.
+     *
+     * @see org.springframework.beans.factory.config.PropertyPlaceholderConfigurer#processProperties(org.springframework.beans.factory.config.ConfigurableListableBeanFactory,
+     *      java.util.Properties)
+     */
+    @Override
+    protected void processProperties(ConfigurableListableBeanFactory beanFactory, Properties props)
+        throws BeansException
+    {
+        synchronized (this)
+        {
+            stamps = stampLocations();
+            snapshot = new PropertiesSnapshot(1, resolve(props, Collections.<String> emptySet()));
+        }
+        super.processProperties(beanFactory, props);
+        startWatcher();
+    }
+
+    /**
+     * Re-reads the locations now, whether or not they look changed.
+     *
+     * @return the keys that changed; empty if nothing did or the reload failed
+     */
+    @ManagedOperation(description = "Re-read the property files now; returns the keys that changed")
+    public synchronized Set<String> reload()
+    {
+        PropertiesSnapshot previous = snapshot;
+        if (previous == null)
+        {
+            throw new IllegalStateException("The configurer has not processed its bean factory yet.");
+        }
+        PropertiesSnapshot next;
+        try
+        {
+            stamps = stampLocations();
+            Properties props = mergeProperties();
+            convertProperties(props);
+            next = new PropertiesSnapshot(previous.getVersion() + 1, resolve(props, previous.getValues().keySet()));
+        }
+        catch (Exception e)
+        {
+            lastFailure = e.toString();
+            log.error("Reloading properties failed; keeping version " + previous.getVersion(), e);
+            return Collections.emptySet();
+        }
+        lastFailure = null;
+        Set<String> changed = next.changedSince(previous);
+        if (changed.isEmpty())
+        {
+            return changed;
+        }
+        snapshot = next;
+        log.info("Properties reloaded as version {}; changed: {}", next.getVersion(), changed);
+        for (Registration registration : registrations)
+        {
+            registration.notify(next, changed);
+        }
+        return changed;
+    }
+
+    /**
+     * @param listener
+     * @param keys the properties the listener is interested in
+     */
+    public void addListener(PropertiesChangeListener listener, String... keys)
+    {
+        registrations.add(new Registration(listener, new HashSet<String>(Arrays.asList(keys))));
+    }
+
+    /**
+     * @param listener
+     */
+    public void removeListener(PropertiesChangeListener listener)
+    {
+        for (Registration registration : registrations)
+        {
+            if (registration.listener == listener)
+            {
+                registrations.remove(registration);
+            }
+        }
+    }
+
+    /**
+     * @return the current properties; null until the bean factory has been processed
+     */
+    public PropertiesSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * @param key
+     * @return the current value, or null if the property is not set
+     */
+    public String getProperty(String key)
+    {
+        PropertiesSnapshot current = snapshot;
+        return current == null ? null : current.getProperty(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws Exception
+    {
+        Thread thread;
+        synchronized (this)
+        {
+            running = false;
+            thread = watcher;
+            watcher = null;
+        }
+        if (thread != null)
+        {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+    /**
+     * Each property's value as the bean definitions would see it: with JNDI and system overrides applied and the
+     * placeholders in it expanded.  Properties whose placeholders cannot be resolved are left out, as they can't have
+     * been used in a bean definition, unless they were resolved before: a reload must not lose a value.
+     *
+     * @param required keys that must resolve
+     */
+    @SuppressWarnings("deprecation")
+    private Map<String, String> resolve(Properties props, Set<String> required)
+    {
+        Map<String, String> values = new HashMap<String, String>();
+        for (String key : props.stringPropertyNames())
+        {
+            try
+            {
+                values.put(key, parseStringValue(placeholderPrefix + key + placeholderSuffix, props,
+                        new HashSet<String>()));
+            }
+            catch (IllegalArgumentException e)
+            {
+                if (required.contains(key))
+                {
+                    throw e;
+                }
+                log.debug("Leaving {} out of the snapshot: {}", key, e.getMessage());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return a last-modified/length stamp for each location that is a file, by file
+     */
+    private Map<File, String> stampLocations()
+    {
+        Map<File, String> stampsByFile = new LinkedHashMap<File, String>();
+        Resource[] locations = getLocations();
+        if (locations != null)
+        {
+            for (Resource location : locations)
+            {
+                try
+                {
+                    File file = location.getFile();
+                    stampsByFile.put(file, file.lastModified() + "/" + file.length());
+                }
+                catch (IOException e)
+                {
+                    // not a file (e.g. inside a jar), so there is nothing to watch
+                }
+            }
+        }
+        return stampsByFile;
+    }
+
+    private synchronized boolean isChanged()
+    {
+        return !stamps.equals(stampLocations());
+    }
+
+    private synchronized void startWatcher()
+    {
+        if (pollIntervalMillis <= 0 || watcher != null || stamps.isEmpty())
+        {
+            return;
+        }
+        running = true;
+        watcher = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                watch();
+            }
+        }, "ReloadablePropertyPlaceholderConfigurer-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for changes every {} ms", stamps.keySet(), pollIntervalMillis);
+    }
+
+    private void watch()
+    {
+        while (running)
+        {
+            try
+            {
+                Thread.sleep(pollIntervalMillis);
+            }
+            catch (InterruptedException e)
+            {
+                // destroy() wakes us up to stop.
+                return;
+            }
+            if (isChanged())
+            {
+                reload();
+            }
+        }
+    }
+
+    /**
+     * @return the version of the current properties
+     */
+    @ManagedAttribute(description = "Version of the current properties")
+    public long getVersion()
+    {
+        PropertiesSnapshot current = snapshot;
+        return current == null ? 0 : current.getVersion();
+    }
+
+    /**
+     * @return why the last reload failed, or null if it succeeded
+     */
+    @ManagedAttribute(description = "Why the last reload failed, if it did")
+    public String getLastFailure()
+    {
+        return lastFailure;
+    }
+
+    /**
+     * @return the keys each listener is registered for
+     */
+    @ManagedAttribute(description = "Keys with listeners")
+    public List<String> getListenedKeys()
+    {
+        List<String> keys = new ArrayList<String>();
+        for (Registration registration : registrations)
+        {
+            keys.addAll(registration.keys);
+        }
+        return keys;
+    }
+
+    /**
+     * @return the pollIntervalMillis
+     */
+    @ManagedAttribute(description = "Milliseconds between checks of the property files")
+    public long getPollIntervalMillis()
+    {
+        return pollIntervalMillis;
+    }
+
+    /**
+     * @param pollIntervalMillis how often to check the property files for changes; 0 to only reload on request
+     */
+    public void setPollIntervalMillis(long pollIntervalMillis)
+    {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.springframework.beans.factory.config.PropertyPlaceholderConfigurer#setPlaceholderPrefix(java.lang.String)
+     */
+    @Override
+    public void setPlaceholderPrefix(String placeholderPrefix)
+    {
+        super.setPlaceholderPrefix(placeholderPrefix);
+        this.placeholderPrefix = placeholderPrefix;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.springframework.beans.factory.config.PropertyPlaceholderConfigurer#setPlaceholderSuffix(java.lang.String)
+     */
+    @Override
+    public void setPlaceholderSuffix(String placeholderSuffix)
+    {
+        super.setPlaceholderSuffix(placeholderSuffix);
+        this.placeholderSuffix = placeholderSuffix;
+    }
+
+    /**
+     * A listener and the keys it is registered for.
+     */
+    private class Registration
+    {
+
+        private final PropertiesChangeListener listener;
+
+        private final Set<String> keys;
+
+        Registration(PropertiesChangeListener listener, Set<String> keys)
+        {
+            this.listener = listener;
+            this.keys = keys;
+        }
+
+        void notify(PropertiesSnapshot next, Set<String> changed)
+        {
+            Set<String> relevant = new HashSet<String>(keys);
+            relevant.retainAll(changed);
+            if (relevant.isEmpty())
+            {
+                return;
+            }
+            try
+            {
+                listener.propertiesChanged(next, Collections.unmodifiableSet(relevant));
+            }
+            catch (RuntimeException e)
+            {
+                log.error("Listener " + listener + " failed to apply " + relevant, e);
+            }
+        }
+
+    }
+
+}
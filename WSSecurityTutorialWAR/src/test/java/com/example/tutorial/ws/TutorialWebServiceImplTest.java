@@ -0,0 +1,164 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws;
+
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.xml.ws.Holder;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.delivery.DeliveryQueue;
+import com.example.tutorial.ws.delivery.InMemoryDeliverySink;
+import com.example.tutorial.ws.integration.TutorialMessages;
+import com.example.tutorial.ws.journal.JournalReader;
+import com.example.tutorial.ws.journal.JournalRecord;
+import com.example.tutorial.ws.journal.JournalRecordHandler;
+import com.example.tutorial.ws.journal.MessageJournal;
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.types.RequestStructure;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * Unit tests of {@link TutorialWebServiceImpl} outside CXF.
+ */
+public class TutorialWebServiceImplTest
+{
+
+    /**
+     * A message the journal cannot record is refused, and is never handed to delivery; otherwise the caller's retry
+     * would deliver it twice.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void journalFailureIsNotDeliveredTest() throws Exception
+    {
+        InMemoryDeliverySink sink = new InMemoryDeliverySink();
+        DeliveryQueue queue = new DeliveryQueue();
+        queue.setSink(sink);
+        queue.afterPropertiesSet();
+        MessageJournal journal = new MessageJournal()
+        {
+            @Override
+            public long append(RequestStructure request, MessageSource source, ResponseStructure response)
+                    throws IOException
+            {
+                throw new IOException("disk full");
+            }
+        };
+        TutorialWebServiceImpl service = new TutorialWebServiceImpl();
+        ReflectionTestUtils.setField(service, "deliveryQueue", queue);
+        ReflectionTestUtils.setField(service, "messageJournal", journal);
+
+        Holder<MessageAcknowledgment> acknowledgment = new Holder<MessageAcknowledgment>();
+        try
+        {
+            service.sendTutorialMessage(TutorialMessages.request(1), TutorialMessages.messageSource(),
+                    new Holder<TutorialResponse>(), acknowledgment);
+            fail("a journal failure must fault the request");
+        }
+        catch (SystemUnavailableFault e)
+        {
+            assertNull(acknowledgment.value);
+        }
+        queue.destroy();
+        assertEquals(queue.getAcceptedCount(), 0);
+        assertTrue(sink.awaitDelivered(1, 100).isEmpty());
+    }
+
+    /**
+     * A message refused because the delivery queue is full leaves no record in the journal; the journal holds only
+     * what the caller was told was accepted, so a replay can't deliver a message the caller will retry.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void queueFullIsNotJournaledTest() throws Exception
+    {
+        InMemoryDeliverySink sink = new InMemoryDeliverySink();
+        sink.hold();
+        DeliveryQueue queue = new DeliveryQueue();
+        queue.setSink(sink);
+        queue.setCapacity(1);
+        queue.afterPropertiesSet();
+        File directory = new File(System.getProperty("java.io.tmpdir"), "journal-test-" + UUID.randomUUID());
+        MessageJournal journal = new MessageJournal();
+        journal.setDirectory(directory);
+        journal.setSegmentSize(64 * 1024);
+        journal.afterPropertiesSet();
+        TutorialWebServiceImpl service = new TutorialWebServiceImpl();
+        ReflectionTestUtils.setField(service, "deliveryQueue", queue);
+        ReflectionTestUtils.setField(service, "messageJournal", journal);
+
+        try
+        {
+            // one event held by the worker, one filling the queue
+            send(service, TutorialMessages.messageSource());
+            sink.awaitHeld();
+            send(service, TutorialMessages.messageSource());
+
+            MessageSource refused = TutorialMessages.messageSource();
+            Holder<MessageAcknowledgment> acknowledgment = new Holder<MessageAcknowledgment>();
+            try
+            {
+                service.sendTutorialMessage(TutorialMessages.request(1), refused, new Holder<TutorialResponse>(),
+                        acknowledgment);
+                fail("a full queue must fault the request");
+            }
+            catch (SystemUnavailableFault e)
+            {
+                assertNull(acknowledgment.value);
+            }
+            journal.destroy();
+
+            final List<String> journaled = new ArrayList<String>();
+            new JournalReader(directory).replay(new JournalRecordHandler()
+            {
+                public boolean handle(JournalRecord record)
+                {
+                    journaled.add(record.getMessageSource().getMessageIdentifier());
+                    return true;
+                }
+            });
+            assertEquals(journaled.size(), 2);
+            assertFalse(journaled.contains(refused.getMessageIdentifier()));
+            assertEquals(queue.getAcceptedCount(), 2);
+            assertEquals(queue.getRejectedCount(), 1);
+        }
+        finally
+        {
+            sink.release();
+            queue.destroy();
+            File[] files = directory.listFiles();
+            if (files != null)
+            {
+                for (File file : files)
+                {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    private static void send(TutorialWebServiceImpl service, MessageSource source) throws Exception
+    {
+        Holder<MessageAcknowledgment> acknowledgment = new Holder<MessageAcknowledgment>();
+        service.sendTutorialMessage(TutorialMessages.request(1), source, new Holder<TutorialResponse>(),
+                acknowledgment);
+        assertNotNull(acknowledgment.value);
+    }
+
+}
@@ -0,0 +1,395 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.binary;
+
+import static org.testng.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.ws.Holder;
+
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.binary.BinaryFrame;
+import com.example.tutorial.binary.BinaryFrameCodec;
+import com.example.tutorial.binary.FrameSigner;
+import com.example.tutorial.ws.integration.EmbeddedTutorialService;
+import com.example.tutorial.ws.integration.TutorialMessages;
+import com.example.tutorial.ws.response.ResponseTemplates;
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * Tests of {@link BinaryTutorialEndpoint} against the service in an embedded Jetty server, beside its SOAP port.  The
+ * "benchmark" group is not run by default; run it with -Dgroups=benchmark to compare the throughput and message sizes
+ * of a serial caller on the SOAP port (WS-Security signed and encrypted) with one on the binary binding.
+ */
+public class BinaryTutorialEndpointTest
+{
+
+    private static final int TAG_COUNT = 4;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final EmbeddedTutorialService service = new EmbeddedTutorialService();
+
+    private TutorialWebService soapPort;
+
+    private TutorialWebService binaryPort;
+
+    /**
+     * @throws Exception
+     */
+    @BeforeClass(groups = { "local-integration", "benchmark" })
+    public void startService() throws Exception
+    {
+        service.setSystemProperty("binary.enabled", "true");
+        service.start();
+        soapPort = service.getClient().getBean("testClient", TutorialWebService.class);
+        binaryPort = service.getClient().getBean("testBinaryClient", TutorialWebService.class);
+    }
+
+    /**
+     *
+     */
+    @AfterClass(groups = { "local-integration", "benchmark" }, alwaysRun = true)
+    public void stopService()
+    {
+        service.stop();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void bothPortsTest() throws Exception
+    {
+        long handled = endpoint().getRequestCount();
+        for (TutorialWebService port : new TutorialWebService[] { soapPort, binaryPort })
+        {
+            Holder<TutorialResponse> response = new Holder<TutorialResponse>();
+            Holder<MessageAcknowledgment> acknowledgment = new Holder<MessageAcknowledgment>();
+            port.sendTutorialMessage(TutorialMessages.request(TAG_COUNT), TutorialMessages.messageSource(), response,
+                    acknowledgment);
+            assertEquals(response.value.getResponseStructure().getResponseCode(), ResponseTemplates.SUCCESS_CODE);
+            assertEquals(acknowledgment.value.getSomeMessage(), ResponseTemplates.ACKNOWLEDGMENT_MESSAGE);
+        }
+        assertEquals(endpoint().getRequestCount(), handled + 1);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "local-integration", expectedExceptions = SystemUnavailableFault.class)
+    public void faultTest() throws Exception
+    {
+        MessageSource source = TutorialMessages.messageSource();
+        source.setMessageIdentifier("SYSTEM FAILURE");
+        binaryPort.sendTutorialMessage(TutorialMessages.request(TAG_COUNT), source, new Holder<TutorialResponse>(),
+                new Holder<MessageAcknowledgment>());
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void refusesUnsignedFramesTest() throws Exception
+    {
+        byte[] frame = BinaryFrameCodec.encode(BinaryFrame.request(TutorialMessages.request(TAG_COUNT),
+                TutorialMessages.messageSource()));
+        long rejected = endpoint().getRejectedCount();
+        assertEquals(post(frame), 403);
+        // a response signed by the service is not a request
+        byte[] response = new FrameSigner(service.getServer().getBeanFactory().resolveEmbeddedValue(
+                "${binary.signingKey}")).sign(BinaryFrameCodec.encode(BinaryFrame.response(
+                new byte[FrameSigner.SIGNATURE_LENGTH], new TutorialResponse(), ResponseTemplates.acknowledgment())));
+        assertEquals(post(response), 400);
+        assertEquals(endpoint().getRejectedCount(), rejected + 1);
+
+        HttpURLConnection connection = (HttpURLConnection)binaryAddress().openConnection();
+        assertEquals(connection.getResponseCode(), 405);
+    }
+
+    /**
+     * Holding the shared key does not let a caller pose as a system the key is not issued to.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void refusesSpoofedSystemIdentifierTest() throws Exception
+    {
+        MessageSource source = TutorialMessages.messageSource();
+        source.setSystemIdentifier("partner");
+        long rejected = endpoint().getRejectedCount();
+        long handled = endpoint().getRequestCount();
+        assertEquals(post(sign(BinaryFrame.request(TutorialMessages.request(TAG_COUNT), source))), 403);
+        assertEquals(endpoint().getRejectedCount(), rejected + 1);
+        assertEquals(endpoint().getRequestCount(), handled);
+    }
+
+    /**
+     * Decoded requests get the same schema validation as the SOAP port.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void refusesRequestsViolatingSchemaTest() throws Exception
+    {
+        long malformed = endpoint().getMalformedCount();
+        TutorialRequest badGuid = TutorialMessages.request(TAG_COUNT);
+        badGuid.getRequestStructure().setGuid("not a guid");
+        assertEquals(post(sign(BinaryFrame.request(badGuid, TutorialMessages.messageSource()))), 400);
+
+        char[] longValue = new char[256];
+        Arrays.fill(longValue, 'x');
+        TutorialRequest longLabel = TutorialMessages.request(0);
+        longLabel.getRequestStructure().getTags().add(TutorialMessages.tag("tag:vork:339:#1", new String(longValue)));
+        assertEquals(post(sign(BinaryFrame.request(longLabel, TutorialMessages.messageSource()))), 400);
+        assertEquals(endpoint().getMalformedCount(), malformed + 2);
+
+        assertEquals(post(sign(BinaryFrame.request(TutorialMessages.request(TAG_COUNT), TutorialMessages
+                .messageSource()))), 200);
+    }
+
+    /**
+     * A captured frame is accepted once: sent again while still fresh, it is refused rather than delivered twice.
+     * The response names the request it answers.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void refusesReplayedFramesTest() throws Exception
+    {
+        byte[] signed = sign(BinaryFrame.request(TutorialMessages.request(TAG_COUNT), TutorialMessages
+                .messageSource()));
+        long rejected = endpoint().getRejectedCount();
+        long handled = endpoint().getRequestCount();
+        HttpURLConnection connection = send(signed);
+        assertEquals(connection.getResponseCode(), 200);
+        byte[] body = readFully(connection.getInputStream());
+        BinaryFrame response = BinaryFrameCodec.decode(body, body.length - FrameSigner.SIGNATURE_LENGTH);
+        assertEquals(response.getInReplyTo(), Arrays.copyOfRange(signed, signed.length - FrameSigner.SIGNATURE_LENGTH,
+                signed.length));
+
+        assertEquals(post(signed), 403);
+        assertEquals(endpoint().getRejectedCount(), rejected + 1);
+        assertEquals(endpoint().getRequestCount(), handled + 1);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void bindingComparisonBenchmark() throws Exception
+    {
+        AtomicLong soapRequestBytes = new AtomicLong();
+        AtomicLong soapResponseBytes = new AtomicLong();
+        Client client = ClientProxy.getClient(soapPort);
+        client.getOutInterceptors().add(new CountingOutInterceptor(soapRequestBytes));
+        client.getInInterceptors().add(new CountingInInterceptor(soapResponseBytes));
+
+        TutorialRequest request = TutorialMessages.request(TAG_COUNT);
+        MessageSource source = TutorialMessages.messageSource();
+        int binaryRequestBytes = BinaryFrameCodec.encode(BinaryFrame.request(request, source)).length
+                + FrameSigner.SIGNATURE_LENGTH;
+        TutorialResponse response = new TutorialResponse();
+        response.setResponseStructure(ResponseTemplates.successResponse(Calendar.getInstance()));
+        int binaryResponseBytes = BinaryFrameCodec.encode(BinaryFrame.response(new byte[FrameSigner.SIGNATURE_LENGTH],
+                response, ResponseTemplates.acknowledgment())).length + FrameSigner.SIGNATURE_LENGTH;
+
+        int iterations = 200;
+        for (int round = 0; round < 3; round++)
+        {
+            soapRequestBytes.set(0);
+            soapResponseBytes.set(0);
+            long soap = time(soapPort, iterations);
+            long binary = time(binaryPort, iterations);
+            log.info("Serial requests per second with {} tags: SOAP {}, binary {}; bytes per request/response: SOAP "
+                    + "{}/{}, binary {}/{}", new Object[] { TAG_COUNT, perSecond(soap, iterations),
+                    perSecond(binary, iterations), soapRequestBytes.get() / iterations,
+                    soapResponseBytes.get() / iterations, binaryRequestBytes, binaryResponseBytes });
+        }
+    }
+
+    private long time(TutorialWebService port, int iterations) throws Exception
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+        {
+            Holder<TutorialResponse> response = new Holder<TutorialResponse>();
+            port.sendTutorialMessage(TutorialMessages.request(TAG_COUNT), TutorialMessages.messageSource(), response,
+                    new Holder<MessageAcknowledgment>());
+            assertNotNull(response.value);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long perSecond(long nanos, int iterations)
+    {
+        return Math.round(iterations * 1e9 / nanos);
+    }
+
+    private BinaryTutorialEndpoint endpoint()
+    {
+        return service.getServer().getBean("binaryTutorialEndpoint", BinaryTutorialEndpoint.class);
+    }
+
+    private URL binaryAddress() throws IOException
+    {
+        return new URL(service.getAddress() + "Binary");
+    }
+
+    private byte[] sign(BinaryFrame frame) throws Exception
+    {
+        return new FrameSigner(service.getServer().getBeanFactory().resolveEmbeddedValue("${binary.signingKey}"))
+                .sign(BinaryFrameCodec.encode(frame));
+    }
+
+    private int post(byte[] body) throws IOException
+    {
+        return send(body).getResponseCode();
+    }
+
+    private HttpURLConnection send(byte[] body) throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection)binaryAddress().openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", BinaryFrameCodec.CONTENT_TYPE);
+        OutputStream out = connection.getOutputStream();
+        try
+        {
+            out.write(body);
+        }
+        finally
+        {
+            out.close();
+        }
+        return connection;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+            {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Counts the bytes of each outgoing message, as written to the transport.
+     */
+    private static class CountingOutInterceptor extends AbstractPhaseInterceptor<Message>
+    {
+
+        private final AtomicLong bytes;
+
+        CountingOutInterceptor(AtomicLong bytes)
+        {
+            super(Phase.PRE_STREAM);
+            addBefore(StaxOutInterceptor.class.getName());
+            this.bytes = bytes;
+        }
+
+        public void handleMessage(Message message)
+        {
+            message.setContent(OutputStream.class, new FilterOutputStream(message.getContent(OutputStream.class))
+            {
+                @Override
+                public void write(int b) throws IOException
+                {
+                    out.write(b);
+                    bytes.incrementAndGet();
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException
+                {
+                    out.write(b, off, len);
+                    bytes.addAndGet(len);
+                }
+            });
+        }
+
+    }
+
+    /**
+     * Counts the bytes of each incoming message, as read from the transport.
+     */
+    private static class CountingInInterceptor extends AbstractPhaseInterceptor<Message>
+    {
+
+        private final AtomicLong bytes;
+
+        CountingInInterceptor(AtomicLong bytes)
+        {
+            super(Phase.RECEIVE);
+            this.bytes = bytes;
+        }
+
+        public void handleMessage(Message message)
+        {
+            message.setContent(InputStream.class, new FilterInputStream(message.getContent(InputStream.class))
+            {
+                @Override
+                public int read() throws IOException
+                {
+                    int b = in.read();
+                    if (b != -1)
+                    {
+                        bytes.incrementAndGet();
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException
+                {
+                    int read = in.read(b, off, len);
+                    if (read > 0)
+                    {
+                        bytes.addAndGet(read);
+                    }
+                    return read;
+                }
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.binary;
+
+import static org.testng.Assert.*;
+
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.binary.ReplayCache.Result;
+
+/**
+ * Unit tests for {@link ReplayCache}.
+ */
+public class ReplayCacheTest
+{
+
+    /**
+     * A signature is refused until it expires, and a full cache turns new signatures away until room is freed.
+     */
+    @Test(groups = "unit")
+    public void expiryAndCapacityTest()
+    {
+        ReplayCache cache = new ReplayCache(2);
+        assertEquals(cache.add(signature(1), 1000, 0), Result.ADDED);
+        assertEquals(cache.add(signature(1), 1000, 500), Result.REPLAYED);
+        assertEquals(cache.add(signature(2), 2000, 500), Result.ADDED);
+        assertEquals(cache.add(signature(3), 2000, 500), Result.FULL);
+        assertEquals(cache.size(), 2);
+
+        // the first has expired, which makes room for the third
+        assertEquals(cache.add(signature(3), 2000, 1001), Result.ADDED);
+        assertEquals(cache.add(signature(1), 2001, 1001), Result.FULL);
+        assertEquals(cache.add(signature(2), 2000, 1500), Result.REPLAYED);
+        assertEquals(cache.size(), 2);
+    }
+
+    private static byte[] signature(int seed)
+    {
+        byte[] signature = new byte[32];
+        signature[0] = (byte)seed;
+        return signature;
+    }
+
+}
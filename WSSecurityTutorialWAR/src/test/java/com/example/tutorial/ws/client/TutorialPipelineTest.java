@@ -0,0 +1,189 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.client;
+
+import static org.testng.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.ws.Holder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.client.PipelinedMessage;
+import com.example.tutorial.client.TutorialMessageBuilder;
+import com.example.tutorial.client.TutorialPipeline;
+import com.example.tutorial.ws.integration.EmbeddedTutorialService;
+import com.example.tutorial.ws.integration.TutorialMessages;
+import com.example.tutorial.ws.response.ResponseTemplates;
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * Tests of {@link TutorialPipeline} (in WSSecurityTutorialJaxWs) against the service in an embedded Jetty server.  The "benchmark" group is not run
+ * by default; run it with -Dgroups=benchmark to compare the throughput of the serial testClient pattern with the
+ * pipeline, and to see which stage saturates.  Stage threads can be changed with -DunitTest.pipeline.&lt;stage&gt;Threads.
+ */
+public class TutorialPipelineTest
+{
+
+    private static final int TAG_COUNT = 4;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final EmbeddedTutorialService service = new EmbeddedTutorialService();
+
+    private TutorialWebService serialPort;
+
+    private TutorialPipeline pipeline;
+
+    /**
+     * @throws Exception
+     */
+    @BeforeClass(groups = { "local-integration", "benchmark" })
+    public void startService() throws Exception
+    {
+        service.start();
+        serialPort = service.getClient().getBean("testClient", TutorialWebService.class);
+        pipeline = service.getClient().getBean("testPipeline", TutorialPipeline.class);
+    }
+
+    /**
+     *
+     */
+    @AfterClass(groups = { "local-integration", "benchmark" }, alwaysRun = true)
+    public void stopService()
+    {
+        service.stop();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void pipelinedMessagesTest() throws Exception
+    {
+        long completed = pipeline.getCompletedCount();
+        List<PipelinedMessage> messages = new ArrayList<PipelinedMessage>();
+        for (int i = 0; i < 20; i++)
+        {
+            messages.add(pipeline.submit(new TutorialMessageBuilder()
+            {
+                public TutorialRequest buildRequest()
+                {
+                    return TutorialMessages.request(TAG_COUNT);
+                }
+
+                public MessageSource buildSource()
+                {
+                    return TutorialMessages.messageSource();
+                }
+            }));
+        }
+        for (PipelinedMessage message : messages)
+        {
+            TutorialResponse response = message.get(30, TimeUnit.SECONDS);
+            assertEquals(response.getResponseStructure().getResponseCode(), ResponseTemplates.SUCCESS_CODE);
+            assertEquals(message.getAcknowledgment().getSomeMessage(), ResponseTemplates.ACKNOWLEDGMENT_MESSAGE);
+            assertTrue(message.getLatencyNanos() > 0);
+        }
+        assertEquals(pipeline.getCompletedCount(), completed + 20);
+        assertEquals(pipeline.getStageSaturation().length, pipeline.getStages().size());
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void faultTest() throws Exception
+    {
+        MessageSource source = TutorialMessages.messageSource();
+        source.setMessageIdentifier("SYSTEM FAILURE");
+        PipelinedMessage message = pipeline.submit(TutorialMessages.request(TAG_COUNT), source);
+        try
+        {
+            message.get(30, TimeUnit.SECONDS);
+            fail("SYSTEM FAILURE must fail the message");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof SystemUnavailableFault, String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * Calls on the pipeline's own client still work, on the calling thread.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void directCallTest() throws Exception
+    {
+        TutorialWebService port = service.getClient().getBean("pipelineClient", TutorialWebService.class);
+        Holder<TutorialResponse> response = new Holder<TutorialResponse>();
+        Holder<MessageAcknowledgment> acknowledgment = new Holder<MessageAcknowledgment>();
+        port.sendTutorialMessage(TutorialMessages.request(TAG_COUNT), TutorialMessages.messageSource(), response,
+                acknowledgment);
+        assertEquals(response.value.getResponseStructure().getResponseCode(), ResponseTemplates.SUCCESS_CODE);
+        assertEquals(acknowledgment.value.getSomeMessage(), ResponseTemplates.ACKNOWLEDGMENT_MESSAGE);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void serialVersusPipelineBenchmark() throws Exception
+    {
+        int iterations = 200;
+        for (int round = 0; round < 3; round++)
+        {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                Holder<TutorialResponse> response = new Holder<TutorialResponse>();
+                serialPort.sendTutorialMessage(TutorialMessages.request(TAG_COUNT), TutorialMessages.messageSource(),
+                        response, new Holder<MessageAcknowledgment>());
+                assertNotNull(response.value);
+            }
+            long serial = System.nanoTime() - start;
+
+            pipeline.resetStatistics();
+            start = System.nanoTime();
+            List<PipelinedMessage> messages = new ArrayList<PipelinedMessage>(iterations);
+            for (int i = 0; i < iterations; i++)
+            {
+                messages.add(pipeline.submit(TutorialMessages.request(TAG_COUNT), TutorialMessages.messageSource()));
+            }
+            for (PipelinedMessage message : messages)
+            {
+                assertNotNull(message.get());
+            }
+            long pipelined = System.nanoTime() - start;
+            log.info("Requests per second with {} tags on {} processor(s): serial testClient {}, pipeline {}",
+                    new Object[] { TAG_COUNT, Runtime.getRuntime().availableProcessors(), perSecond(serial, iterations),
+                            perSecond(pipelined, iterations) });
+            for (String line : pipeline.getStageSaturation())
+            {
+                log.info("  {}", line);
+            }
+        }
+    }
+
+    private static long perSecond(long nanos, int iterations)
+    {
+        return Math.round(iterations * 1e9 / nanos);
+    }
+
+}
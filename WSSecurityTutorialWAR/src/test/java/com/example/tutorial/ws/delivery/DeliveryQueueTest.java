@@ -0,0 +1,210 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.delivery;
+
+import static org.testng.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.types.RequestStructure;
+
+/**
+ * Unit tests for {@link DeliveryQueue}, using {@link InMemoryDeliverySink} as the downstream.
+ */
+public class DeliveryQueueTest
+{
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void deliversInOrderTest() throws Exception
+    {
+        InMemoryDeliverySink sink = new InMemoryDeliverySink();
+        DeliveryQueue queue = newQueue(sink, 1024, 2);
+        for (int i = 0; i < 500; i++)
+        {
+            assertTrue(queue.offer(newEvent(i % 2 == 0 ? "even" : "odd", i)));
+        }
+        List<DeliveryEvent> delivered = sink.awaitDelivered(500, 5000);
+        queue.destroy();
+
+        assertEquals(delivered.size(), 500);
+        assertEquals(queue.getDeliveredCount(), 500);
+        int lastEven = -1;
+        int lastOdd = -1;
+        for (DeliveryEvent event : delivered)
+        {
+            int index = Integer.parseInt(event.getMessageSource().getMessageIdentifier());
+            if (index % 2 == 0)
+            {
+                assertTrue(index > lastEven);
+                lastEven = index;
+            }
+            else
+            {
+                assertTrue(index > lastOdd);
+                lastOdd = index;
+            }
+        }
+        for (Integer batchSize : sink.getBatchSizes())
+        {
+            assertTrue(batchSize <= 64);
+        }
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void rejectsWhenFullTest() throws Exception
+    {
+        InMemoryDeliverySink sink = new InMemoryDeliverySink();
+        sink.hold();
+        DeliveryQueue queue = newQueue(sink, 8, 1);
+        assertTrue(queue.offer(newEvent("test", 0)));
+        sink.awaitHeld();
+
+        for (int i = 1; i <= 8; i++)
+        {
+            assertTrue(queue.offer(newEvent("test", i)));
+        }
+        assertEquals(queue.getQueueDepth(), 8);
+        assertFalse(queue.offer(newEvent("test", 9)));
+        assertEquals(queue.getRejectedCount(), 1);
+
+        sink.release();
+        assertEquals(sink.awaitDelivered(9, 5000).size(), 9);
+        queue.destroy();
+        assertEquals(queue.getQueueDepth(), 0);
+        assertEquals(queue.getAcceptedCount(), 9);
+    }
+
+    /**
+     * A capacity that is not a power of two holds exactly that many events, and is reported as such.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void exactCapacityTest() throws Exception
+    {
+        InMemoryDeliverySink sink = new InMemoryDeliverySink();
+        sink.hold();
+        DeliveryQueue queue = newQueue(sink, 10, 1);
+        assertEquals(queue.getCapacity(), 10);
+        assertTrue(queue.offer(newEvent("test", 0)));
+        sink.awaitHeld();
+        for (int i = 1; i <= 10; i++)
+        {
+            assertTrue(queue.offer(newEvent("test", i)));
+        }
+        assertFalse(queue.offer(newEvent("test", 11)));
+        sink.release();
+        queue.destroy();
+
+        queue = newQueue(new InMemoryDeliverySink(), 10000, 3);
+        assertEquals(queue.getCapacity(), 10000);
+        queue.destroy();
+    }
+
+    /**
+     * Every offer accepted while destroy() runs is still delivered.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void acceptedBeforeShutdownIsDeliveredTest() throws Exception
+    {
+        for (int round = 0; round < 20; round++)
+        {
+            InMemoryDeliverySink sink = new InMemoryDeliverySink();
+            final DeliveryQueue queue = newQueue(sink, 100000, 2);
+            Thread[] producers = new Thread[4];
+            for (int p = 0; p < producers.length; p++)
+            {
+                final String systemIdentifier = "system-" + p;
+                producers[p] = new Thread()
+                {
+                    @Override
+                    public void run()
+                    {
+                        for (int i = 0; i < 5000; i++)
+                        {
+                            queue.offer(newEvent(systemIdentifier, i));
+                        }
+                    }
+                };
+                producers[p].start();
+            }
+            Thread.sleep(round % 3);
+            queue.destroy();
+            for (Thread producer : producers)
+            {
+                producer.join();
+            }
+            assertEquals(sink.awaitDelivered(Integer.MAX_VALUE, 0).size(), queue.getAcceptedCount());
+            assertEquals(queue.getAcceptedCount() + queue.getRejectedCount(), 4 * 5000);
+        }
+    }
+
+    /**
+     * A sink that names the events it could not deliver has only those counted as failed.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void partialFailureCountedPerEventTest() throws Exception
+    {
+        DeliverySink oddFails = new DeliverySink()
+        {
+            public void deliver(List<DeliveryEvent> batch) throws Exception
+            {
+                List<DeliveryEvent> failed = new ArrayList<DeliveryEvent>();
+                for (DeliveryEvent event : batch)
+                {
+                    if (Integer.parseInt(event.getMessageSource().getMessageIdentifier()) % 2 == 1)
+                    {
+                        failed.add(event);
+                    }
+                }
+                if (!failed.isEmpty())
+                {
+                    throw new PartialDeliveryException(failed, new IllegalStateException("odd"));
+                }
+            }
+        };
+        DeliveryQueue queue = newQueue(oddFails, 1024, 1);
+        for (int i = 0; i < 100; i++)
+        {
+            assertTrue(queue.offer(newEvent("system", i)));
+        }
+        queue.destroy();
+        assertEquals(queue.getDeliveredCount(), 50);
+        assertEquals(queue.getFailedCount(), 50);
+    }
+
+    private DeliveryQueue newQueue(DeliverySink sink, int capacity, int workers) throws Exception
+    {
+        DeliveryQueue queue = new DeliveryQueue();
+        queue.setSink(sink);
+        queue.setCapacity(capacity);
+        queue.setWorkers(workers);
+        queue.setBatchSize(64);
+        queue.afterPropertiesSet();
+        return queue;
+    }
+
+    private DeliveryEvent newEvent(String systemIdentifier, int index)
+    {
+        MessageSource source = new MessageSource();
+        source.setSystemIdentifier(systemIdentifier);
+        source.setMessageIdentifier(Integer.toString(index));
+        return new DeliveryEvent(new RequestStructure(), source);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.delivery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link DeliverySink} for tests which keeps everything delivered in memory.  It can be told to hold the worker on
+ * the next batch, which lets a test fill the queue up behind it.
+ */
+public class InMemoryDeliverySink implements DeliverySink
+{
+
+    private final List<DeliveryEvent> delivered = new ArrayList<DeliveryEvent>();
+
+    private final List<Integer> batchSizes = new ArrayList<Integer>();
+
+    private volatile CountDownLatch gate;
+
+    private final CountDownLatch held = new CountDownLatch(1);
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see com.example.tutorial.ws.delivery.DeliverySink#deliver(java.util.List)
+     */
+    @Override
+    public void deliver(List<DeliveryEvent> batch) throws Exception
+    {
+        CountDownLatch currentGate = gate;
+        if (currentGate != null)
+        {
+            held.countDown();
+            currentGate.await();
+        }
+        synchronized (this)
+        {
+            delivered.addAll(batch);
+            batchSizes.add(batch.size());
+            notifyAll();
+        }
+    }
+
+    /**
+     * Makes the next batch block in {@link #deliver(List)} until {@link #release()} is called.
+     */
+    public void hold()
+    {
+        gate = new CountDownLatch(1);
+    }
+
+    /**
+     * Waits until a worker is blocked in {@link #deliver(List)}.
+     * 
+     * @throws InterruptedException
+     */
+    public void awaitHeld() throws InterruptedException
+    {
+        held.await(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Lets a held worker continue.
+     */
+    public void release()
+    {
+        CountDownLatch currentGate = gate;
+        gate = null;
+        if (currentGate != null)
+        {
+            currentGate.countDown();
+        }
+    }
+
+    /**
+     * Waits until at least count events have been delivered.
+     * 
+     * @param count
+     * @param timeoutMillis
+     * @return a copy of the delivered events
+     * @throws InterruptedException
+     */
+    public synchronized List<DeliveryEvent> awaitDelivered(int count, long timeoutMillis) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (delivered.size() < count && System.currentTimeMillis() < deadline)
+        {
+            wait(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        return new ArrayList<DeliveryEvent>(delivered);
+    }
+
+    /**
+     * @return a copy of the sizes of each batch delivered so far
+     */
+    public synchronized List<Integer> getBatchSizes()
+    {
+        return new ArrayList<Integer>(batchSizes);
+    }
+
+}
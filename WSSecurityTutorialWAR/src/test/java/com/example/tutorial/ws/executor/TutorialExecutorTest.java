@@ -0,0 +1,217 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.executor;
+
+import static org.testng.Assert.*;
+
+import java.net.ServerSocket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.ws.Holder;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.jaxws.JaxWsServerFactoryBean;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.integration.TutorialMessages;
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.RequiredHeaderMissingFault;
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * Unit tests for {@link TutorialExecutor}.  The modes are compared on the real endpoint by
+ * {@link com.example.tutorial.ws.load.ExecutorModeLoadTest}.
+ */
+public class TutorialExecutorTest
+{
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void rejectsWhenSaturatedTest() throws Exception
+    {
+        TutorialExecutor executor = newExecutor(ExecutorMode.BOUNDED, 1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(new Runnable()
+        {
+            public void run()
+            {
+                started.countDown();
+                await(release);
+            }
+        });
+        started.await(5, TimeUnit.SECONDS);
+        executor.execute(new Runnable()
+        {
+            public void run()
+            {
+            }
+        });
+        try
+        {
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                }
+            });
+            fail("Expected the third task to be rejected");
+        }
+        catch (RejectedExecutionException e)
+        {
+            // expected
+        }
+        assertEquals(executor.getRejectedCount(), 1);
+        assertEquals(executor.getQueueDepth(), 1);
+        release.countDown();
+        executor.destroy();
+        assertEquals(executor.getCompletedCount(), 2);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void virtualModeRunsOrFallsBackTest() throws Exception
+    {
+        TutorialExecutor executor = newExecutor(ExecutorMode.VIRTUAL, 2, 2);
+        final CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(new Runnable()
+        {
+            public void run()
+            {
+                ran.countDown();
+            }
+        });
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.getEffectiveMode().equals("VIRTUAL") || executor.getEffectiveMode().equals("BOUNDED"));
+        executor.destroy();
+    }
+
+    /**
+     * A call the endpoint's saturated executor turns away reaches the caller as SystemUnavailableFault, not as a
+     * generic server fault.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "local-integration")
+    public void saturatedEndpointFaultsSystemUnavailableTest() throws Exception
+    {
+        TutorialExecutor executor = newExecutor(ExecutorMode.BOUNDED, 1, 0);
+        BlockingService service = new BlockingService();
+        ServerSocket socket = new ServerSocket(0);
+        String address = "http://localhost:" + socket.getLocalPort() + "/saturated";
+        socket.close();
+        JaxWsServerFactoryBean serverFactory = new JaxWsServerFactoryBean();
+        serverFactory.setServiceClass(TutorialWebService.class);
+        serverFactory.setServiceBean(service);
+        serverFactory.setAddress(address);
+        serverFactory.getFeatures().add(new ExecutorRejectionFeature());
+        Server server = serverFactory.create();
+        server.getEndpoint().getService().setExecutor(executor);
+        JaxWsProxyFactoryBean clientFactory = new JaxWsProxyFactoryBean();
+        clientFactory.setServiceClass(TutorialWebService.class);
+        clientFactory.setAddress(address);
+        final TutorialWebService client = (TutorialWebService)clientFactory.create();
+        final TutorialWebService otherClient = (TutorialWebService)clientFactory.create();
+
+        Thread first = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                send(client);
+            }
+        };
+        try
+        {
+            first.start();
+            assertTrue(service.started.await(10, TimeUnit.SECONDS), "the first call never reached the service");
+            try
+            {
+                otherClient.sendTutorialMessage(TutorialMessages.request(1), TutorialMessages.messageSource(),
+                        new Holder<TutorialResponse>(), new Holder<MessageAcknowledgment>());
+                fail("Expected the second call to be rejected");
+            }
+            catch (SystemUnavailableFault e)
+            {
+                assertEquals(e.getFaultInfo().getMessage(), ExecutorRejectionFeature.MESSAGE);
+            }
+            assertEquals(executor.getRejectedCount(), 1);
+        }
+        finally
+        {
+            service.release.countDown();
+            first.join(10000);
+            server.destroy();
+            executor.destroy();
+        }
+    }
+
+    private static void send(TutorialWebService client)
+    {
+        try
+        {
+            client.sendTutorialMessage(TutorialMessages.request(1), TutorialMessages.messageSource(),
+                    new Holder<TutorialResponse>(), new Holder<MessageAcknowledgment>());
+        }
+        catch (Exception e)
+        {
+            // only the second call is checked
+        }
+    }
+
+    private TutorialExecutor newExecutor(ExecutorMode mode, int poolSize, int queueCapacity) throws Exception
+    {
+        TutorialExecutor executor = new TutorialExecutor();
+        executor.setBeanName("test-" + mode);
+        executor.setMode(mode);
+        executor.setPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.afterPropertiesSet();
+        return executor;
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Holds the first call until released, so the executor's only thread stays busy.
+     */
+    private static class BlockingService implements TutorialWebService
+    {
+
+        final CountDownLatch started = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        public void sendTutorialMessage(TutorialRequest parameters, MessageSource source,
+                Holder<TutorialResponse> response, Holder<MessageAcknowledgment> acknowledgment)
+            throws RequiredHeaderMissingFault, SystemUnavailableFault
+        {
+            started.countDown();
+            await(release);
+        }
+
+    }
+
+}
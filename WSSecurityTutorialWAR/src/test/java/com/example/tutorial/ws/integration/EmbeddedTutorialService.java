@@ -0,0 +1,169 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.integration;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * The service in an embedded Jetty server with the same Spring configuration as the WAR, on a free port, plus a client
+ * context configured by war-spring-test.xml to call it; shared by the load and benchmark tests.  System properties set
+ * through {@link #setSystemProperty(String, String)} before {@link #start()} override the property files, and are put
+ * back by {@link #stop()}, as are the levels of the per-message loggers, which are turned down to WARN so that they
+ * don't dominate measurements.
+ */
+public class EmbeddedTutorialService
+{
+
+    private static final String[] SERVER_CONTEXT = { "classpath:META-INF/cxf/cxf.xml",
+            "classpath:META-INF/cxf/cxf-extension-soap.xml", "classpath:META-INF/cxf/cxf-extension-http-jetty.xml",
+            "classpath:META-INF/cxf/cxf-extension-policy.xml", "classpath:META-INF/cxf/cxf-extension-ws-security.xml",
+            "classpath*:/com/**/war-config.xml", "classpath*:/com/**/cxf-service-config.xml" };
+
+    private static final String[] CLIENT_CONTEXT = { "classpath:META-INF/cxf/cxf.xml",
+            "classpath:META-INF/cxf/cxf-extension-soap.xml", "classpath:META-INF/cxf/cxf-extension-http.xml",
+            "classpath:META-INF/cxf/cxf-extension-policy.xml", "classpath:META-INF/cxf/cxf-extension-ws-security.xml",
+            "classpath*:/com/**/war-spring-test.xml" };
+
+    /** Loggers that log every message. */
+    private static final String[] QUIET_LOGGERS = { "org.apache.cxf",
+            "org.apache.cxf.interceptor.LoggingInInterceptor", "org.apache.cxf.interceptor.LoggingOutInterceptor",
+            "org.apache.cxf.interceptor.AbstractLoggingInterceptor", "com.example.tutorial.ws.TutorialWebServiceImpl" };
+
+    private final Map<String, String> savedProperties = new HashMap<String, String>();
+
+    private final Map<String, Level> savedLevels = new HashMap<String, Level>();
+
+    private ClassPathXmlApplicationContext server;
+
+    private ClassPathXmlApplicationContext client;
+
+    private File configDirectory;
+
+    private String address;
+
+    /**
+     * Starts the server and the client.
+     *
+     * @throws Exception
+     */
+    public void start() throws Exception
+    {
+        configDirectory = new File(getClass().getResource("/TutorialDeploymentPropertyPlaceholders.properties")
+                .toURI()).getParentFile();
+        address = "http://localhost:" + freePort() + "/jaxws/TutorialWebService";
+        setSystemProperty("configDirectory", configDirectory.getAbsolutePath());
+        setSystemProperty("tutorialService.address", address);
+        setSystemProperty("unitTest.testEndpointUrl", address);
+        for (String name : QUIET_LOGGERS)
+        {
+            ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger)LoggerFactory.getLogger(name);
+            savedLevels.put(name, logger.getLevel());
+            logger.setLevel(Level.WARN);
+        }
+        server = new ClassPathXmlApplicationContext(SERVER_CONTEXT);
+        client = new ClassPathXmlApplicationContext(CLIENT_CONTEXT);
+    }
+
+    /**
+     * Stops whatever was started, and restores the system properties and log levels.
+     */
+    public void stop()
+    {
+        if (client != null)
+        {
+            client.close();
+            client = null;
+        }
+        if (server != null)
+        {
+            server.close();
+            server = null;
+        }
+        for (Map.Entry<String, String> entry : savedProperties.entrySet())
+        {
+            if (entry.getValue() == null)
+            {
+                System.clearProperty(entry.getKey());
+            }
+            else
+            {
+                System.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+        savedProperties.clear();
+        for (Map.Entry<String, Level> entry : savedLevels.entrySet())
+        {
+            ((ch.qos.logback.classic.Logger)LoggerFactory.getLogger(entry.getKey())).setLevel(entry.getValue());
+        }
+        savedLevels.clear();
+    }
+
+    /**
+     * @param name
+     * @param value
+     */
+    public void setSystemProperty(String name, String value)
+    {
+        if (!savedProperties.containsKey(name))
+        {
+            savedProperties.put(name, System.getProperty(name));
+        }
+        System.setProperty(name, value);
+    }
+
+    /**
+     * @return the server's context
+     */
+    public ClassPathXmlApplicationContext getServer()
+    {
+        return server;
+    }
+
+    /**
+     * @return the client context, with testClient and testBinaryClient
+     */
+    public ClassPathXmlApplicationContext getClient()
+    {
+        return client;
+    }
+
+    /**
+     * @return the directory holding the deployment properties and keystores
+     */
+    public File getConfigDirectory()
+    {
+        return configDirectory;
+    }
+
+    /**
+     * @return the address of the SOAP port
+     */
+    public String getAddress()
+    {
+        return address;
+    }
+
+    private static int freePort() throws IOException
+    {
+        ServerSocket socket = new ServerSocket(0);
+        try
+        {
+            return socket.getLocalPort();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.integration;
+
+import java.net.URI;
+import java.util.UUID;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+import com.example.tutotial.types.RequestStructure;
+
+/**
+ * Builders for the request body and message-source header, shared by the integration and load tests.
+ */
+public final class TutorialMessages
+{
+
+    private TutorialMessages()
+    {
+    }
+
+    /**
+     * @param tagCount
+     * @return a request with a fresh guid and tags tag:vork:339:#1 ("Some Value 1") through #tagCount
+     */
+    public static TutorialRequest request(int tagCount)
+    {
+        TutorialRequest request = new TutorialRequest();
+        RequestStructure structure = new RequestStructure();
+        structure.setGuid(UUID.randomUUID().toString());
+        for (int i = 1; i <= tagCount; i++)
+        {
+            structure.getTags().add(tag("tag:vork:339:#" + i, "Some Value " + i));
+        }
+        request.setRequestStructure(structure);
+        return request;
+    }
+
+    /**
+     * @return a message-source header from system "test" with a fresh message identifier
+     */
+    public static MessageSource messageSource()
+    {
+        MessageSource source = new MessageSource();
+        source.setMessageIdentifier(UUID.randomUUID().toString());
+        source.setSystemIdentifier("test");
+        return source;
+    }
+
+    /**
+     * @param uriString
+     * @param value
+     * @return
+     */
+    public static RequestStructure.Tag tag(String uriString, String value)
+    {
+        RequestStructure.Tag tag = new RequestStructure.Tag();
+        tag.setUri(URI.create(uriString));
+        tag.setValue(value);
+        return tag;
+    }
+
+}
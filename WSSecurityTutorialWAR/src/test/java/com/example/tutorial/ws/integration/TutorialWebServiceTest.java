@@ -5,16 +5,18 @@ package com.example.tutorial.ws.integration;
 
 import static org.testng.Assert.*;
 
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.UUID;
+import java.net.URL;
 
+import javax.xml.bind.DatatypeConverter;
 import javax.xml.ws.Holder;
+import javax.xml.ws.WebServiceException;
 
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.testng.annotations.Test;
 
+import com.example.tutorial.binary.BinaryTutorialWebServiceClient;
+import com.example.tutorial.binary.FrameSigner;
 import com.example.tutotial.MessageAcknowledgment;
 import com.example.tutotial.MessageSource;
 import com.example.tutotial.RequiredHeaderMissingFault;
@@ -22,7 +24,6 @@ import com.example.tutotial.SystemUnavailableFault;
 import com.example.tutotial.TutorialRequest;
 import com.example.tutotial.TutorialResponse;
 import com.example.tutotial.TutorialWebService;
-import com.example.tutotial.types.RequestStructure;
 
 /**
  * Integration tests (i.e. tests that must be run against a running server).  Uses Spring's test framework,
@@ -51,13 +52,12 @@ public class TutorialWebServiceTest extends AbstractTestNGSpringContextTests
 	}
 	
 	/**
-	 * @throws URISyntaxException 
 	 * @throws SystemUnavailableFault 
 	 * @throws RequiredHeaderMissingFault 
 	 * 
 	 */
 	@Test(groups = "remote-integration")
-	public void basicTest() throws URISyntaxException, RequiredHeaderMissingFault, SystemUnavailableFault {
+	public void basicTest() throws RequiredHeaderMissingFault, SystemUnavailableFault {
 		TutorialRequest request = getRequest();
 		
 		MessageSource source = getMessageSource();
@@ -80,11 +80,10 @@ public class TutorialWebServiceTest extends AbstractTestNGSpringContextTests
 	/**
 	 * @throws SystemUnavailableFault 
 	 * @throws RequiredHeaderMissingFault 
-	 * @throws URISyntaxException 
 	 * 
 	 */
 	@Test(groups = "remote-integration", expectedExceptions = RequiredHeaderMissingFault.class)
-	public void requiredHeaderMissingTest() throws RequiredHeaderMissingFault, SystemUnavailableFault, URISyntaxException {
+	public void requiredHeaderMissingTest() throws RequiredHeaderMissingFault, SystemUnavailableFault {
 		TutorialRequest request = getRequest();
 		
 		MessageSource source = getMessageSource();
@@ -96,13 +95,12 @@ public class TutorialWebServiceTest extends AbstractTestNGSpringContextTests
 	}
 
 	/**
-	 * @throws URISyntaxException 
 	 * @throws SystemUnavailableFault 
 	 * @throws RequiredHeaderMissingFault 
 	 * 
 	 */
 	@Test(groups = "remote-integration", expectedExceptions = SystemUnavailableFault.class)
-	public void systemUnavailableTest() throws URISyntaxException, RequiredHeaderMissingFault, SystemUnavailableFault {
+	public void systemUnavailableTest() throws RequiredHeaderMissingFault, SystemUnavailableFault {
 		TutorialRequest request = getRequest();
 		
 		MessageSource source = getMessageSource();
@@ -114,42 +112,68 @@ public class TutorialWebServiceTest extends AbstractTestNGSpringContextTests
 	}
 
 	/**
-	 * @param uriString
-	 * @param value
+	 * @throws Exception
+	 */
+	@Test(groups = "remote-integration")
+	public void binaryTest() throws Exception {
+		Holder<TutorialResponse> responseHolder = new Holder<TutorialResponse>();
+		Holder<MessageAcknowledgment> acknowledgmentHolder = new Holder<MessageAcknowledgment>();
+		getBinaryPort().sendTutorialMessage(getRequest(), getMessageSource(), responseHolder, acknowledgmentHolder);
+
+		assertEquals(responseHolder.value.getResponseStructure().getResponseCode(), "00000");
+		assertNotNull(responseHolder.value.getResponseStructure().getServerDate());
+		assertEquals(acknowledgmentHolder.value.getSomeMessage(), "WE ACKNOWLEDGE!");
+	}
+
+	/**
+	 * @throws Exception
+	 */
+	@Test(groups = "remote-integration", expectedExceptions = RequiredHeaderMissingFault.class)
+	public void binaryRequiredHeaderMissingTest() throws Exception {
+		MessageSource source = getMessageSource();
+		source.setSystemIdentifier(null);
+		try {
+			getBinaryPort().sendTutorialMessage(getRequest(), source, new Holder<TutorialResponse>(),
+					new Holder<MessageAcknowledgment>());
+		}
+		catch (RequiredHeaderMissingFault e) {
+			assertEquals(e.getFaultInfo().getMissingHeaderName(), "system-identifier");
+			throw e;
+		}
+	}
+
+	/**
+	 * A caller without the shared key is turned away.
+	 *
+	 * @throws Exception
+	 */
+	@Test(groups = "remote-integration", expectedExceptions = WebServiceException.class)
+	public void binaryWrongKeyTest() throws Exception {
+		FrameSigner otherKey = new FrameSigner(DatatypeConverter.printBase64Binary(new byte[32]));
+		new BinaryTutorialWebServiceClient(new URL(applicationContext.getBean("testEndpointUrl", String.class)
+				+ "Binary"), otherKey).sendTutorialMessage(getRequest(), getMessageSource(),
+				new Holder<TutorialResponse>(), new Holder<MessageAcknowledgment>());
+	}
+
+	/**
 	 * @return
-	 * @throws URISyntaxException
 	 */
-	private RequestStructure.Tag newTag(String uriString, String value) throws URISyntaxException {
-		RequestStructure.Tag tag = new RequestStructure.Tag();
-		tag.setUri(new URI(uriString));
-		tag.setValue(value);
-		return tag;
+	public TutorialWebService getBinaryPort() {
+		return applicationContext.getBean("testBinaryClient", TutorialWebService.class);
 	}
 
 	/**
 	 * @return
 	 */
 	private MessageSource getMessageSource() {
-		MessageSource source = new MessageSource();
-		source.setMessageIdentifier(UUID.randomUUID().toString());
-		source.setSystemIdentifier("test");
-		return source;
+		return TutorialMessages.messageSource();
 	}
 
 	/**
 	 * @return
-	 * @throws URISyntaxException
 	 */
-	private TutorialRequest getRequest() throws URISyntaxException {
-		TutorialRequest request = new TutorialRequest();
-		RequestStructure structure = new RequestStructure();
-		structure.setGuid(UUID.randomUUID().toString());
-		structure.getTags().add(newTag("tag:vork:339:#1", "Some Value 1"));
-		structure.getTags().add(newTag("tag:vork:339:#2", "Some Value 2"));
-		structure.getTags().add(newTag("tag:vork:339:#3", "Some Value 3"));
-		structure.getTags().add(newTag("tag:vork:339:#4", "Some Value 4"));
-		request.setRequestStructure(structure);
-		return request;
+	private TutorialRequest getRequest() {
+		return TutorialMessages.request(4);
 	}
 
 }
@@ -0,0 +1,324 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.journal;
+
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.UUID;
+
+import javax.xml.namespace.QName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.types.RequestStructure;
+import com.example.tutotial.types.ResponseStructure;
+
+/**
+ * Unit tests for {@link MessageJournal} and {@link JournalReader}.  The "benchmark" group is not run by default; run it
+ * with -Dgroups=benchmark to print append throughput and latency.
+ */
+public class MessageJournalTest
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private File directory;
+
+    /**
+     * Creates an empty journal directory for each test.
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void createDirectory()
+    {
+        directory = new File(System.getProperty("java.io.tmpdir"), "journal-test-" + UUID.randomUUID());
+    }
+
+    /**
+     * Removes the journal directory.
+     */
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory()
+    {
+        File[] files = directory.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void appendAndReplayTest() throws Exception
+    {
+        MessageJournal journal = newJournal(64 * 1024, true);
+        RequestStructure request = getRequestStructure(3);
+        MessageSource source = getMessageSource();
+        ResponseStructure response = getResponseStructure();
+        long sequence = journal.append(request, source, response);
+        journal.destroy();
+
+        List<JournalRecord> records = readAll(0);
+        assertEquals(records.size(), 1);
+        JournalRecord record = records.get(0);
+        assertEquals(record.getSequence(), sequence);
+        assertEquals(record.getRequestStructure().getGuid(), request.getGuid());
+        assertEquals(record.getRequestStructure().getTags().size(), 3);
+        assertEquals(record.getRequestStructure().getTags().get(2).getUri(), new URI("tag:vork:339:#3"));
+        assertEquals(record.getRequestStructure().getTags().get(2).getValue(), "Some Value 3");
+        assertEquals(record.getMessageSource().getMessageIdentifier(), source.getMessageIdentifier());
+        assertEquals(record.getMessageSource().getSystemIdentifier(), "test");
+        assertEquals(record.getResponseStructure().getResponseCode(), "00000");
+        assertEquals(record.getResponseStructure().getServerDate().getTimeInMillis(),
+                response.getServerDate().getTimeInMillis());
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void rollAndReopenTest() throws Exception
+    {
+        MessageJournal journal = newJournal(4 * 1024, false);
+        for (int i = 0; i < 100; i++)
+        {
+            journal.append(getRequestStructure(4), getMessageSource(), getResponseStructure());
+        }
+        journal.destroy();
+        assertTrue(JournalSegment.listSegmentFiles(directory).length > 1);
+
+        journal = newJournal(4 * 1024, false);
+        assertEquals(journal.append(getRequestStructure(1), getMessageSource(), getResponseStructure()), 100);
+        journal.destroy();
+
+        List<JournalRecord> records = readAll(0);
+        assertEquals(records.size(), 101);
+        for (int i = 0; i < records.size(); i++)
+        {
+            assertEquals(records.get(i).getSequence(), i);
+        }
+        assertEquals(readAll(95).size(), 6);
+    }
+
+    /**
+     * A MessageSource attribute has no length limit in the schema, so one far beyond writeUTF's 64 KB must journal.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void largeAttributeTest() throws Exception
+    {
+        char[] chars = new char[70 * 1024];
+        Arrays.fill(chars, '\u00e9');
+        String value = new String(chars);
+        MessageSource source = getMessageSource();
+        source.getOtherAttributes().put(new QName("urn:test", "note"), value);
+
+        MessageJournal journal = newJournal(1024 * 1024, true);
+        journal.append(getRequestStructure(1), source, getResponseStructure());
+        journal.destroy();
+
+        List<JournalRecord> records = readAll(0);
+        assertEquals(records.size(), 1);
+        assertEquals(records.get(0).getMessageSource().getOtherAttributes().get(new QName("urn:test", "note")), value);
+    }
+
+    /**
+     * A record torn by a crash is cut off on reopen: the intact records before it survive, and the next append takes
+     * the torn record's sequence.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void tornRecordRecoveryTest() throws Exception
+    {
+        MessageJournal journal = newJournal(64 * 1024, true);
+        for (int i = 0; i < 5; i++)
+        {
+            journal.append(getRequestStructure(2), getMessageSource(), getResponseStructure());
+        }
+        journal.destroy();
+        File segment = JournalSegment.listSegmentFiles(directory)[0];
+        long end = endOfRecords(segment);
+
+        // corrupt one byte of the last record's payload, as a write cut short would leave it
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try
+        {
+            file.seek(end - 1);
+            int last = file.read();
+            file.seek(end - 1);
+            file.write(last ^ 0xff);
+        }
+        finally
+        {
+            file.close();
+        }
+        journal = newJournal(64 * 1024, true);
+        assertEquals(journal.append(getRequestStructure(1), getMessageSource(), getResponseStructure()), 4);
+        journal.destroy();
+        List<JournalRecord> records = readAll(0);
+        assertEquals(records.size(), 5);
+        assertEquals(records.get(4).getRequestStructure().getTags().size(), 1);
+    }
+
+    /**
+     * A segment file cut short in the middle of a record, e.g. by a copy or a full disk, reopens at the last whole
+     * record.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void truncatedSegmentRecoveryTest() throws Exception
+    {
+        MessageJournal journal = newJournal(64 * 1024, true);
+        for (int i = 0; i < 5; i++)
+        {
+            journal.append(getRequestStructure(2), getMessageSource(), getResponseStructure());
+        }
+        journal.destroy();
+        File segment = JournalSegment.listSegmentFiles(directory)[0];
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try
+        {
+            file.setLength(endOfRecords(segment) - 10);
+        }
+        finally
+        {
+            file.close();
+        }
+        assertEquals(readAll(0).size(), 4);
+
+        journal = newJournal(64 * 1024, true);
+        assertEquals(journal.append(getRequestStructure(1), getMessageSource(), getResponseStructure()), 4);
+        journal.destroy();
+        assertEquals(readAll(0).size(), 5);
+    }
+
+    /**
+     * @return the offset just past the last record in a segment file
+     */
+    private long endOfRecords(File segment) throws IOException
+    {
+        RandomAccessFile file = new RandomAccessFile(segment, "r");
+        try
+        {
+            long offset = 0;
+            int length;
+            while ((length = file.readInt()) > 0)
+            {
+                offset += JournalSegment.HEADER_LENGTH + length;
+                file.seek(offset);
+            }
+            return offset;
+        }
+        finally
+        {
+            file.close();
+        }
+    }
+
+    /**
+     * Prints appends/sec and the mean latency each append adds to the calling thread.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void appendBenchmark() throws Exception
+    {
+        RequestStructure request = getRequestStructure(4);
+        MessageSource source = getMessageSource();
+        ResponseStructure response = getResponseStructure();
+        for (boolean awaitFlush : new boolean[] { false, true })
+        {
+            MessageJournal journal = newJournal(64 * 1024 * 1024, awaitFlush);
+            int count = awaitFlush ? 2000 : 200000;
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++)
+            {
+                journal.append(request, source, response);
+            }
+            long elapsed = System.nanoTime() - start;
+            journal.destroy();
+            log.info("awaitFlush={}: {} appends/sec, {} us/append", new Object[] { awaitFlush,
+                    count * 1000000000L / elapsed, elapsed / 1000 / (double)count });
+            deleteDirectory();
+        }
+    }
+
+    private MessageJournal newJournal(int segmentSize, boolean awaitFlush) throws Exception
+    {
+        MessageJournal journal = new MessageJournal();
+        journal.setDirectory(directory);
+        journal.setSegmentSize(segmentSize);
+        journal.setFlushIntervalMillis(1);
+        journal.setAwaitFlush(awaitFlush);
+        journal.afterPropertiesSet();
+        return journal;
+    }
+
+    private List<JournalRecord> readAll(long fromSequence) throws IOException
+    {
+        final List<JournalRecord> records = new ArrayList<JournalRecord>();
+        new JournalReader(directory).replayFrom(fromSequence, new JournalRecordHandler()
+        {
+            public boolean handle(JournalRecord record)
+            {
+                records.add(record);
+                return true;
+            }
+        });
+        return records;
+    }
+
+    private RequestStructure getRequestStructure(int tagCount) throws Exception
+    {
+        RequestStructure structure = new RequestStructure();
+        structure.setGuid(UUID.randomUUID().toString());
+        for (int i = 1; i <= tagCount; i++)
+        {
+            RequestStructure.Tag tag = new RequestStructure.Tag();
+            tag.setUri(new URI("tag:vork:339:#" + i));
+            tag.setValue("Some Value " + i);
+            structure.getTags().add(tag);
+        }
+        return structure;
+    }
+
+    private MessageSource getMessageSource()
+    {
+        MessageSource source = new MessageSource();
+        source.setMessageIdentifier(UUID.randomUUID().toString());
+        source.setSystemIdentifier("test");
+        return source;
+    }
+
+    private ResponseStructure getResponseStructure()
+    {
+        ResponseStructure responseStructure = new ResponseStructure();
+        responseStructure.setResponseCode("00000");
+        responseStructure.setResponseMessage("SUCCESS!");
+        responseStructure.setServerDate(Calendar.getInstance());
+        return responseStructure;
+    }
+
+}
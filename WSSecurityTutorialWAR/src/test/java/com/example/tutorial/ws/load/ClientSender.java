@@ -0,0 +1,105 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.xml.ws.Holder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.tutorial.ws.integration.TutorialMessages;
+import com.example.tutorial.ws.load.RequestKind.Outcome;
+import com.example.tutotial.MessageAcknowledgment;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.RequiredHeaderMissingFault;
+import com.example.tutotial.SystemUnavailableFault;
+import com.example.tutotial.TutorialResponse;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * Sends each kind of request through a (secured) client port and classifies the result; the first unexpected failure
+ * is logged in full.
+ */
+public class ClientSender implements RequestSender
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final TutorialWebService port;
+
+    private final int tagCount;
+
+    private final AtomicBoolean errorLogged = new AtomicBoolean();
+
+    /**
+     * @param port
+     * @param tagCount the number of tags in each request
+     */
+    public ClientSender(TutorialWebService port, int tagCount)
+    {
+        this.port = port;
+        this.tagCount = tagCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see com.example.tutorial.ws.load.RequestSender#send(com.example.tutorial.ws.load.RequestKind)
+     */
+    public Outcome send(RequestKind kind)
+    {
+        MessageSource source = TutorialMessages.messageSource();
+        switch (kind)
+        {
+            case SYSTEM_FAILURE:
+                source.setMessageIdentifier("SYSTEM FAILURE");
+                break;
+            case MISSING_MESSAGE_IDENTIFIER:
+                source.setMessageIdentifier(null);
+                break;
+            case MISSING_SYSTEM_IDENTIFIER:
+                source.setSystemIdentifier(null);
+                break;
+            default:
+                break;
+        }
+        Holder<TutorialResponse> responseHolder = new Holder<TutorialResponse>();
+        Holder<MessageAcknowledgment> acknowledgmentHolder = new Holder<MessageAcknowledgment>();
+        try
+        {
+            port.sendTutorialMessage(TutorialMessages.request(tagCount), source, responseHolder, acknowledgmentHolder);
+            TutorialResponse response = responseHolder.value;
+            if (response == null || response.getResponseStructure() == null
+                    || !"00000".equals(response.getResponseStructure().getResponseCode()))
+            {
+                return error(kind, "malformed response", null);
+            }
+            return Outcome.SUCCESS;
+        }
+        catch (SystemUnavailableFault e)
+        {
+            return Outcome.SYSTEM_UNAVAILABLE;
+        }
+        catch (RequiredHeaderMissingFault e)
+        {
+            return Outcome.REQUIRED_HEADER_MISSING;
+        }
+        catch (RuntimeException e)
+        {
+            return error(kind, e.toString(), e);
+        }
+    }
+
+    private Outcome error(RequestKind kind, String message, Exception e)
+    {
+        if (errorLogged.compareAndSet(false, true))
+        {
+            log.error("First unexpected failure, for a " + kind + " request: " + message, e);
+        }
+        return Outcome.ERROR;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.executor.ExecutorMode;
+import com.example.tutorial.ws.executor.TutorialExecutor;
+import com.example.tutorial.ws.integration.EmbeddedTutorialService;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * <p>
+ * Compares the endpoint executor modes (see {@link ExecutorMode}) on the real endpoint: for each mode the service is
+ * started in embedded Jetty with executor.tutorialService.mode set to it, and driven through the secured testClient by
+ * the same {@link LoadGenerator} profile as {@link TutorialLoadTest}.  Each mode's results are written to
+ * target/load-report-&lt;mode&gt;.properties and summarised in the log.
+ * </p>
+ * <p>
+ * The "benchmark" group is not run by default; run it with -Dgroups=benchmark, overriding the profile with
+ * -DloadTest.&lt;name&gt; as for the load test (a higher rate than the baseline's is what separates the modes).  Keep
+ * in mind when reading the numbers that CXF waits on the executor's task from the container thread, so a mode other
+ * than INLINE bounds the endpoint's concurrency but does not free Jetty's threads.
+ * </p>
+ */
+public class ExecutorModeLoadTest
+{
+
+    private static final String BASELINE = "/com/example/tutorial/load/load-baseline.properties";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void executorModeBenchmark() throws Exception
+    {
+        LoadProfile profile = new LoadProfile(load(BASELINE));
+        StringBuilder summary = new StringBuilder();
+        for (ExecutorMode mode : ExecutorMode.values())
+        {
+            EmbeddedTutorialService service = new EmbeddedTutorialService();
+            service.setSystemProperty("executor.tutorialService.mode", mode.name());
+            try
+            {
+                service.start();
+                String effectiveMode = service.getServer().getBean("tutorialServiceExecutor", TutorialExecutor.class)
+                        .getEffectiveMode();
+                LoadResult result = new LoadGenerator(60).run(profile, new ClientSender(service.getClient().getBean(
+                        "testClient", TutorialWebService.class), profile.getTagCount()));
+                writeReport(result, new File(service.getConfigDirectory().getParentFile(), "load-report-"
+                        + mode.name().toLowerCase(Locale.ENGLISH) + ".properties"));
+                summary.append(String.format(Locale.ENGLISH,
+                        "%n  %-8s (%-8s) achieved %8.2f/s  p50 %8.3fms  p99 %8.3fms  unexpected %d  incomplete %d",
+                        mode, effectiveMode, result.getAchievedRate(),
+                        result.getOverall().getValueAtPercentile(50) / 1000.0,
+                        result.getOverall().getValueAtPercentile(99) / 1000.0, result.getUnexpectedCount(),
+                        result.getIncompleteCount()));
+            }
+            finally
+            {
+                service.stop();
+            }
+        }
+        log.info("Executor modes at {}:{}", profile, summary);
+    }
+
+    private void writeReport(LoadResult result, File report) throws IOException
+    {
+        OutputStream out = new FileOutputStream(report);
+        try
+        {
+            result.toProperties().store(out, result.getProfile().toString());
+        }
+        finally
+        {
+            out.close();
+        }
+        log.info("Load test results written to {}", report);
+    }
+
+    private Properties load(String resource) throws IOException
+    {
+        InputStream in = getClass().getResourceAsStream(resource);
+        assertNotNull(in, resource + " is missing");
+        try
+        {
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+}
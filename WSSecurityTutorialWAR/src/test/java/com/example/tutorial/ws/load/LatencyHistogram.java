@@ -0,0 +1,168 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A fixed-size, log-linear latency histogram in microseconds, in the manner of HdrHistogram: values below 128 are
+ * counted exactly, and above that each power of two is split into 64 buckets, so a recorded value is off by at most
+ * about 1.6%.  Recording is lock-free and can be done from any number of threads.
+ * </p>
+ * <p>
+ * The histogram itself does no coordinated-omission correction; {@link LoadGenerator} records each latency from the
+ * time the request was <em>scheduled</em> to be sent, not the time it actually went out, so time a request spends
+ * waiting behind a stalled service or a busy sender thread is counted.
+ * </p>
+ */
+public class LatencyHistogram
+{
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    private final AtomicLong totalMicros = new AtomicLong();
+
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * @param micros the latency; negative values are counted as 0
+     */
+    public void record(long micros)
+    {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        for (;;)
+        {
+            long max = maxMicros.get();
+            if (value <= max || maxMicros.compareAndSet(max, value))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param other a histogram whose counts are added to this one
+     */
+    public void add(LatencyHistogram other)
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            long count = other.counts.get(i);
+            if (count != 0)
+            {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        long otherMax = other.maxMicros.get();
+        for (;;)
+        {
+            long max = maxMicros.get();
+            if (otherMax <= max || maxMicros.compareAndSet(max, otherMax))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the value at or below which the given percentage of recorded values fall, in microseconds
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long total = totalCount.get();
+        if (total == 0)
+        {
+            return 0;
+        }
+        long target = Math.max(1, (long)Math.ceil(total * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts.get(i);
+            if (seen >= target)
+            {
+                return Math.min(highestValueAt(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount()
+    {
+        return totalCount.get();
+    }
+
+    /**
+     * @return the mean of the recorded values in microseconds
+     */
+    public double getMean()
+    {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double)totalMicros.get() / count;
+    }
+
+    /**
+     * @return the largest value recorded, in microseconds
+     */
+    public long getMax()
+    {
+        return maxMicros.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("count=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                getCount(), getMean() / 1000.0, getValueAtPercentile(50) / 1000.0, getValueAtPercentile(90) / 1000.0,
+                getValueAtPercentile(99) / 1000.0, getValueAtPercentile(99.9) / 1000.0, getMax() / 1000.0);
+    }
+
+    static int indexOf(long value)
+    {
+        if (value < LINEAR_LIMIT)
+        {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int)((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestValueAt(int index)
+    {
+        if (index < LINEAR_LIMIT)
+        {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.tutorial.ws.load.RequestKind.Outcome;
+
+/**
+ * <p>
+ * An open-loop load generator: request <em>i</em> is scheduled for start + i / rate, whatever happened to the
+ * requests before it, and is handed to a pool of sender threads through an unbounded queue.  A slow response
+ * therefore does not slow the arrival of later requests, as it would with a closed loop of callers each waiting for
+ * its previous answer.
+ * </p>
+ * <p>
+ * Each latency is measured from the scheduled time, not from when a sender thread got round to the request, which
+ * corrects for coordinated omission: if the service stalls for a second, every request that should have been sent in
+ * that second is counted as having waited for it.
+ * </p>
+ * <p>
+ * Requests in the warmup period are sent but not recorded.
+ * </p>
+ */
+public class LoadGenerator
+{
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final long completionTimeoutSeconds;
+
+    /**
+     * @param completionTimeoutSeconds how long to wait for outstanding requests after the last one is scheduled
+     */
+    public LoadGenerator(long completionTimeoutSeconds)
+    {
+        this.completionTimeoutSeconds = completionTimeoutSeconds;
+    }
+
+    /**
+     * @param profile
+     * @param sender
+     * @return the measurements
+     * @throws InterruptedException
+     */
+    public LoadResult run(LoadProfile profile, final RequestSender sender) throws InterruptedException
+    {
+        final LoadResult result = new LoadResult(profile);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(profile.getThreads(), profile.getThreads(), 0L,
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new SenderThreadFactory());
+        executor.prestartAllCoreThreads();
+
+        Random random = new Random(profile.getSeed());
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / profile.getRate();
+        long warmupCount = (long)profile.getRate() * profile.getWarmupSeconds();
+        long totalCount = warmupCount + (long)profile.getRate() * profile.getDurationSeconds();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong lastCompletion = new AtomicLong();
+
+        long start = System.nanoTime();
+        final long measureStart = start + warmupCount * periodNanos;
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+        log.info("Starting load run: {}", profile);
+        for (long i = 0; i < totalCount; i++)
+        {
+            final long intended = start + i * periodNanos;
+            long now;
+            while ((now = System.nanoTime()) < intended)
+            {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (now >= nextProgress)
+            {
+                log.info("Scheduled {} of {} requests, {} completed, {} queued", new Object[] { i, totalCount,
+                        completed.get(), executor.getQueue().size() });
+                nextProgress += PROGRESS_INTERVAL_NANOS;
+            }
+            final RequestKind kind = pick(random, profile);
+            final boolean measured = i >= warmupCount;
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    Outcome outcome;
+                    try
+                    {
+                        outcome = sender.send(kind);
+                    }
+                    catch (Exception e)
+                    {
+                        log.debug("Request failed", e);
+                        outcome = Outcome.ERROR;
+                    }
+                    long finished = System.nanoTime();
+                    if (measured)
+                    {
+                        result.record(kind, outcome, TimeUnit.NANOSECONDS.toMicros(finished - intended));
+                        advance(lastCompletion, finished);
+                    }
+                    completed.incrementAndGet();
+                }
+            });
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(completionTimeoutSeconds, TimeUnit.SECONDS))
+        {
+            log.warn("Gave up waiting for {} outstanding requests", totalCount - completed.get());
+            executor.shutdownNow();
+            executor.awaitTermination(completionTimeoutSeconds, TimeUnit.SECONDS);
+        }
+        result.setIncomplete(totalCount - completed.get());
+        long measuredCount = result.getOverall().getCount();
+        long measuredNanos = Math.max(lastCompletion.get() - measureStart, periodNanos);
+        result.setAchievedRate(measuredCount * (double)TimeUnit.SECONDS.toNanos(1) / measuredNanos);
+        log.info("Finished load run:\n{}", result);
+        return result;
+    }
+
+    private static void advance(AtomicLong latest, long value)
+    {
+        for (;;)
+        {
+            long current = latest.get();
+            if (value <= current || latest.compareAndSet(current, value))
+            {
+                return;
+            }
+        }
+    }
+
+    private static RequestKind pick(Random random, LoadProfile profile)
+    {
+        int roll = random.nextInt(100);
+        if (roll < profile.getSystemFailurePercent())
+        {
+            return RequestKind.SYSTEM_FAILURE;
+        }
+        if (roll < profile.getSystemFailurePercent() + profile.getMissingHeaderPercent())
+        {
+            return random.nextBoolean() ? RequestKind.MISSING_MESSAGE_IDENTIFIER
+                    : RequestKind.MISSING_SYSTEM_IDENTIFIER;
+        }
+        return RequestKind.NORMAL;
+    }
+
+    private static class SenderThreadFactory implements ThreadFactory
+    {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, "load-sender-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import static org.testng.Assert.*;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.load.RequestKind.Outcome;
+
+/**
+ * Unit tests for {@link LoadGenerator}, {@link LoadResult} and {@link LatencyHistogram}, against a stub sender.
+ */
+public class LoadGeneratorTest
+{
+
+    /**
+     * One stall in a single-threaded sender must show up in the latencies of every request scheduled while it lasted,
+     * not just the one that stalled.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void correctsForCoordinatedOmissionTest() throws Exception
+    {
+        final AtomicBoolean stalled = new AtomicBoolean();
+        LoadResult result = new LoadGenerator(30).run(profile(200, 1, 0, 0), new RequestSender()
+        {
+            public Outcome send(RequestKind kind) throws Exception
+            {
+                if (stalled.compareAndSet(false, true))
+                {
+                    Thread.sleep(300);
+                }
+                return kind.getExpected();
+            }
+        });
+        LatencyHistogram histogram = result.getHistogram(RequestKind.NORMAL);
+        assertEquals(histogram.getCount(), 200);
+        assertEquals(result.getUnexpectedCount(), 0);
+        assertEquals(result.getIncompleteCount(), 0);
+        assertTrue(histogram.getMax() >= 290000, histogram.toString());
+        // About 60 of the 200 requests were scheduled during the stall; a closed-loop measurement would put p90 near 0
+        assertTrue(histogram.getValueAtPercentile(90) > 100000, histogram.toString());
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void countsUnexpectedOutcomesTest() throws Exception
+    {
+        LoadResult result = new LoadGenerator(30).run(profile(500, 1, 20, 20), new RequestSender()
+        {
+            public Outcome send(RequestKind kind) throws Exception
+            {
+                if (kind == RequestKind.SYSTEM_FAILURE)
+                {
+                    return Outcome.SUCCESS;
+                }
+                if (kind == RequestKind.MISSING_SYSTEM_IDENTIFIER)
+                {
+                    throw new IllegalStateException("Simulated transport failure");
+                }
+                return kind.getExpected();
+            }
+        });
+        long systemFailures = result.getHistogram(RequestKind.SYSTEM_FAILURE).getCount();
+        long missingSystem = result.getHistogram(RequestKind.MISSING_SYSTEM_IDENTIFIER).getCount();
+        assertTrue(systemFailures > 0);
+        assertTrue(missingSystem > 0);
+        assertTrue(result.getHistogram(RequestKind.MISSING_MESSAGE_IDENTIFIER).getCount() > 0);
+        assertEquals(result.getUnexpectedCount(), systemFailures + missingSystem);
+        assertEquals(result.getOutcomeCount(Outcome.ERROR), missingSystem);
+        assertEquals(result.getOverall().getCount(), 500);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void findsRegressionsTest() throws Exception
+    {
+        LoadResult result = new LoadResult(profile(10, 1, 0, 0));
+        for (int i = 1; i <= 100; i++)
+        {
+            result.record(RequestKind.NORMAL, Outcome.SUCCESS, i * 1000L);
+        }
+        result.setAchievedRate(10);
+        Properties current = result.toProperties();
+        assertEquals(Double.parseDouble(current.getProperty("normal.p50")), 50.0, 50.0 / 64);
+        assertEquals(current.getProperty("normal.p99_9"), "100.000");
+
+        Properties baseline = new Properties();
+        baseline.setProperty("normal.p50", "40.000");
+        baseline.setProperty("normal.p99", "99.000");
+        baseline.setProperty("normal.max", "1.000");
+        baseline.setProperty("achievedRate", "10.000");
+        assertTrue(result.findRegressions(baseline, 50, 0).isEmpty());
+
+        baseline.setProperty("normal.p50", "30.000");
+        baseline.setProperty("achievedRate", "25.000");
+        List<String> regressions = result.findRegressions(baseline, 50, 0);
+        assertEquals(regressions.size(), 2, regressions.toString());
+        assertTrue(result.findRegressions(baseline, 50, 25).size() == 1);
+    }
+
+    /**
+     * 
+     */
+    @Test(groups = "unit")
+    public void histogramAccuracyTest()
+    {
+        for (long value = 0; value < 1L << 40; value = value * 3 / 2 + 1)
+        {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestValueAt(index);
+            assertTrue(highest >= value, "value " + value);
+            assertTrue(highest - value <= value / 64, "value " + value + " highest " + highest);
+            assertEquals(LatencyHistogram.indexOf(highest), index);
+            assertEquals(LatencyHistogram.indexOf(highest + 1), index + 1);
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++)
+        {
+            histogram.record(i);
+        }
+        assertEquals((double)histogram.getValueAtPercentile(50), 5000.0, 5000.0 / 64);
+        assertEquals(histogram.getValueAtPercentile(100), 10000L);
+        assertEquals(histogram.getMean(), 5000.5, 0.001);
+    }
+
+    private static LoadProfile profile(int rate, int durationSeconds, int systemFailurePercent,
+            int missingHeaderPercent)
+    {
+        Properties properties = new Properties();
+        properties.setProperty("rate", Integer.toString(rate));
+        properties.setProperty("warmupSeconds", "0");
+        properties.setProperty("durationSeconds", Integer.toString(durationSeconds));
+        properties.setProperty("tagCount", "1");
+        properties.setProperty("systemFailurePercent", Integer.toString(systemFailurePercent));
+        properties.setProperty("missingHeaderPercent", Integer.toString(missingHeaderPercent));
+        properties.setProperty("threads", "1");
+        properties.setProperty("seed", "1");
+        return new LoadProfile(properties);
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import java.util.Properties;
+
+/**
+ * The shape of a load run: a constant request rate, a warmup that is not measured, a measured duration, the number of
+ * tags per request and the share of requests that should fault.  Each value is read from the loadTest.&lt;name&gt;
+ * system property, falling back to the given defaults (normally the baseline file the results are compared with).
+ */
+public class LoadProfile
+{
+
+    private final int rate;
+
+    private final int warmupSeconds;
+
+    private final int durationSeconds;
+
+    private final int tagCount;
+
+    private final int systemFailurePercent;
+
+    private final int missingHeaderPercent;
+
+    private final int threads;
+
+    private final long seed;
+
+    /**
+     * @param defaults
+     */
+    public LoadProfile(Properties defaults)
+    {
+        this(defaults, true);
+    }
+
+    /**
+     * @param defaults
+     * @param overridable false to ignore the loadTest.* system properties
+     */
+    public LoadProfile(Properties defaults, boolean overridable)
+    {
+        rate = read(defaults, "rate", overridable);
+        warmupSeconds = read(defaults, "warmupSeconds", overridable);
+        durationSeconds = read(defaults, "durationSeconds", overridable);
+        tagCount = read(defaults, "tagCount", overridable);
+        systemFailurePercent = read(defaults, "systemFailurePercent", overridable);
+        missingHeaderPercent = read(defaults, "missingHeaderPercent", overridable);
+        threads = read(defaults, "threads", overridable);
+        seed = read(defaults, "seed", overridable);
+        if (rate <= 0 || threads <= 0 || systemFailurePercent + missingHeaderPercent > 100)
+        {
+            throw new IllegalArgumentException("Invalid load profile: " + this);
+        }
+    }
+
+    private static int read(Properties defaults, String name, boolean overridable)
+    {
+        String value = overridable ? System.getProperty("loadTest." + name, defaults.getProperty(name)) : defaults
+                .getProperty(name);
+        if (value == null)
+        {
+            throw new IllegalArgumentException("No value for load profile setting " + name);
+        }
+        return Integer.parseInt(value.trim());
+    }
+
+    /**
+     * @param other
+     * @return true if results from the two profiles can be compared: same rate, tags and fault mix
+     */
+    public boolean isComparableTo(LoadProfile other)
+    {
+        return rate == other.rate && tagCount == other.tagCount && systemFailurePercent == other.systemFailurePercent
+                && missingHeaderPercent == other.missingHeaderPercent;
+    }
+
+    /**
+     * @return the settings, under the names they are read from
+     */
+    public Properties toProperties()
+    {
+        Properties properties = new Properties();
+        properties.setProperty("rate", Integer.toString(rate));
+        properties.setProperty("warmupSeconds", Integer.toString(warmupSeconds));
+        properties.setProperty("durationSeconds", Integer.toString(durationSeconds));
+        properties.setProperty("tagCount", Integer.toString(tagCount));
+        properties.setProperty("systemFailurePercent", Integer.toString(systemFailurePercent));
+        properties.setProperty("missingHeaderPercent", Integer.toString(missingHeaderPercent));
+        properties.setProperty("threads", Integer.toString(threads));
+        properties.setProperty("seed", Long.toString(seed));
+        return properties;
+    }
+
+    /**
+     * @return the requests per second
+     */
+    public int getRate()
+    {
+        return rate;
+    }
+
+    /**
+     * @return the warmupSeconds
+     */
+    public int getWarmupSeconds()
+    {
+        return warmupSeconds;
+    }
+
+    /**
+     * @return the durationSeconds
+     */
+    public int getDurationSeconds()
+    {
+        return durationSeconds;
+    }
+
+    /**
+     * @return the tagCount
+     */
+    public int getTagCount()
+    {
+        return tagCount;
+    }
+
+    /**
+     * @return the systemFailurePercent
+     */
+    public int getSystemFailurePercent()
+    {
+        return systemFailurePercent;
+    }
+
+    /**
+     * @return the missingHeaderPercent
+     */
+    public int getMissingHeaderPercent()
+    {
+        return missingHeaderPercent;
+    }
+
+    /**
+     * @return the most requests that may be outstanding at once
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * @return the seed for the fault mix
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "rate=" + rate + "/s warmup=" + warmupSeconds + "s duration=" + durationSeconds + "s tags=" + tagCount
+                + " systemFailure=" + systemFailurePercent + "% missingHeader=" + missingHeaderPercent + "% threads="
+                + threads;
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.tutorial.ws.load.RequestKind.Outcome;
+
+/**
+ * What a {@link LoadGenerator} run measured: a latency histogram per request kind (and overall), the outcomes, and
+ * the rate actually achieved.  Can be written out as properties in the same form as the checked-in baseline, and
+ * compared against it.
+ */
+public class LoadResult
+{
+
+    private static final double[] REPORTED_PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final LoadProfile profile;
+
+    private final Map<RequestKind, LatencyHistogram> histograms = new EnumMap<RequestKind, LatencyHistogram>(
+            RequestKind.class);
+
+    private final Map<Outcome, AtomicLong> outcomes = new EnumMap<Outcome, AtomicLong>(Outcome.class);
+
+    private final AtomicLong unexpected = new AtomicLong();
+
+    private volatile long incomplete;
+
+    private volatile double achievedRate;
+
+    /**
+     * @param profile
+     */
+    public LoadResult(LoadProfile profile)
+    {
+        this.profile = profile;
+        for (RequestKind kind : RequestKind.values())
+        {
+            histograms.put(kind, new LatencyHistogram());
+        }
+        for (Outcome outcome : Outcome.values())
+        {
+            outcomes.put(outcome, new AtomicLong());
+        }
+    }
+
+    void record(RequestKind kind, Outcome outcome, long micros)
+    {
+        histograms.get(kind).record(micros);
+        outcomes.get(outcome).incrementAndGet();
+        if (outcome != kind.getExpected())
+        {
+            unexpected.incrementAndGet();
+        }
+    }
+
+    void setIncomplete(long incomplete)
+    {
+        this.incomplete = incomplete;
+    }
+
+    void setAchievedRate(double achievedRate)
+    {
+        this.achievedRate = achievedRate;
+    }
+
+    /**
+     * @return the profile the run used
+     */
+    public LoadProfile getProfile()
+    {
+        return profile;
+    }
+
+    /**
+     * @param kind
+     * @return the latencies of the measured requests of the given kind
+     */
+    public LatencyHistogram getHistogram(RequestKind kind)
+    {
+        return histograms.get(kind);
+    }
+
+    /**
+     * @return the latencies of all measured requests
+     */
+    public LatencyHistogram getOverall()
+    {
+        LatencyHistogram overall = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms.values())
+        {
+            overall.add(histogram);
+        }
+        return overall;
+    }
+
+    /**
+     * @param outcome
+     * @return how many measured requests ended that way
+     */
+    public long getOutcomeCount(Outcome outcome)
+    {
+        return outcomes.get(outcome).get();
+    }
+
+    /**
+     * @return the number of measured requests whose outcome was not the one expected for their kind
+     */
+    public long getUnexpectedCount()
+    {
+        return unexpected.get();
+    }
+
+    /**
+     * @return the number of requests still outstanding when the run gave up waiting for them
+     */
+    public long getIncompleteCount()
+    {
+        return incomplete;
+    }
+
+    /**
+     * @return measured requests completed per second
+     */
+    public double getAchievedRate()
+    {
+        return achievedRate;
+    }
+
+    /**
+     * @return the results as properties: &lt;kind&gt;.p50 (etc., in milliseconds), &lt;kind&gt;.count, achievedRate,
+     *         unexpected and incomplete, with kind one of overall, normal, system_failure, ..., plus the profile's
+     *         settings, so that a report can be read back as a {@link LoadProfile} and compared with
+     */
+    public Properties toProperties()
+    {
+        Properties properties = profile.toProperties();
+        put(properties, "overall", getOverall());
+        for (Map.Entry<RequestKind, LatencyHistogram> entry : histograms.entrySet())
+        {
+            put(properties, entry.getKey().name().toLowerCase(Locale.ENGLISH), entry.getValue());
+        }
+        properties.setProperty("achievedRate", format(achievedRate));
+        properties.setProperty("unexpected", Long.toString(getUnexpectedCount()));
+        properties.setProperty("incomplete", Long.toString(incomplete));
+        return properties;
+    }
+
+    private static void put(Properties properties, String prefix, LatencyHistogram histogram)
+    {
+        properties.setProperty(prefix + ".count", Long.toString(histogram.getCount()));
+        for (double percentile : REPORTED_PERCENTILES)
+        {
+            properties.setProperty(prefix + ".p" + format(percentile).replaceAll("\\.?0+$", "").replace('.', '_'),
+                    format(histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        properties.setProperty(prefix + ".max", format(histogram.getMax() / 1000.0));
+    }
+
+    private static String format(double value)
+    {
+        return String.format(Locale.ENGLISH, "%.3f", value);
+    }
+
+    /**
+     * Compares this run with a baseline, normally the report of a reference run on the same machine.  Only the latency
+     * percentiles (keys ending in .p&lt;n&gt;) and achievedRate present in the baseline are checked, so a baseline can
+     * be trimmed to the numbers that are stable.
+     * 
+     * @param baseline results from an earlier run, as written by {@link #toProperties()}
+     * @param regressionPercent how much worse than the baseline a number may be
+     * @param floorMillis an absolute allowance for latencies, so that very small baselines are not flagged on noise
+     * @return a description of each number that regressed; empty if none did
+     */
+    public List<String> findRegressions(Properties baseline, double regressionPercent, double floorMillis)
+    {
+        List<String> regressions = new ArrayList<String>();
+        Properties current = toProperties();
+        for (String key : baseline.stringPropertyNames())
+        {
+            if (key.matches("[a-z_]+\\.p[0-9_]+") && current.containsKey(key))
+            {
+                double expected = Double.parseDouble(baseline.getProperty(key));
+                double actual = Double.parseDouble(current.getProperty(key));
+                double limit = Math.max(expected * (1 + regressionPercent / 100.0), expected + floorMillis);
+                if (actual > limit)
+                {
+                    regressions.add(key + " was " + format(actual) + "ms, baseline " + format(expected)
+                            + "ms, limit " + format(limit) + "ms");
+                }
+            }
+        }
+        String baselineRate = baseline.getProperty("achievedRate");
+        if (baselineRate != null)
+        {
+            double expected = Double.parseDouble(baselineRate);
+            double limit = expected * (1 - regressionPercent / 100.0);
+            if (achievedRate < limit)
+            {
+                regressions.add("achievedRate was " + format(achievedRate) + "/s, baseline " + format(expected)
+                        + "/s, limit " + format(limit) + "/s");
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append(profile).append('\n');
+        builder.append(String.format(Locale.ENGLISH, "achieved %.2f/s, outcomes %s, unexpected %d, incomplete %d%n",
+                achievedRate, outcomes, getUnexpectedCount(), incomplete));
+        builder.append("  overall ").append(getOverall());
+        for (Map.Entry<RequestKind, LatencyHistogram> entry : histograms.entrySet())
+        {
+            if (entry.getValue().getCount() > 0)
+            {
+                builder.append('\n').append("  ").append(entry.getKey()).append(' ').append(entry.getValue());
+            }
+        }
+        return builder.toString();
+    }
+
+}
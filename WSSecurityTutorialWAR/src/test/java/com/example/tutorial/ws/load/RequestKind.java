@@ -0,0 +1,54 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+/**
+ * The kinds of request {@link LoadGenerator} mixes together, and the outcome each should have.
+ */
+public enum RequestKind
+{
+
+    /** A well-formed request, which should succeed. */
+    NORMAL(Outcome.SUCCESS),
+
+    /** A request with message identifier "SYSTEM FAILURE", which the service answers with SystemUnavailableFault. */
+    SYSTEM_FAILURE(Outcome.SYSTEM_UNAVAILABLE),
+
+    /** A message-source header without a message identifier. */
+    MISSING_MESSAGE_IDENTIFIER(Outcome.REQUIRED_HEADER_MISSING),
+
+    /** A message-source header without a system identifier. */
+    MISSING_SYSTEM_IDENTIFIER(Outcome.REQUIRED_HEADER_MISSING);
+
+    private final Outcome expected;
+
+    private RequestKind(Outcome expected)
+    {
+        this.expected = expected;
+    }
+
+    /**
+     * @return the outcome a request of this kind should have
+     */
+    public Outcome getExpected()
+    {
+        return expected;
+    }
+
+    /**
+     * How a request ended.
+     */
+    public enum Outcome
+    {
+        /** A normal response. */
+        SUCCESS,
+        /** A SystemUnavailableFault. */
+        SYSTEM_UNAVAILABLE,
+        /** A RequiredHeaderMissingFault. */
+        REQUIRED_HEADER_MISSING,
+        /** Anything else: a SOAP or transport error, a timeout, or a malformed response. */
+        ERROR
+    }
+
+}
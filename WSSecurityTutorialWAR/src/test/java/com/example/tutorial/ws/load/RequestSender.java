@@ -0,0 +1,21 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import com.example.tutorial.ws.load.RequestKind.Outcome;
+
+/**
+ * Sends one request of a given kind for {@link LoadGenerator}; called from many threads at once.
+ */
+public interface RequestSender
+{
+
+    /**
+     * @param kind
+     * @return how the request ended
+     * @throws Exception counted as {@link Outcome#ERROR}
+     */
+    Outcome send(RequestKind kind) throws Exception;
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.load;
+
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.integration.EmbeddedTutorialService;
+import com.example.tutotial.TutorialWebService;
+
+/**
+ * <p>
+ * Load test: starts the service in an embedded Jetty server with the same Spring configuration as the WAR, drives it
+ * through the secured testClient at a constant rate with a mix of normal, SYSTEM FAILURE and missing-header requests
+ * (see {@link LoadGenerator}), and fails if any request has an unexpected outcome, or if latency or throughput has
+ * regressed against the results recorded for the reference machine the run declares.
+ * </p>
+ * <p>
+ * Run it with 'mvn install -Pload-test -DloadTest.machine=&lt;name&gt;'.  The profile, the tolerances and the recorded
+ * results of each reference machine are checked in as com/example/tutorial/load/load-baseline.properties; any profile
+ * setting can be overridden with -DloadTest.&lt;name&gt;, e.g. -DloadTest.durationSeconds=3600 for a soak run.  Each
+ * run writes its results to target/load-report.properties.  A run on a machine that doesn't match the profile it
+ * declares fails; one that declares none, or has overridden the rate, tag count or fault mix, is skipped rather than
+ * passed, since there is nothing to compare it with.
+ * </p>
+ * <p>
+ * To compare runs on a machine that has no recorded results, name a reference file with -DloadTest.reference: the
+ * first run records its report there (and is skipped), and later runs are compared with it, typically a run of the
+ * main line first, then one of the change.  -DloadTest.updateReference=true records the current run again.
+ * </p>
+ */
+public class TutorialLoadTest
+{
+
+    private static final String BASELINE = "/com/example/tutorial/load/load-baseline.properties";
+
+    private static final String MACHINE = "machine";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final EmbeddedTutorialService service = new EmbeddedTutorialService();
+
+    /**
+     * @throws Exception
+     */
+    @BeforeClass(groups = "load")
+    public void startService() throws Exception
+    {
+        service.start();
+    }
+
+    /**
+     *
+     */
+    @AfterClass(groups = "load", alwaysRun = true)
+    public void stopService()
+    {
+        service.stop();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "load")
+    public void constantRateTest() throws Exception
+    {
+        Properties baseline = load(BASELINE);
+        String machineName = System.getProperty("loadTest.machine");
+        Properties settings = machineName != null ? forMachine(baseline, machineName) : baseline;
+        LoadProfile profile = new LoadProfile(settings);
+        LoadResult result = new LoadGenerator(60).run(profile, new ClientSender(service.getClient().getBean(
+                "testClient", TutorialWebService.class), profile.getTagCount()));
+        Properties report = result.toProperties();
+        report.setProperty(MACHINE, machine());
+        store(report, new File(service.getConfigDirectory().getParentFile(), "load-report.properties"));
+
+        assertEquals(result.getIncompleteCount(), 0, "Requests still outstanding at the end of the run");
+        assertEquals(result.getUnexpectedCount(), 0, "Requests with an unexpected outcome; see the log");
+
+        Properties recorded;
+        String recordedFrom;
+        String referenceName = System.getProperty("loadTest.reference");
+        if (referenceName != null)
+        {
+            File referenceFile = new File(referenceName);
+            if (!referenceFile.isFile() || Boolean.getBoolean("loadTest.updateReference"))
+            {
+                store(report, referenceFile);
+                throw new SkipException("Recorded this run as the reference in " + referenceFile);
+            }
+            recorded = load(referenceFile);
+            recordedFrom = referenceFile.getPath();
+            if (!machine().equals(recorded.getProperty(MACHINE)))
+            {
+                throw new SkipException("The reference " + referenceFile + " was recorded on "
+                        + recorded.getProperty(MACHINE) + ", not " + machine() + "; nothing to compare with");
+            }
+        }
+        else if (machineName == null)
+        {
+            throw new SkipException("No reference machine declared, so nothing to compare with; run with "
+                    + "-DloadTest.machine set to one of " + machineNames(baseline) + " or with -DloadTest.reference");
+        }
+        else
+        {
+            recorded = settings;
+            recordedFrom = "the results recorded for " + machineName;
+        }
+        if (!profile.isComparableTo(new LoadProfile(recorded, false)))
+        {
+            throw new SkipException("The load profile differs from that of " + recordedFrom
+                    + "; nothing to compare with");
+        }
+
+        Properties compared = new Properties();
+        for (String key : settings.getProperty("compared").split("\\s*,\\s*"))
+        {
+            String value = recorded.getProperty(key);
+            assertTrue(value != null && value.trim().length() > 0, "No " + key + " in " + recordedFrom);
+            compared.setProperty(key, value.trim());
+        }
+        List<String> regressions = result.findRegressions(compared,
+                Double.parseDouble(settings.getProperty("regressionPercent")),
+                Double.parseDouble(settings.getProperty("regressionFloorMillis")));
+        assertTrue(regressions.isEmpty(), "Regressed against " + recordedFrom + ": " + regressions);
+    }
+
+    /**
+     * Checks that this machine matches the named reference-machine profile, and overlays the profile's own settings
+     * and recorded results on the shared ones.
+     * 
+     * @param baseline
+     * @param machineName
+     * @return the settings and recorded results for the machine
+     */
+    private static Properties forMachine(Properties baseline, String machineName)
+    {
+        String prefix = machineName + ".";
+        String cpus = baseline.getProperty(prefix + "cpus");
+        String java = baseline.getProperty(prefix + "java");
+        assertTrue(cpus != null && java != null, "Unknown reference machine " + machineName + "; the baseline declares "
+                + machineNames(baseline));
+        assertEquals(Runtime.getRuntime().availableProcessors(), Integer.parseInt(cpus.trim()),
+                "Processors on this machine, which declares itself a " + machineName);
+        assertEquals(System.getProperty("java.specification.version"), java.trim(),
+                "Java version on this machine, which declares itself a " + machineName);
+        Properties settings = new Properties();
+        settings.putAll(baseline);
+        for (String key : baseline.stringPropertyNames())
+        {
+            if (key.startsWith(prefix))
+            {
+                settings.setProperty(key.substring(prefix.length()), baseline.getProperty(key));
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * @param baseline
+     * @return the names of the reference machines the baseline declares
+     */
+    private static Set<String> machineNames(Properties baseline)
+    {
+        Set<String> names = new TreeSet<String>();
+        for (String key : baseline.stringPropertyNames())
+        {
+            if (key.endsWith(".cpus"))
+            {
+                names.add(key.substring(0, key.length() - ".cpus".length()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return what the numbers depend on besides the code: the host, its processors and the JVM
+     */
+    private static String machine() throws IOException
+    {
+        return InetAddress.getLocalHost().getHostName() + "/" + Runtime.getRuntime().availableProcessors()
+                + " cpus/" + System.getProperty("os.arch") + "/" + System.getProperty("java.vm.name") + " "
+                + System.getProperty("java.version");
+    }
+
+    private void store(Properties report, File file) throws IOException
+    {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            report.store(out, new LoadProfile(report, false).toString());
+        }
+        finally
+        {
+            out.close();
+        }
+        log.info("Load test results written to {}", file);
+    }
+
+    private Properties load(File file) throws IOException
+    {
+        InputStream in = new FileInputStream(file);
+        try
+        {
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    private Properties load(String resource) throws IOException
+    {
+        InputStream in = getClass().getResourceAsStream(resource);
+        assertNotNull(in, resource + " is missing");
+        try
+        {
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+}
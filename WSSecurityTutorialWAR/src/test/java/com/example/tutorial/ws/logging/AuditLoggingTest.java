@@ -0,0 +1,425 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.logging;
+
+import static org.testng.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.interceptor.LoggingInInterceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageContentsList;
+import org.apache.cxf.message.MessageImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.testng.annotations.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.FileAppender;
+
+import com.example.tutorial.ws.integration.TutorialMessages;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.TutorialRequest;
+
+/**
+ * Tests of {@link StructuredAuditEncoder}, {@link AsyncAuditAppender}, {@link AuditContext} and
+ * {@link AuditContextFeature}.  The "benchmark" group is not run by default; run it with -Dgroups=benchmark to compare
+ * the logging cost of one request under the old synchronous pattern file appender and under the logback.xml shipped in
+ * the WAR, with the payload logged and as shipped.
+ */
+public class AuditLoggingTest
+{
+
+    private static final String FQCN = AuditLoggingTest.class.getName();
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void encoderTest() throws Exception
+    {
+        LoggerContext context = new LoggerContext();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StructuredAuditEncoder encoder = new StructuredAuditEncoder();
+        encoder.setContext(context);
+        encoder.init(out);
+        encoder.start();
+
+        TutorialRequest request = TutorialMessages.request(1);
+        MessageSource source = TutorialMessages.messageSource();
+        AuditContext.begin(request, source);
+        LoggingEvent event;
+        try
+        {
+            event = new LoggingEvent(FQCN, context.getLogger("audit.test"), Level.INFO,
+                    "say \"{}\"\\\n\tcaf\u00e9 \u20ac \ud83d\ude00\u0001", null, new Object[] { "hi" });
+            event.setTimeStamp(1792315230045L);
+            event.setThreadName("worker-1");
+            event.prepareForDeferredProcessing();
+        }
+        finally
+        {
+            AuditContext.end();
+        }
+        assertNull(MDC.get(AuditContext.GUID));
+        encoder.doEncode(event);
+
+        String line = new String(out.toByteArray(), "UTF-8");
+        assertEquals(line, "{\"time\":\"2026-10-18T09:20:30.045Z\",\"level\":\"INFO\",\"thread\":\"worker-1\","
+                + "\"logger\":\"audit.test\",\"messageIdentifier\":\"" + source.getMessageIdentifier()
+                + "\",\"systemIdentifier\":\"" + source.getSystemIdentifier() + "\",\"guid\":\""
+                + request.getRequestStructure().getGuid() + "\",\"message\":\"say \\\"hi\\\"\\\\\\n\\tcaf\u00e9 \u20ac "
+                + "\ud83d\ude00\\u0001\"}\n");
+
+        out.reset();
+        event = new LoggingEvent(FQCN, context.getLogger("audit.test"), Level.ERROR, "failed",
+                new IllegalStateException("boom"), null);
+        event.setThreadName("worker-2");
+        encoder.doEncode(event);
+        line = new String(out.toByteArray(), "UTF-8");
+        assertFalse(line.contains("guid"), line);
+        assertTrue(line.contains("\"message\":\"failed\",\"exception\":\"java.lang.IllegalStateException: boom\\n"),
+                line);
+        assertTrue(line.endsWith("\"}\n"), line);
+    }
+
+    /**
+     * A stalled writer never holds up the logging thread: INFO is dropped first, WARN keeps its reserve, and every
+     * event is either written or counted as discarded.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void asyncDiscardsUnderPressureTest() throws Exception
+    {
+        LoggerContext context = new LoggerContext();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger written = new AtomicInteger();
+        final AtomicInteger warnings = new AtomicInteger();
+        AppenderBase<ILoggingEvent> stalled = new AppenderBase<ILoggingEvent>()
+        {
+            @Override
+            protected void append(ILoggingEvent event)
+            {
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                written.incrementAndGet();
+                if (event.getLevel() == Level.WARN)
+                {
+                    warnings.incrementAndGet();
+                }
+            }
+        };
+        stalled.setContext(context);
+        stalled.start();
+        AsyncAuditAppender async = new AsyncAuditAppender();
+        async.setContext(context);
+        async.setName("test");
+        async.setQueueSize(16);
+        async.setDiscardingThreshold(4);
+        async.addAppender(stalled);
+        async.start();
+        assertTrue(async.isStarted());
+
+        ch.qos.logback.classic.Logger logger = context.getLogger("audit.test");
+        logger.addAppender(async);
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++)
+        {
+            logger.info("event {}", i);
+        }
+        for (int i = 0; i < 3; i++)
+        {
+            logger.warn("warning {}", i);
+        }
+        assertTrue(System.nanoTime() - start < 1000000000L, "logging must not wait for the writer");
+        assertTrue(async.getDiscardedCount() >= 100 - 16, String.valueOf(async.getDiscardedCount()));
+
+        release.countDown();
+        async.stop();
+        assertEquals(written.get() + async.getDiscardedCount(), 103);
+        assertEquals(warnings.get(), 3);
+        assertFalse(stalled.isStarted());
+    }
+
+    /**
+     * The worker sleeps until an append wakes it, and no event is left behind by a wake-up that races with parking.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void asyncWakesIdleWorkerTest() throws Exception
+    {
+        LoggerContext context = new LoggerContext();
+        final CountDownLatch written = new CountDownLatch(50);
+        AppenderBase<ILoggingEvent> counting = new AppenderBase<ILoggingEvent>()
+        {
+            @Override
+            protected void append(ILoggingEvent event)
+            {
+                written.countDown();
+            }
+        };
+        counting.setContext(context);
+        counting.start();
+        AsyncAuditAppender async = new AsyncAuditAppender();
+        async.setContext(context);
+        async.setName("test");
+        async.addAppender(counting);
+        async.start();
+        ch.qos.logback.classic.Logger logger = context.getLogger("audit.test");
+        logger.addAppender(async);
+        for (int i = 0; i < 50; i++)
+        {
+            // long enough for the worker to have drained the queue and parked
+            Thread.sleep(i % 10 == 0 ? 20 : 0);
+            logger.warn("event {}", i);
+        }
+        assertTrue(written.await(5, TimeUnit.SECONDS), written.getCount() + " event(s) not written");
+        async.stop();
+    }
+
+    /**
+     * The identifiers are in the MDC from the raw request on, before the payload is logged, and the request stream is
+     * left intact for the rest of the chain.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void contextFromHeaderTest() throws Exception
+    {
+        TutorialRequest request = TutorialMessages.request(1);
+        MessageSource source = TutorialMessages.messageSource();
+        String envelope = envelope(source, "<xenc:EncryptedData xmlns:xenc=\"urn:y\"/>");
+        Message message = new MessageImpl();
+        message.put(Message.ENCODING, "UTF-8");
+        InputStream raw = new ByteArrayInputStream(envelope.getBytes("UTF-8"));
+        message.setContent(InputStream.class, raw);
+        MDC.put(AuditContext.GUID, "left over from an earlier exchange");
+        try
+        {
+            // payload not logged: the request is neither buffered nor read
+            AuditContextFeature.beginFromHeader(message, false);
+            assertNull(MDC.get(AuditContext.GUID));
+            assertNull(MDC.get(AuditContext.CLAIMED_MESSAGE_IDENTIFIER));
+            assertNull(MDC.get(AuditContext.CLAIMED_SYSTEM_IDENTIFIER));
+            assertSame(message.getContent(InputStream.class), raw);
+
+            // payload logged: the header's identifiers are only claimed until the request has been verified
+            AuditContextFeature.beginFromHeader(message, true);
+            assertEquals(MDC.get(AuditContext.CLAIMED_MESSAGE_IDENTIFIER), source.getMessageIdentifier());
+            assertEquals(MDC.get(AuditContext.CLAIMED_SYSTEM_IDENTIFIER), source.getSystemIdentifier());
+            assertNull(MDC.get(AuditContext.MESSAGE_IDENTIFIER));
+            assertNull(MDC.get(AuditContext.SYSTEM_IDENTIFIER));
+            assertEquals(IOUtils.toString(message.getContent(InputStream.class), "UTF-8"), envelope);
+
+            message.setContent(List.class, new MessageContentsList(request, source));
+            AuditContextFeature.addRequest(message);
+            assertEquals(MDC.get(AuditContext.MESSAGE_IDENTIFIER), source.getMessageIdentifier());
+            assertEquals(MDC.get(AuditContext.SYSTEM_IDENTIFIER), source.getSystemIdentifier());
+            assertEquals(MDC.get(AuditContext.GUID), request.getRequestStructure().getGuid());
+            assertNull(MDC.get(AuditContext.CLAIMED_MESSAGE_IDENTIFIER));
+            assertNull(MDC.get(AuditContext.CLAIMED_SYSTEM_IDENTIFIER));
+
+            // the service, on the same thread, leaves the context to the feature
+            assertFalse(AuditContext.begin(request, source));
+        }
+        finally
+        {
+            AuditContext.end();
+        }
+        assertTrue(AuditContext.begin(request, source));
+        AuditContext.end();
+        assertNull(MDC.get(AuditContext.MESSAGE_IDENTIFIER));
+    }
+
+    /**
+     * Logs what one request logs: the header scan of {@link AuditContextFeature}, the MDC, the "Received request
+     * message" line of TutorialWebServiceImpl, and the inbound and outbound payloads.  The shipped logback.xml is
+     * measured with the payload logging turned on, as the synchronous file is, and as shipped, with it off.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void logOverheadBenchmark() throws Exception
+    {
+        int iterations = 20000;
+        File directory = File.createTempFile("audit", "");
+        directory.delete();
+        directory.mkdirs();
+
+        TutorialRequest request = TutorialMessages.request(4);
+        MessageSource source = TutorialMessages.messageSource();
+        char[] filler = new char[3000];
+        Arrays.fill(filler, 'x');
+        String payload = envelope(source, new String(filler));
+
+        for (int round = 0; round < 3; round++)
+        {
+            LoggerContext synchronous = synchronousContext(new File(directory, "synchronous.log"));
+            LoggerContext shipped = shippedContext(directory);
+            long[] before = perRequest(synchronous, request, source, payload, iterations);
+            ch.qos.logback.classic.Logger payloads = shipped.getLogger(LoggingInInterceptor.class.getName());
+            Level shippedLevel = payloads.getLevel();
+            payloads.setLevel(Level.INFO);
+            long[] after = perRequest(shipped, request, source, payload, iterations);
+            payloads.setLevel(shippedLevel);
+            long[] quiet = perRequest(shipped, request, source, payload, iterations);
+            AsyncAuditAppender async = (AsyncAuditAppender) shipped.getLogger(
+                    ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).getAppender("ASYNC");
+            long discarded = async.getDiscardedCount();
+            synchronous.stop();
+            shipped.stop();
+            log.info("Logging per request ({} lines): synchronous pattern file {} ns, {} bytes allocated; "
+                    + "shipped logback.xml {} ns, {} bytes allocated, {} of {} events discarded; "
+                    + "shipped logback.xml without payloads {} ns, {} bytes allocated", new Object[] { 3, before[0],
+                    before[1], after[0], after[1], discarded, iterations * 4, quiet[0], quiet[1] });
+        }
+        for (File file : directory.listFiles())
+        {
+            file.delete();
+        }
+        directory.delete();
+
+        LoggerContext context = new LoggerContext();
+        StructuredAuditEncoder encoder = new StructuredAuditEncoder();
+        encoder.setContext(context);
+        encoder.init(new OutputStream()
+        {
+            @Override
+            public void write(int b)
+            {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len)
+            {
+            }
+        });
+        encoder.start();
+        AuditContext.begin(request, source);
+        LoggingEvent event = new LoggingEvent(FQCN, context.getLogger("audit.test"), Level.INFO, payload, null, null);
+        event.prepareForDeferredProcessing();
+        AuditContext.end();
+        for (int i = 0; i < iterations; i++)
+        {
+            encoder.doEncode(event);
+        }
+        long allocated = allocatedBytes();
+        for (int i = 0; i < iterations; i++)
+        {
+            encoder.doEncode(event);
+        }
+        log.info("StructuredAuditEncoder allocates {} bytes per event", (allocatedBytes() - allocated) / iterations);
+    }
+
+    private static long[] perRequest(LoggerContext context, TutorialRequest request, MessageSource source,
+            String payload, int iterations) throws Exception
+    {
+        org.slf4j.Logger service = context.getLogger("com.example.tutorial.ws.TutorialWebServiceImpl");
+        org.slf4j.Logger payloads = context.getLogger(LoggingInInterceptor.class.getName());
+        byte[] raw = payload.getBytes("UTF-8");
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+        {
+            Message message = new MessageImpl();
+            message.put(Message.ENCODING, "UTF-8");
+            message.setContent(InputStream.class, new ByteArrayInputStream(raw));
+            AuditContextFeature.beginFromHeader(message, payloads.isInfoEnabled());
+            try
+            {
+                payloads.info(payload);
+                AuditContext.begin(request, source);
+                service.info("Received request message: {}", request.getRequestStructure());
+                payloads.info(payload);
+            }
+            finally
+            {
+                AuditContext.end();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[] { elapsed / iterations, (allocatedBytes() - allocated) / iterations };
+    }
+
+    /**
+     * @return a request envelope with a message-source header for the source, and the body given
+     */
+    private static String envelope(MessageSource source, String body)
+    {
+        return "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+                + "xmlns:tns=\"http://example.com/tutotial/\"><soap:Header><wsse:Security "
+                + "xmlns:wsse=\"urn:x\"/><tns:message-source message-identifier=\"" + source.getMessageIdentifier()
+                + "\" system-identifier=\"" + source.getSystemIdentifier() + "\"/></soap:Header><soap:Body>" + body
+                + "</soap:Body></soap:Envelope>";
+    }
+
+    private static LoggerContext synchronousContext(File file)
+    {
+        LoggerContext context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%date %level [%thread] %logger - %msg%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<ILoggingEvent>();
+        appender.setContext(context);
+        appender.setFile(file.getPath());
+        appender.setEncoder(encoder);
+        appender.start();
+        context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        return context;
+    }
+
+    private LoggerContext shippedContext(File directory) throws Exception
+    {
+        LoggerContext context = new LoggerContext();
+        context.setName("benchmark");
+        context.putProperty("tutorial.logDirectory", directory.getPath());
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getResource("/logback.xml"));
+        return context;
+    }
+
+    /**
+     * @return the bytes allocated by this thread so far, or 0 where the JVM cannot tell
+     */
+    private static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.policy;
+
+import static org.testng.Assert.*;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.ws.policy.AssertionInfo;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
+import org.apache.cxf.ws.policy.PolicyBuilder;
+import org.apache.cxf.ws.policy.PolicyEngine;
+import org.apache.cxf.ws.policy.PolicyException;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+import org.apache.neethi.PolicyRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Unit tests for {@link FrozenPolicy}, using the policies in TutorialService.wsdl.  The "benchmark" group is not run
+ * by default; run it with -Dgroups=benchmark to compare the per-message policy verification cost of CXF's check
+ * against the policy as the engine leaves it with that of the frozen one.
+ */
+public class FrozenPolicyTest
+{
+
+    private static final String WSP_NS = "http://schemas.xmlsoap.org/ws/2004/09/policy";
+
+    private static final String WSU_NS = "http://docs.oasis-open.org/wss/2004/01/oasis-200401-wss-wssecurity-utility-1.0.xsd";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private Bus bus;
+
+    private PolicyRegistry registry;
+
+    private Policy requestPolicy;
+
+    private Policy responsePolicy;
+
+    /**
+     * @throws Exception
+     */
+    @BeforeClass(groups = { "unit", "benchmark" })
+    public void loadPolicies() throws Exception
+    {
+        bus = BusFactory.newInstance().createBus();
+        registry = bus.getExtension(PolicyEngine.class).getRegistry();
+        Policy binding = getPolicy("TutorialBindingPolicy");
+        // The same merge and normalization the policy engine does for an operation's input and output
+        requestPolicy = binding.merge(getPolicy("TutorialInputBindingPolicy")).normalize(registry, true);
+        responsePolicy = binding.merge(getPolicy("TutorialOutputBindingPolicy")).normalize(registry, true);
+    }
+
+    /**
+     *
+     */
+    @AfterClass(groups = { "unit", "benchmark" }, alwaysRun = true)
+    public void shutdown()
+    {
+        if (bus != null)
+        {
+            bus.shutdown(true);
+        }
+    }
+
+    /**
+     * 
+     */
+    @Test(groups = "unit")
+    public void sameAlternativesTest()
+    {
+        for (Policy policy : new Policy[] { requestPolicy, responsePolicy })
+        {
+            FrozenPolicy frozen = new FrozenPolicy(policy, registry);
+            List<List<Assertion>> expected = alternatives(policy);
+            List<List<Assertion>> actual = alternatives(frozen);
+            assertEquals(actual.size(), expected.size());
+            assertEquals(frozen.getAlternativeCount(), expected.size());
+            for (int i = 0; i < expected.size(); i++)
+            {
+                assertEquals(names(actual.get(i)), names(expected.get(i)));
+            }
+            // Answered from the frozen list, not normalized again
+            assertSame(alternatives(frozen).get(0).get(0), actual.get(0).get(0));
+            assertSame(frozen.normalize(registry, true), frozen);
+            assertSame(FrozenPolicy.freeze(frozen, registry), frozen);
+        }
+    }
+
+    /**
+     * 
+     */
+    @Test(groups = "unit")
+    public void sameVerificationTest()
+    {
+        FrozenPolicy frozen = new FrozenPolicy(requestPolicy, registry);
+        List<Assertion> alternative = alternatives(requestPolicy).get(0);
+
+        AssertionInfoMap complete = assertAll(alternative);
+        complete.checkEffectivePolicy(requestPolicy);
+        complete.checkEffectivePolicy(frozen);
+        assertTrue(frozen.isSatisfiedBy(complete));
+
+        // Leave each assertion in turn, nested ones included, not asserted: the frozen check must agree with CXF's
+        int failures = 0;
+        for (QName name : complete.keySet())
+        {
+            int count = complete.getAssertionInfo(name).size();
+            for (int i = 0; i < count; i++)
+            {
+                AssertionInfoMap incomplete = assertAll(alternative);
+                new ArrayList<AssertionInfo>(incomplete.getAssertionInfo(name)).get(i).setNotAsserted("not done");
+                boolean satisfied = isSatisfied(incomplete, requestPolicy);
+                assertEquals(isSatisfied(incomplete, frozen), satisfied, name.toString());
+                assertEquals(frozen.isSatisfiedBy(incomplete), satisfied, name.toString());
+                if (!satisfied)
+                {
+                    failures++;
+                }
+            }
+        }
+        assertTrue(failures > 0, "No assertion was required");
+    }
+
+    /**
+     * Per-message verification as PolicyVerificationInInterceptor does it, against the assertion map CXF's
+     * PolicyInInterceptor builds for each message, compared with {@link FrozenPolicy#isSatisfiedBy(AssertionInfoMap)}.
+     */
+    @Test(groups = "benchmark")
+    public void verificationBenchmark()
+    {
+        FrozenPolicy frozen = new FrozenPolicy(requestPolicy, registry);
+        List<Assertion> alternative = alternatives(requestPolicy).get(0);
+        AssertionInfoMap aim = assertAll(alternative);
+        int iterations = 20000;
+        for (int round = 0; round < 3; round++)
+        {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                assertAll(alternative);
+            }
+            long building = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                aim.checkEffectivePolicy(requestPolicy);
+            }
+            long computed = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                assertTrue(frozen.isSatisfiedBy(aim));
+            }
+            long precomputed = System.nanoTime() - start;
+            log.info("Policy verification per message: as computed {} us, frozen {} us (building the assertion map "
+                    + "{} us either way)", new Object[] { micros(computed, iterations), micros(precomputed, iterations),
+                    micros(building, iterations) });
+        }
+    }
+
+    private static double micros(long nanos, int iterations)
+    {
+        return nanos / 1000.0 / iterations;
+    }
+
+    private static boolean isSatisfied(AssertionInfoMap aim, Policy policy)
+    {
+        try
+        {
+            aim.checkEffectivePolicy(policy);
+            return true;
+        }
+        catch (PolicyException e)
+        {
+            return false;
+        }
+    }
+
+    private static AssertionInfoMap assertAll(Collection<Assertion> alternative)
+    {
+        AssertionInfoMap map = new AssertionInfoMap(alternative);
+        for (Collection<AssertionInfo> infos : map.values())
+        {
+            for (AssertionInfo info : infos)
+            {
+                info.setAsserted(true);
+            }
+        }
+        return map;
+    }
+
+    private static List<List<Assertion>> alternatives(Policy policy)
+    {
+        List<List<Assertion>> alternatives = new ArrayList<List<Assertion>>();
+        for (Iterator<List<Assertion>> iterator = policy.getAlternatives(); iterator.hasNext();)
+        {
+            alternatives.add(iterator.next());
+        }
+        return alternatives;
+    }
+
+    private static List<String> names(List<Assertion> alternative)
+    {
+        List<String> names = new ArrayList<String>();
+        for (Assertion assertion : alternative)
+        {
+            names.add(assertion.getName().toString());
+        }
+        return names;
+    }
+
+    private Policy getPolicy(String id) throws Exception
+    {
+        InputStream in = getClass().getResourceAsStream("/wsdl/TutorialService.wsdl");
+        assertNotNull(in, "TutorialService.wsdl is not on the classpath");
+        try
+        {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            NodeList policies = factory.newDocumentBuilder().parse(in).getElementsByTagNameNS(WSP_NS, "Policy");
+            for (int i = 0; i < policies.getLength(); i++)
+            {
+                Element element = (Element)policies.item(i);
+                if (id.equals(element.getAttributeNS(WSU_NS, "Id")))
+                {
+                    return bus.getExtension(PolicyBuilder.class).getPolicy(element);
+                }
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+        throw new IllegalArgumentException("No policy " + id + " in TutorialService.wsdl");
+    }
+
+}
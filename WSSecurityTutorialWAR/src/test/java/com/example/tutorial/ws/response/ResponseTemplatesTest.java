@@ -0,0 +1,127 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.response;
+
+import static org.testng.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+import org.w3c.dom.Element;
+
+import com.example.tutotial.MessageAcknowledgment;
+
+/**
+ * Unit tests for {@link ResponseTemplates}.  The "benchmark" group is not run by default; run it with
+ * -Dgroups=benchmark to compare marshalling the acknowledgment per response with copying the template.
+ */
+public class ResponseTemplatesTest
+{
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /**
+     * 
+     */
+    @Test(groups = "unit")
+    public void acknowledgmentElementTest()
+    {
+        Element element = ResponseTemplates.acknowledgmentElement();
+        assertEquals(element.getNamespaceURI(), ResponseTemplates.ACKNOWLEDGMENT_QNAME.getNamespaceURI());
+        assertEquals(element.getLocalName(), ResponseTemplates.ACKNOWLEDGMENT_QNAME.getLocalPart());
+        assertEquals(element.getAttribute("some-message"), ResponseTemplates.ACKNOWLEDGMENT_MESSAGE);
+        assertNotSame(ResponseTemplates.acknowledgmentElement(), element);
+    }
+
+    /**
+     * A caller changing the acknowledgment it was given affects no other response, and is then marshalled as usual.
+     */
+    @Test(groups = "unit")
+    public void acknowledgmentIsNotSharedTest()
+    {
+        MessageAcknowledgment acknowledgment = ResponseTemplates.acknowledgment();
+        assertNotSame(ResponseTemplates.acknowledgment(), acknowledgment);
+        assertTrue(ResponseTemplates.isAcknowledgment(acknowledgment));
+        acknowledgment.setSomeMessage("CHANGED");
+        assertFalse(ResponseTemplates.isAcknowledgment(acknowledgment));
+        assertEquals(ResponseTemplates.acknowledgment().getSomeMessage(), ResponseTemplates.ACKNOWLEDGMENT_MESSAGE);
+        assertFalse(ResponseTemplates.isAcknowledgment(null));
+    }
+
+    /**
+     * Copies of the header taken on many threads at once are all whole.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void concurrentElementTest() throws Exception
+    {
+        final AtomicInteger bad = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int i = 0; i < 2000; i++)
+                    {
+                        Element element = ResponseTemplates.acknowledgmentElement();
+                        if (!ResponseTemplates.ACKNOWLEDGMENT_MESSAGE.equals(element.getAttribute("some-message")))
+                        {
+                            bad.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(bad.get(), 0);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void acknowledgmentBenchmark() throws Exception
+    {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        Marshaller marshaller = JAXBContext.newInstance(MessageAcknowledgment.class).createMarshaller();
+        int iterations = 200000;
+        for (int round = 0; round < 2; round++)
+        {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                MessageAcknowledgment acknowledgment = new MessageAcknowledgment();
+                acknowledgment.setSomeMessage(ResponseTemplates.ACKNOWLEDGMENT_MESSAGE);
+                marshaller.marshal(acknowledgment, builder.newDocument());
+            }
+            long marshalled = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+            {
+                builder.newDocument().importNode(ResponseTemplates.acknowledgmentElement(), true);
+            }
+            long templated = System.nanoTime() - start;
+            log.info("acknowledgment header: marshalled {} ns, template {} ns", marshalled / iterations, templated
+                    / iterations);
+        }
+    }
+
+}
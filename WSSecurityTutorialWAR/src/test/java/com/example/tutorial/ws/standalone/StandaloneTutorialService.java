@@ -0,0 +1,144 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.standalone;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+/**
+ * <p>
+ * Runs TutorialWebService outside a servlet container, on CXF's embedded Jetty transport, with the same Spring
+ * configuration as the WAR.  It needs the configDirectory system property, as the WAR does, and takes the endpoint
+ * address from tutorialService.address (e.g. http://0.0.0.0:8080/jaxws/TutorialWebService).  The Jetty transport
+ * (cxf-rt-transports-http-jetty) must be on the classpath; it is not packaged in the WAR.
+ * </p>
+ * <p>
+ * Once the service is up it logs how long the JVM took to get there and its resident set size.  With
+ * -Dstandalone.startupReport=&lt;file&gt; it also writes them to that file, and with -Dstandalone.exitAfterStartup=true
+ * it shuts down straight away; {@link StartupComparison} uses both to measure startup with and without a class-data
+ * archive.
+ * </p>
+ */
+public final class StandaloneTutorialService
+{
+
+    /** The WAR's Spring configuration, with the embedded Jetty transport in place of the servlet one. */
+    static final String[] CONTEXT = { "classpath:META-INF/cxf/cxf.xml", "classpath:META-INF/cxf/cxf-extension-soap.xml",
+            "classpath:META-INF/cxf/cxf-extension-http-jetty.xml", "classpath:META-INF/cxf/cxf-extension-policy.xml",
+            "classpath:META-INF/cxf/cxf-extension-ws-security.xml", "classpath*:/com/**/war-config.xml",
+            "classpath*:/com/**/cxf-service-config.xml" };
+
+    /** System property naming the file to write the startup measurements to. */
+    static final String STARTUP_REPORT = "standalone.startupReport";
+
+    /** System property that makes the service exit once it has started. */
+    static final String EXIT_AFTER_STARTUP = "standalone.exitAfterStartup";
+
+    private static final Logger log = LoggerFactory.getLogger(StandaloneTutorialService.class);
+
+    private StandaloneTutorialService()
+    {
+    }
+
+    /**
+     * @param args not used
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception
+    {
+        if (System.getProperty("configDirectory") == null)
+        {
+            System.err.println("Set -DconfigDirectory to the directory holding "
+                    + "TutorialDeploymentPropertyPlaceholders.properties and the keystore.");
+            System.exit(2);
+        }
+        if (System.getProperty("tutorialService.address") == null)
+        {
+            System.setProperty("tutorialService.address", "http://0.0.0.0:8080/jaxws/TutorialWebService");
+        }
+        long contextStart = System.currentTimeMillis();
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(CONTEXT);
+        context.registerShutdownHook();
+        long ready = System.currentTimeMillis();
+
+        Properties report = new Properties();
+        report.setProperty("startupMillis", Long.toString(ready
+                - ManagementFactory.getRuntimeMXBean().getStartTime()));
+        report.setProperty("contextMillis", Long.toString(ready - contextStart));
+        report.setProperty("loadedClasses", Integer.toString(ManagementFactory.getClassLoadingMXBean()
+                .getLoadedClassCount()));
+        report.setProperty("rssKb", Long.toString(readStatus("VmRSS")));
+        report.setProperty("peakRssKb", Long.toString(readStatus("VmHWM")));
+        report.setProperty("javaVersion", System.getProperty("java.version"));
+        log.info("TutorialWebService started at {} in {} ms; {} classes loaded, RSS {} kB", new Object[] {
+                System.getProperty("tutorialService.address"), report.getProperty("startupMillis"),
+                report.getProperty("loadedClasses"), report.getProperty("rssKb") });
+
+        String reportFile = System.getProperty(STARTUP_REPORT);
+        if (reportFile != null)
+        {
+            OutputStream out = new FileOutputStream(reportFile);
+            try
+            {
+                report.store(out, "StandaloneTutorialService startup");
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+        if (Boolean.getBoolean(EXIT_AFTER_STARTUP))
+        {
+            context.close();
+            System.exit(0);
+        }
+    }
+
+    /**
+     * @param field a field of /proc/self/status, in kB
+     * @return its value, or -1 where there is no /proc (anything but Linux)
+     */
+    static long readStatus(String field)
+    {
+        File status = new File("/proc/self/status");
+        if (!status.canRead())
+        {
+            return -1;
+        }
+        try
+        {
+            BufferedReader reader = new BufferedReader(new FileReader(status));
+            try
+            {
+                for (String line = reader.readLine(); line != null; line = reader.readLine())
+                {
+                    if (line.startsWith(field + ":"))
+                    {
+                        return Long.parseLong(line.substring(field.length() + 1).replace("kB", "").trim());
+                    }
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (IOException e)
+        {
+            log.debug("Could not read " + status, e);
+        }
+        return -1;
+    }
+
+}
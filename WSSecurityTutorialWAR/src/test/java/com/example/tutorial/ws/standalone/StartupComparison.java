@@ -0,0 +1,324 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.standalone;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Measures how much a class-data sharing (AppCDS) archive saves {@link StandaloneTutorialService} at startup, in the
+ * way a new pod would start it.  A training run records the classes loaded up to the point the service is ready, the
+ * JVM dumps them into an archive, and the service is then started alternately with and without the archive.  The
+ * medians of the startup time, loaded classes and resident set size of each are written to
+ * startup-report.properties, next to the class list and the archive.
+ * </p>
+ * <p>
+ * The archive is built from a class list (-XX:DumpLoadedClassList, then -Xshare:dump with -XX:SharedClassListFile),
+ * which every JVM from Java 8 on supports.  Java 8 only archives the JDK's own classes; from Java 10 on, the
+ * application classes (CXF, Spring, WSS4J, JAXB and the generated com.example.tutotial classes) are archived as well,
+ * and since the archive is tied to the JVM and the classpath it was dumped with, deploy it with the image it was built
+ * for.
+ * </p>
+ * <p>
+ * Configured with system properties: configDirectory, as for the service; appcds.directory, where to put the archive
+ * and report (default target/appcds); appcds.runs, the runs of each kind (default 5); appcds.java, the java
+ * executable to measure (default the one running this); and appcds.timeoutSeconds, how long a child JVM may run
+ * before it is killed and the comparison failed (default 300).  The child JVMs get this JVM's classpath.
+ * </p>
+ */
+public final class StartupComparison
+{
+
+    private static final Logger log = LoggerFactory.getLogger(StartupComparison.class);
+
+    private static final String[] MEASURED = { "startupMillis", "contextMillis", "loadedClasses", "rssKb",
+            "peakRssKb" };
+
+    private final String java;
+
+    private final String classpath;
+
+    private final String configDirectory;
+
+    private final File directory;
+
+    private final long timeoutMillis;
+
+    private StartupComparison(String java, String classpath, String configDirectory, File directory,
+            long timeoutMillis)
+    {
+        this.java = java;
+        this.classpath = classpath;
+        this.configDirectory = configDirectory;
+        this.directory = directory;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @param args not used
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception
+    {
+        String configDirectory = System.getProperty("configDirectory");
+        if (configDirectory == null)
+        {
+            System.err.println("Set -DconfigDirectory as for StandaloneTutorialService.");
+            System.exit(2);
+        }
+        File directory = new File(System.getProperty("appcds.directory", "target/appcds"));
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Could not create " + directory);
+        }
+        String java = System.getProperty("appcds.java", System.getProperty("java.home") + File.separator + "bin"
+                + File.separator + "java");
+        int runs = Integer.getInteger("appcds.runs", 5);
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(Long.getLong("appcds.timeoutSeconds", 300));
+
+        StartupComparison comparison = new StartupComparison(java, System.getProperty("java.class.path"),
+                configDirectory, directory, timeoutMillis);
+        File archive = comparison.createArchive();
+        List<Properties> baseline = new ArrayList<Properties>();
+        List<Properties> shared = new ArrayList<Properties>();
+        for (int i = 0; i < runs; i++)
+        {
+            baseline.add(comparison.start("baseline-" + i, Collections.<String> emptyList()));
+            shared.add(comparison.start("appcds-" + i, comparison.useArchive(archive)));
+        }
+        comparison.report(baseline, shared, runs);
+    }
+
+    /**
+     * Trains and dumps the archive.
+     *
+     * @return the archive
+     */
+    private File createArchive() throws IOException, InterruptedException
+    {
+        File classList = new File(directory, "classes.lst");
+        File archive = new File(directory, "tutorial.jsa");
+        classList.delete();
+        archive.delete();
+        start("training", Arrays.asList("-XX:DumpLoadedClassList=" + classList.getAbsolutePath()));
+        List<String> dump = new ArrayList<String>();
+        dump.add(java);
+        dump.add("-XX:+UnlockDiagnosticVMOptions");
+        dump.add("-Xshare:dump");
+        dump.add("-XX:SharedClassListFile=" + classList.getAbsolutePath());
+        dump.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        dump.add("-cp");
+        dump.add(classpath);
+        run(dump, new File(directory, "dump.log"));
+        if (!archive.isFile())
+        {
+            throw new IllegalStateException("No archive was dumped; see " + new File(directory, "dump.log"));
+        }
+        log.info("Dumped {} ({} kB) from {}", new Object[] { archive, archive.length() / 1024, classList });
+        return archive;
+    }
+
+    private List<String> useArchive(File archive)
+    {
+        // -Xshare:on fails the start rather than quietly measuring a run without the archive
+        return Arrays.asList("-XX:+UnlockDiagnosticVMOptions", "-Xshare:on", "-XX:SharedArchiveFile="
+                + archive.getAbsolutePath());
+    }
+
+    /**
+     * Starts the service on a free port and waits for it to report and exit.
+     *
+     * @return the service's startup report
+     */
+    private Properties start(String name, List<String> jvmOptions) throws IOException, InterruptedException
+    {
+        File report = new File(directory, name + ".properties");
+        report.delete();
+        List<String> command = new ArrayList<String>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.add("-DconfigDirectory=" + configDirectory);
+        command.add("-DtutorialService.address=http://localhost:" + freePort() + "/jaxws/TutorialWebService");
+        command.add("-D" + StandaloneTutorialService.STARTUP_REPORT + "=" + report.getAbsolutePath());
+        command.add("-D" + StandaloneTutorialService.EXIT_AFTER_STARTUP + "=true");
+        command.add("-cp");
+        command.add(classpath);
+        command.add(StandaloneTutorialService.class.getName());
+        run(command, new File(directory, name + ".log"));
+
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(report);
+        try
+        {
+            properties.load(in);
+        }
+        finally
+        {
+            in.close();
+        }
+        log.info("{}: {}", name, properties);
+        return properties;
+    }
+
+    /**
+     * Runs a child JVM to completion, copying its output to a file, and kills it if it has not exited within
+     * {@link #timeoutMillis}.
+     */
+    private void run(List<String> command, File output) throws IOException, InterruptedException
+    {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        process.getOutputStream().close();
+        OutputCopier copier = new OutputCopier(process.getInputStream(), new FileOutputStream(output));
+        copier.start();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        Integer exit = null;
+        while (exit == null)
+        {
+            try
+            {
+                exit = process.exitValue();
+            }
+            catch (IllegalThreadStateException e)
+            {
+                // still running
+                if (System.currentTimeMillis() >= deadline)
+                {
+                    process.destroy();
+                    copier.join(TimeUnit.SECONDS.toMillis(5));
+                    throw new IllegalStateException(command.get(0) + " did not exit within " + timeoutMillis
+                            + " ms and was killed; see " + output);
+                }
+                Thread.sleep(100);
+            }
+        }
+        copier.join();
+        if (copier.failure != null)
+        {
+            throw copier.failure;
+        }
+        if (exit != 0)
+        {
+            throw new IllegalStateException(command.get(0) + " exited with " + exit + "; see " + output);
+        }
+    }
+
+    private static int freePort() throws IOException
+    {
+        ServerSocket socket = new ServerSocket(0);
+        try
+        {
+            return socket.getLocalPort();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+
+    private void report(List<Properties> baseline, List<Properties> shared, int runs) throws IOException
+    {
+        Properties report = new Properties();
+        report.setProperty("runs", Integer.toString(runs));
+        report.setProperty("javaVersion", baseline.get(0).getProperty("javaVersion"));
+        StringBuilder table = new StringBuilder(String.format("%n%-15s %10s %10s %8s%n", "median", "baseline",
+                "appcds", "change"));
+        for (String measure : MEASURED)
+        {
+            long without = median(baseline, measure);
+            long with = median(shared, measure);
+            report.setProperty("baseline." + measure, Long.toString(without));
+            report.setProperty("appcds." + measure, Long.toString(with));
+            table.append(String.format("%-15s %10d %10d %7.1f%%%n", measure, without, with, without == 0 ? 0.0
+                    : 100.0 * (with - without) / without));
+        }
+        File file = new File(directory, "startup-report.properties");
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            report.store(out, "StandaloneTutorialService startup, medians of " + runs
+                    + " runs with and without the AppCDS archive");
+        }
+        finally
+        {
+            out.close();
+        }
+        log.info("Startup with and without {}:{}Written to {}", new Object[] { new File(directory, "tutorial.jsa"),
+                table, file });
+    }
+
+    private static long median(List<Properties> reports, String measure)
+    {
+        long[] values = new long[reports.size()];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = Long.parseLong(reports.get(i).getProperty(measure));
+        }
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    /**
+     * Copies a child's output to a file until the child closes it.
+     */
+    private static class OutputCopier extends Thread
+    {
+
+        private final InputStream in;
+
+        private final OutputStream out;
+
+        volatile IOException failure;
+
+        OutputCopier(InputStream in, OutputStream out)
+        {
+            super("StartupComparison-output");
+            setDaemon(true);
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                try
+                {
+                    byte[] buffer = new byte[8192];
+                    for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+                    {
+                        out.write(buffer, 0, read);
+                    }
+                }
+                finally
+                {
+                    out.close();
+                }
+            }
+            catch (IOException e)
+            {
+                failure = e;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.ws.security.components.crypto.CryptoType;
+import org.apache.ws.security.components.crypto.Merlin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link TenantRegistry} and {@link TenantCrypto}.  The "benchmark" group is not run by default; run it
+ * with -Dgroups=benchmark to load 10,000 tenants and to compare tenant lookups among them against a plain Merlin
+ * truststore of the same size.
+ */
+public class TenantRegistryTest
+{
+
+    private static final int TENANT_COUNT = 10000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private File directory;
+
+    /**
+     * Creates an empty tenant directory for each test.
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void createDirectory()
+    {
+        directory = new File(System.getProperty("java.io.tmpdir"), "tenant-test-" + UUID.randomUUID());
+    }
+
+    /**
+     * Removes the tenant directory.
+     */
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory()
+    {
+        File[] files = directory.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void loadsCatalogTest() throws Exception
+    {
+        TestCertificates certificates = new TestCertificates();
+        X509Certificate[] tenantCertificates = { certificates.create("a", 1), certificates.create("b", 2) };
+        Properties extras = new Properties();
+        extras.setProperty("system-0.maxInFlight", "2");
+        extras.setProperty("system-0.handler", "partnerSink");
+        TestCertificates.writeTenants(directory, tenantCertificates, extras);
+        TenantRegistry registry = newRegistry(5);
+
+        assertEquals(registry.getTenantCount(), 2);
+        Tenant first = registry.lookup("system-0");
+        assertEquals(first.getMaxInFlight(), 2);
+        assertEquals(first.getHandler(), "partnerSink");
+        assertTrue(first.owns(tenantCertificates[0]));
+        assertSame(registry.lookup(tenantCertificates[0]), first);
+        Tenant second = registry.lookup("system-1");
+        assertEquals(second.getMaxInFlight(), 5);
+        assertNull(second.getHandler());
+        assertSame(registry.lookup(tenantCertificates[1]), second);
+        assertNull(registry.lookup("system-2"));
+        assertNull(registry.lookup(certificates.create("c", 3)));
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void missingCatalogTest() throws Exception
+    {
+        TenantRegistry registry = newRegistry(0);
+        assertEquals(registry.getTenantCount(), 0);
+        assertNull(registry.lookup("system-0"));
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit", expectedExceptions = IllegalStateException.class)
+    public void sharedCertificateRejectedTest() throws Exception
+    {
+        X509Certificate certificate = new TestCertificates().create("a", 1);
+        TestCertificates.writeTenants(directory, new X509Certificate[] { certificate, certificate }, null);
+        newRegistry(0);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void quotaTest() throws Exception
+    {
+        Tenant tenant = new Tenant("system", Arrays.asList(new TestCertificates().create("a", 1)), 2, null);
+        assertTrue(tenant.tryAcquire());
+        assertTrue(tenant.tryAcquire());
+        assertFalse(tenant.tryAcquire());
+        assertEquals(tenant.getRejectedCount(), 1);
+        tenant.release();
+        assertTrue(tenant.tryAcquire());
+        assertEquals(tenant.getInFlight(), 2);
+    }
+
+    /**
+     * Loads a few tenant keystores and checks every certificate can be found, by each reference type WS-Security uses,
+     * and is trusted.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void findsEveryTenantTest() throws Exception
+    {
+        checkTenants(8);
+    }
+
+    /**
+     * The same with 10,000 tenant keystores, logging how long they take to load.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void tenThousandTenantsBenchmark() throws Exception
+    {
+        checkTenants(TENANT_COUNT);
+    }
+
+    private void checkTenants(int count) throws Exception
+    {
+        X509Certificate[] tenantCertificates = createCertificates(count);
+        TestCertificates.writeTenants(directory, tenantCertificates, null);
+        TenantRegistry registry = newRegistry(0);
+        log.info("Loaded {} tenant keystores in {} ms", count, registry.getLoadMillis());
+        TenantCrypto crypto = newCrypto(registry);
+
+        assertEquals(registry.getTenantCount(), count);
+        assertEquals(registry.getCertificateCount(), count);
+        for (int i = 0; i < count; i++)
+        {
+            X509Certificate certificate = tenantCertificates[i];
+            Tenant tenant = registry.lookup("system-" + i);
+            assertSame(registry.lookup(certificate), tenant);
+
+            CryptoType issuerSerial = new CryptoType(CryptoType.TYPE.ISSUER_SERIAL);
+            issuerSerial.setIssuerSerial(certificate.getIssuerX500Principal().getName(), certificate.getSerialNumber());
+            assertEquals(crypto.getX509Certificates(issuerSerial)[0], certificate);
+
+            CryptoType ski = new CryptoType(CryptoType.TYPE.SKI_BYTES);
+            ski.setBytes(crypto.getSKIBytesFromCert(certificate));
+            assertEquals(crypto.getX509Certificates(ski)[0], certificate);
+
+            CryptoType thumbprint = new CryptoType(CryptoType.TYPE.THUMBPRINT_SHA1);
+            thumbprint.setBytes(MessageDigest.getInstance("SHA-1").digest(certificate.getEncoded()));
+            assertEquals(crypto.getX509Certificates(thumbprint)[0], certificate);
+
+            assertTrue(crypto.verifyTrust(new X509Certificate[] { certificate }));
+        }
+    }
+
+    /**
+     * Compares finding and trusting a signer's certificate among 10,000 tenants in a plain Merlin truststore with the
+     * same lookups through TenantCrypto.
+     * 
+     * @throws Exception
+     */
+    @Test(groups = "benchmark")
+    public void lookupBenchmark() throws Exception
+    {
+        X509Certificate[] tenantCertificates = createCertificates(TENANT_COUNT);
+        TestCertificates.writeTenants(directory, tenantCertificates, null);
+        TenantCrypto tenantCrypto = newCrypto(newRegistry(0));
+
+        KeyStore truststore = KeyStore.getInstance("jks");
+        truststore.load(null, null);
+        for (int i = 0; i < TENANT_COUNT; i++)
+        {
+            truststore.setCertificateEntry("system-" + i, tenantCertificates[i]);
+        }
+        Merlin merlin = new Merlin();
+        merlin.setTrustStore(truststore);
+
+        for (int round = 0; round < 2; round++)
+        {
+            log.info("Merlin, {} aliases: {} us/lookup", TENANT_COUNT, time(merlin, tenantCertificates, 200));
+            log.info("TenantCrypto, {} tenants: {} us/lookup", TENANT_COUNT,
+                    time(tenantCrypto, tenantCertificates, 200000));
+        }
+    }
+
+    private double time(Merlin crypto, X509Certificate[] tenantCertificates, int lookups) throws Exception
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++)
+        {
+            X509Certificate certificate = tenantCertificates[(i * 7919) % tenantCertificates.length];
+            CryptoType issuerSerial = new CryptoType(CryptoType.TYPE.ISSUER_SERIAL);
+            issuerSerial.setIssuerSerial(certificate.getIssuerX500Principal().getName(), certificate.getSerialNumber());
+            X509Certificate[] found = crypto.getX509Certificates(issuerSerial);
+            assertEquals(found[0], certificate);
+        }
+        return (System.nanoTime() - start) / 1000.0 / lookups;
+    }
+
+    private X509Certificate[] createCertificates(int count) throws Exception
+    {
+        TestCertificates certificates = new TestCertificates();
+        X509Certificate[] tenantCertificates = new X509Certificate[count];
+        for (int i = 0; i < count; i++)
+        {
+            tenantCertificates[i] = certificates.create("system-" + i, i + 1);
+        }
+        return tenantCertificates;
+    }
+
+    private TenantRegistry newRegistry(int defaultMaxInFlight) throws Exception
+    {
+        TenantRegistry registry = new TenantRegistry();
+        registry.setDirectory(directory.getPath());
+        registry.setKeystorePassword(TestCertificates.KEYSTORE_PASSWORD);
+        registry.setDefaultMaxInFlight(defaultMaxInFlight);
+        registry.afterPropertiesSet();
+        return registry;
+    }
+
+    private TenantCrypto newCrypto(TenantRegistry registry) throws Exception
+    {
+        Properties keystoreProperties = new Properties();
+        keystoreProperties.setProperty("org.apache.ws.security.crypto.merlin.keystore.type", "jks");
+        keystoreProperties.setProperty("org.apache.ws.security.crypto.merlin.keystore.password", "cspass");
+        keystoreProperties.setProperty("org.apache.ws.security.crypto.merlin.file", "clientKeystore.jks");
+        return new TenantCrypto(new TenantCryptoProperties(keystoreProperties, registry), getClass().getClassLoader());
+    }
+
+}
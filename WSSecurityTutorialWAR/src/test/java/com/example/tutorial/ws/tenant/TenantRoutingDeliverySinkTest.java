@@ -0,0 +1,114 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import static org.testng.Assert.*;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.delivery.DeliveryEvent;
+import com.example.tutorial.ws.delivery.DeliverySink;
+import com.example.tutorial.ws.delivery.InMemoryDeliverySink;
+import com.example.tutorial.ws.delivery.PartialDeliveryException;
+import com.example.tutotial.MessageSource;
+import com.example.tutotial.types.RequestStructure;
+
+/**
+ * Unit tests for {@link TenantRoutingDeliverySink}.
+ */
+public class TenantRoutingDeliverySinkTest
+{
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void routesByTenantTest() throws Exception
+    {
+        InMemoryDeliverySink partnerSink = new InMemoryDeliverySink();
+        InMemoryDeliverySink defaultSink = new InMemoryDeliverySink();
+        TenantRoutingDeliverySink routingSink = newRoutingSink(partnerSink, defaultSink);
+
+        routingSink.deliver(Arrays.asList(newEvent("partner", "1"), newEvent("plain", "2"), newEvent("unknown", "3"),
+                newEvent("partner", "4")));
+
+        assertEquals(messageIdentifiers(partnerSink.awaitDelivered(2, 0)), Arrays.asList("1", "4"));
+        assertEquals(messageIdentifiers(defaultSink.awaitDelivered(2, 0)), Arrays.asList("2", "3"));
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void failingHandlerDoesNotBlockOthersTest() throws Exception
+    {
+        DeliverySink failingSink = new DeliverySink()
+        {
+            public void deliver(List<DeliveryEvent> batch) throws Exception
+            {
+                throw new IllegalStateException("partner is down");
+            }
+        };
+        InMemoryDeliverySink defaultSink = new InMemoryDeliverySink();
+        TenantRoutingDeliverySink routingSink = newRoutingSink(failingSink, defaultSink);
+        try
+        {
+            routingSink.deliver(Arrays.asList(newEvent("partner", "1"), newEvent("plain", "2"), newEvent("partner",
+                    "3")));
+            fail("Expected the partner handler's failure");
+        }
+        catch (PartialDeliveryException e)
+        {
+            assertEquals(messageIdentifiers(e.getFailedEvents()), Arrays.asList("1", "3"));
+            assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+        }
+        assertEquals(messageIdentifiers(defaultSink.awaitDelivered(1, 0)), Arrays.asList("2"));
+    }
+
+    private TenantRoutingDeliverySink newRoutingSink(DeliverySink partnerSink, DeliverySink defaultSink)
+            throws Exception
+    {
+        TestCertificates certificates = new TestCertificates();
+        TenantRegistry registry = new TenantRegistry();
+        registry.index(Arrays.asList(new Tenant("partner", Arrays.<X509Certificate> asList(certificates.create(
+                "partner", 1)), 0, "partnerSink"), new Tenant("plain", Arrays.<X509Certificate> asList(certificates
+                .create("plain", 2)), 0, null)));
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("partnerSink", partnerSink);
+
+        TenantRoutingDeliverySink routingSink = new TenantRoutingDeliverySink();
+        routingSink.setRegistry(registry);
+        routingSink.setDefaultSink(defaultSink);
+        routingSink.setBeanFactory(beanFactory);
+        routingSink.afterPropertiesSet();
+        return routingSink;
+    }
+
+    private DeliveryEvent newEvent(String systemIdentifier, String messageIdentifier)
+    {
+        MessageSource source = new MessageSource();
+        source.setSystemIdentifier(systemIdentifier);
+        source.setMessageIdentifier(messageIdentifier);
+        RequestStructure request = new RequestStructure();
+        request.setGuid(messageIdentifier);
+        return new DeliveryEvent(request, source);
+    }
+
+    private List<String> messageIdentifiers(List<DeliveryEvent> events)
+    {
+        List<String> identifiers = new ArrayList<String>();
+        for (DeliveryEvent event : events)
+        {
+            identifiers.add(event.getMessageSource().getMessageIdentifier());
+        }
+        return identifiers;
+    }
+
+}
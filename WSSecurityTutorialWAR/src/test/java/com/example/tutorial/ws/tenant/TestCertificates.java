@@ -0,0 +1,177 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package com.example.tutorial.ws.tenant;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Properties;
+import java.util.TimeZone;
+
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * Builds X.509 v3 certificates (with a subject key identifier) for tenant tests, without depending on BouncyCastle or
+ * JDK-internal classes.  All certificates share one issuer and one RSA key; they differ in subject and serial, which
+ * is all the tenant lookups care about.
+ */
+public class TestCertificates
+{
+
+    /**
+     * The password the tenant keystores are written with.
+     */
+    public static final String KEYSTORE_PASSWORD = "tenantpw";
+
+    private static final byte[] SHA256_WITH_RSA = { 0x30, 0x0d, 0x06, 0x09, 0x2a, (byte)0x86, 0x48, (byte)0x86,
+            (byte)0xf7, 0x0d, 0x01, 0x01, 0x0b, 0x05, 0x00 };
+
+    private static final byte[] SUBJECT_KEY_IDENTIFIER_OID = { 0x06, 0x03, 0x55, 0x1d, 0x0e };
+
+    private final KeyPair keyPair;
+
+    private final X500Principal issuer = new X500Principal("CN=Tutorial Test Partner CA, O=Example");
+
+    private final CertificateFactory certificateFactory;
+
+    /**
+     * @throws GeneralSecurityException
+     */
+    public TestCertificates() throws GeneralSecurityException
+    {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        keyPair = generator.generateKeyPair();
+        certificateFactory = CertificateFactory.getInstance("X.509");
+    }
+
+    /**
+     * @param commonName
+     * @param serial
+     * @return a certificate valid from yesterday for ten years
+     * @throws GeneralSecurityException
+     */
+    public X509Certificate create(String commonName, long serial) throws GeneralSecurityException
+    {
+        byte[] ski = MessageDigest.getInstance("SHA-1").digest(keyPair.getPublic().getEncoded());
+        for (int i = 0; i < 8; i++)
+        {
+            // Keep each SKI distinct even though the key is shared.
+            ski[i] = (byte)(serial >>> (8 * (7 - i)));
+        }
+        byte[] extension = sequence(SUBJECT_KEY_IDENTIFIER_OID, tlv(0x04, tlv(0x04, ski)));
+        long now = System.currentTimeMillis();
+        byte[] tbs = sequence(tlv(0xa0, tlv(0x02, new byte[] { 2 })), tlv(0x02, BigInteger.valueOf(serial)
+                .toByteArray()), SHA256_WITH_RSA, issuer.getEncoded(), sequence(time(now - 86400000L),
+                time(now + 3650L * 86400000L)), new X500Principal("CN=" + commonName + ", O=Example").getEncoded(),
+                keyPair.getPublic().getEncoded(), tlv(0xa3, sequence(extension)));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(tbs);
+        byte[] signatureBits = signature.sign();
+        byte[] bitString = new byte[signatureBits.length + 1];
+        System.arraycopy(signatureBits, 0, bitString, 1, signatureBits.length);
+        byte[] der = sequence(tbs, SHA256_WITH_RSA, tlv(0x03, bitString));
+        return (X509Certificate)certificateFactory.generateCertificate(new ByteArrayInputStream(der));
+    }
+
+    /**
+     * Writes one keystore per tenant ("system-N" signing with certificate N) and a catalog naming them.
+     * 
+     * @param directory
+     * @param certificates
+     * @param catalogExtras additional catalog entries (quotas, handlers)
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public static void writeTenants(File directory, X509Certificate[] certificates, Properties catalogExtras)
+            throws IOException, GeneralSecurityException
+    {
+        directory.mkdirs();
+        Properties catalog = new Properties();
+        for (int i = 0; i < certificates.length; i++)
+        {
+            KeyStore keystore = KeyStore.getInstance("jks");
+            keystore.load(null, null);
+            keystore.setCertificateEntry("cert", certificates[i]);
+            String fileName = "system-" + i + ".jks";
+            OutputStream out = new FileOutputStream(new File(directory, fileName));
+            try
+            {
+                keystore.store(out, KEYSTORE_PASSWORD.toCharArray());
+            }
+            finally
+            {
+                out.close();
+            }
+            catalog.setProperty("system-" + i + ".keystore", fileName);
+        }
+        if (catalogExtras != null)
+        {
+            catalog.putAll(catalogExtras);
+        }
+        OutputStream out = new FileOutputStream(new File(directory, TenantRegistry.CATALOG_FILE));
+        try
+        {
+            catalog.store(out, null);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private static byte[] time(long millis)
+    {
+        SimpleDateFormat format = new SimpleDateFormat("yyMMddHHmmss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return tlv(0x17, format.format(new Date(millis)).getBytes());
+    }
+
+    private static byte[] sequence(byte[]... parts)
+    {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] part : parts)
+        {
+            content.write(part, 0, part.length);
+        }
+        return tlv(0x30, content.toByteArray());
+    }
+
+    private static byte[] tlv(int tag, byte[] value)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length + 6);
+        out.write(tag);
+        if (value.length < 0x80)
+        {
+            out.write(value.length);
+        }
+        else
+        {
+            int bytes = value.length > 0xffff ? 3 : value.length > 0xff ? 2 : 1;
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--)
+            {
+                out.write(value.length >>> (8 * i));
+            }
+        }
+        out.write(value, 0, value.length);
+        return out.toByteArray();
+    }
+
+}
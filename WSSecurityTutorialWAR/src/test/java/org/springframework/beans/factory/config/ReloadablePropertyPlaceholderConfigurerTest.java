@@ -0,0 +1,285 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package org.springframework.beans.factory.config;
+
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.example.tutorial.ws.delivery.DeliveryQueue;
+import com.example.tutorial.ws.journal.MessageJournal;
+
+/**
+ * Unit tests for {@link ReloadablePropertyPlaceholderConfigurer} and {@link ReloadablePropertyBinding}.
+ */
+public class ReloadablePropertyPlaceholderConfigurerTest
+{
+
+    private File file;
+
+    private ReloadablePropertyPlaceholderConfigurer configurer;
+
+    /**
+     * Names a properties file for each test.
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void createFile()
+    {
+        file = new File(System.getProperty("java.io.tmpdir"), "reload-test-" + UUID.randomUUID() + ".properties");
+    }
+
+    /**
+     * Stops the watcher and removes the file.
+     *
+     * @throws Exception
+     */
+    @AfterMethod(alwaysRun = true)
+    public void deleteFile() throws Exception
+    {
+        if (configurer != null)
+        {
+            configurer.destroy();
+            configurer = null;
+        }
+        file.delete();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void reloadPublishesChangedKeysTest() throws Exception
+    {
+        write("a", "1", "b", "${a}0", "c", "x");
+        configurer = newConfigurer(0);
+        PropertiesSnapshot first = configurer.getSnapshot();
+        assertEquals(first.getVersion(), 1);
+        assertEquals(configurer.getProperty("b"), "10");
+
+        RecordingListener ab = new RecordingListener();
+        RecordingListener c = new RecordingListener();
+        configurer.addListener(ab, "a", "b");
+        configurer.addListener(c, "c");
+
+        write("a", "2", "b", "${a}0", "c", "x");
+        assertEquals(configurer.reload(), new HashSet<String>(Arrays.asList("a", "b")));
+        assertEquals(configurer.getVersion(), 2);
+        assertEquals(configurer.getProperty("b"), "20");
+        // one call with both keys and the snapshot they came from
+        assertEquals(ab.calls.size(), 1);
+        assertEquals(ab.calls.get(0), new HashSet<String>(Arrays.asList("a", "b")));
+        assertEquals(ab.snapshots.get(0).getProperty("b"), "20");
+        assertTrue(c.calls.isEmpty());
+        // the old snapshot is untouched
+        assertEquals(first.getProperty("b"), "10");
+
+        assertTrue(configurer.reload().isEmpty());
+        assertEquals(configurer.getVersion(), 2);
+        assertEquals(ab.calls.size(), 1);
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void failedReloadKeepsSnapshotTest() throws Exception
+    {
+        write("a", "1", "b", "${a}0");
+        configurer = newConfigurer(0);
+        RecordingListener listener = new RecordingListener();
+        configurer.addListener(listener, "a", "b");
+
+        write("a", "2", "b", "${missing}0");
+        assertTrue(configurer.reload().isEmpty());
+        assertEquals(configurer.getVersion(), 1);
+        assertEquals(configurer.getProperty("a"), "1");
+        assertNotNull(configurer.getLastFailure());
+        assertTrue(listener.calls.isEmpty());
+
+        write("a", "2", "b", "${a}0");
+        assertEquals(configurer.reload().size(), 2);
+        assertNull(configurer.getLastFailure());
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void bindingSetsBeanPropertiesTest() throws Exception
+    {
+        write("limit", "5", "name", "first");
+        configurer = newConfigurer(0);
+        Target target = new Target();
+        ReloadablePropertyBinding binding = new ReloadablePropertyBinding();
+        binding.setConfigurer(configurer);
+        binding.setTarget(target);
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("limit", "limit");
+        binding.setProperties(properties);
+        binding.afterPropertiesSet();
+
+        write("limit", "7", "name", "second");
+        configurer.reload();
+        assertEquals(target.limit, 7);
+
+        write("limit", "seven", "name", "second");
+        configurer.reload();
+        assertEquals(target.limit, 7, "An unconvertible value must leave the bean alone");
+    }
+
+    /**
+     * A reloaded value the bean's setter rejects, such as a batch size of 0 or a negative flush interval, leaves the
+     * bean with its current value.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void bindingKeepsRejectedValueTest() throws Exception
+    {
+        write("delivery.batchSize", "50", "journal.flushIntervalMillis", "20");
+        configurer = newConfigurer(0);
+        DeliveryQueue queue = new DeliveryQueue();
+        MessageJournal journal = new MessageJournal();
+        bind(queue, "delivery.batchSize", "batchSize");
+        bind(journal, "journal.flushIntervalMillis", "flushIntervalMillis");
+
+        write("delivery.batchSize", "64", "journal.flushIntervalMillis", "5");
+        configurer.reload();
+        assertEquals(queue.getBatchSize(), 64);
+        assertEquals(journal.getFlushIntervalMillis(), 5);
+
+        write("delivery.batchSize", "0", "journal.flushIntervalMillis", "-1");
+        configurer.reload();
+        assertEquals(queue.getBatchSize(), 64, "A batch size of 0 must be rejected");
+        assertEquals(journal.getFlushIntervalMillis(), 5, "A negative flush interval must be rejected");
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit", expectedExceptions = IllegalStateException.class)
+    public void bindingRejectsUnknownPropertyTest() throws Exception
+    {
+        write("limit", "5");
+        configurer = newConfigurer(0);
+        ReloadablePropertyBinding binding = new ReloadablePropertyBinding();
+        binding.setConfigurer(configurer);
+        binding.setTarget(new Target());
+        binding.setProperties(Collections.singletonMap("limit", "noSuchProperty"));
+        binding.afterPropertiesSet();
+    }
+
+    /**
+     * @throws Exception
+     */
+    @Test(groups = "unit")
+    public void watcherReloadsChangedFileTest() throws Exception
+    {
+        write("a", "1");
+        configurer = newConfigurer(20);
+        write("a", "2");
+        file.setLastModified(file.lastModified() + 2000);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (configurer.getVersion() < 2 && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(20);
+        }
+        assertEquals(configurer.getProperty("a"), "2");
+    }
+
+    private void bind(Object target, String key, String beanProperty) throws Exception
+    {
+        ReloadablePropertyBinding binding = new ReloadablePropertyBinding();
+        binding.setConfigurer(configurer);
+        binding.setTarget(target);
+        binding.setProperties(Collections.singletonMap(key, beanProperty));
+        binding.afterPropertiesSet();
+    }
+
+    private ReloadablePropertyPlaceholderConfigurer newConfigurer(long pollIntervalMillis) throws Exception
+    {
+        ReloadablePropertyPlaceholderConfigurer newConfigurer = new ReloadablePropertyPlaceholderConfigurer();
+        newConfigurer.setLocations(new Resource[] { new FileSystemResource(file) });
+        newConfigurer.setSearchJndiEnvironment(false);
+        newConfigurer.setPollIntervalMillis(pollIntervalMillis);
+        newConfigurer.afterPropertiesSet();
+        newConfigurer.postProcessBeanFactory(new DefaultListableBeanFactory());
+        return newConfigurer;
+    }
+
+    private void write(String... keysAndValues) throws IOException
+    {
+        Properties properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2)
+        {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            properties.store(out, null);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Remembers each notification.
+     */
+    private static class RecordingListener implements PropertiesChangeListener
+    {
+
+        final List<Set<String>> calls = new ArrayList<Set<String>>();
+
+        final List<PropertiesSnapshot> snapshots = new ArrayList<PropertiesSnapshot>();
+
+        public void propertiesChanged(PropertiesSnapshot snapshot, Set<String> changedKeys)
+        {
+            calls.add(new HashSet<String>(changedKeys));
+            snapshots.add(snapshot);
+        }
+
+    }
+
+    /**
+     * A bean with a reloadable property.
+     */
+    public static class Target
+    {
+
+        volatile int limit;
+
+        /**
+         * @param limit
+         */
+        public void setLimit(int limit)
+        {
+            this.limit = limit;
+        }
+
+    }
+
+}